@@ -18,7 +18,9 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOriginPatterns("http://localhost:*", "http://127.0.0.1:*", "chrome-extension://*", "https://www.easepath.app")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
-                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With")
+                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With",
+                        "If-None-Match")
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -34,7 +36,10 @@ public class WebConfig implements WebMvcConfigurer {
             "https://easepath.app"
         ));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With"));
+        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With",
+            "If-None-Match"));
+        // Lets the extension read ETags for conditional requests
+        config.setExposedHeaders(Arrays.asList("ETag"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
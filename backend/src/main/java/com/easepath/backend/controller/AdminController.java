@@ -1,5 +1,7 @@
 package com.easepath.backend.controller;
 
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.List;
 import java.util.Map;
 
@@ -8,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,6 +19,13 @@ import com.easepath.backend.dto.AdminStatisticsDTO;
 import com.easepath.backend.dto.AdminUserDTO;
 import com.easepath.backend.model.User;
 import com.easepath.backend.service.AdminPanelService;
+import com.easepath.backend.service.AiGateway;
+import com.easepath.backend.service.AiProviderRouter;
+import com.easepath.backend.service.AiResponseCache;
+import com.easepath.backend.service.AiTokenUsage;
+import com.easepath.backend.service.ApiBudget;
+import com.easepath.backend.service.CacheSnapshotService;
+import com.easepath.backend.service.JobSearchService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -30,9 +40,25 @@ public class AdminController {
     private static final Logger log = LoggerFactory.getLogger(AdminController.class);
 
     private final AdminPanelService adminPanelService;
+    private final JobSearchService jobSearchService;
+    private final ApiBudget apiBudget;
+    private final CacheSnapshotService cacheSnapshotService;
+    private final AiResponseCache aiResponseCache;
+    private final AiGateway aiGateway;
+    private final AiTokenUsage aiTokenUsage;
+    private final AiProviderRouter aiProviderRouter;
 
-    public AdminController(AdminPanelService adminPanelService) {
+    public AdminController(AdminPanelService adminPanelService, JobSearchService jobSearchService,
+            ApiBudget apiBudget, CacheSnapshotService cacheSnapshotService, AiResponseCache aiResponseCache,
+            AiGateway aiGateway, AiTokenUsage aiTokenUsage, AiProviderRouter aiProviderRouter) {
         this.adminPanelService = adminPanelService;
+        this.jobSearchService = jobSearchService;
+        this.apiBudget = apiBudget;
+        this.cacheSnapshotService = cacheSnapshotService;
+        this.aiResponseCache = aiResponseCache;
+        this.aiGateway = aiGateway;
+        this.aiTokenUsage = aiTokenUsage;
+        this.aiProviderRouter = aiProviderRouter;
     }
 
     /**
@@ -100,6 +126,144 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get job search cache hit/miss/eviction counters (admin only).
+     */
+    @GetMapping("/job-search/cache")
+    public ResponseEntity<?> getJobSearchCacheStats(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(jobSearchService.getCacheStats());
+    }
+
+    /**
+     * Get circuit breaker state, latency and last server of each job search
+     * provider (admin only).
+     */
+    @GetMapping("/job-search/providers")
+    public ResponseEntity<?> getJobSearchProviderHealth(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(jobSearchService.getProviderHealth());
+    }
+
+    /**
+     * Write the hot job search cache entries and their postings to the
+     * snapshot file (admin only).
+     */
+    @PostMapping("/job-search/snapshot")
+    public ResponseEntity<?> exportJobSearchSnapshot(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        try {
+            return ResponseEntity.ok(cacheSnapshotService.exportSnapshot());
+        } catch (IOException e) {
+            log.error("Job search snapshot export failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Snapshot export failed", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Load the snapshot file into the job search cache, keeping its expiry
+     * times (admin only).
+     */
+    @PostMapping("/job-search/snapshot/load")
+    public ResponseEntity<?> importJobSearchSnapshot(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        try {
+            return ResponseEntity.ok(cacheSnapshotService.importSnapshot());
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Not Found", "message", "No snapshot at " + e.getMessage()));
+        } catch (IOException e) {
+            log.error("Job search snapshot import failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Snapshot import failed", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Get per-provider API calls, estimated spend and throttle counts (admin
+     * only).
+     */
+    @GetMapping("/api-budget")
+    public ResponseEntity<?> getApiBudget(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(apiBudget.getMetrics());
+    }
+
+    /**
+     * Get per-operation AI response cache hit ratios (admin only).
+     */
+    @GetMapping("/ai-cache")
+    public ResponseEntity<?> getAiCacheStats(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(aiResponseCache.getStats());
+    }
+
+    /**
+     * Get AI gateway queue depth, wait times and shed calls per workload
+     * class (admin only).
+     */
+    @GetMapping("/ai-gateway")
+    public ResponseEntity<?> getAiGatewayMetrics(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(aiGateway.getMetrics());
+    }
+
+    /**
+     * Get prompt and completion tokens per AI operation (admin only).
+     */
+    @GetMapping("/ai-usage")
+    public ResponseEntity<?> getAiTokenUsage(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(aiTokenUsage.getStats());
+    }
+
+    /**
+     * Get circuit breaker state, latency and hedging of each AI provider
+     * (admin only).
+     */
+    @GetMapping("/ai-providers")
+    public ResponseEntity<?> getAiProviderHealth(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(aiProviderRouter.getProviderHealth());
+    }
+
     /**
      * Verify admin access. Returns null if access granted, or error response if
      * denied.
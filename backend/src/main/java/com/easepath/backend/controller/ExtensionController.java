@@ -3,13 +3,19 @@ package com.easepath.backend.controller;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.easepath.backend.dto.AutofillRequest;
 import com.easepath.backend.dto.AutofillResponse;
+import com.easepath.backend.dto.EssayQuestion;
 import com.easepath.backend.dto.UserProfileDto;
 import com.easepath.backend.model.JobApplicationDocument;
 import com.easepath.backend.model.LearnedAnswerDocument;
@@ -33,8 +40,15 @@ import com.easepath.backend.repository.UserProfileRepository;
 import com.easepath.backend.service.AnswerLearningService;
 import com.easepath.backend.service.EmailService;
 import com.easepath.backend.service.FormMappingService;
+import com.easepath.backend.util.ETags;
+import com.easepath.backend.util.GzipCodec;
+import com.easepath.backend.util.TextStreamLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * API endpoints for the browser extension.
@@ -48,6 +62,10 @@ public class ExtensionController {
 
     private static final Logger log = LoggerFactory.getLogger(ExtensionController.class);
 
+    // Most forms have 3-6 free-text questions; the extension sends bigger
+    // forms in chunks
+    private static final int MAX_ESSAY_BATCH = 10;
+
     private final UserProfileRepository userProfileRepository;
     private final ResumeRepository resumeRepository;
     private final JobApplicationRepository jobApplicationRepository;
@@ -55,6 +73,7 @@ public class ExtensionController {
     private final AnswerLearningService answerLearningService;
     private final com.easepath.backend.service.OpenAIService openAIService;
     private final EmailService emailService;
+    private final ObjectMapper objectMapper;
 
     public ExtensionController(UserProfileRepository userProfileRepository,
             ResumeRepository resumeRepository,
@@ -62,7 +81,8 @@ public class ExtensionController {
             FormMappingService formMappingService,
             AnswerLearningService answerLearningService,
             com.easepath.backend.service.OpenAIService openAIService,
-            EmailService emailService) {
+            EmailService emailService,
+            ObjectMapper objectMapper) {
         this.userProfileRepository = userProfileRepository;
         this.resumeRepository = resumeRepository;
         this.jobApplicationRepository = jobApplicationRepository;
@@ -70,6 +90,7 @@ public class ExtensionController {
         this.answerLearningService = answerLearningService;
         this.openAIService = openAIService;
         this.emailService = emailService;
+        this.objectMapper = objectMapper;
     }
 
     // Helper method to extract authenticated user
@@ -225,9 +246,13 @@ public class ExtensionController {
     /**
      * Get user profile for the extension.
      * Accepts either JWT auth OR email query param for manual connect.
+     *
+     * The extension polls this, and the profile rarely changes: the response
+     * carries a strong ETag (hash of the serialized profile) and an
+     * If-None-Match naming the current profile gets a bodyless 304.
      */
     @GetMapping("/profile")
-    public ResponseEntity<UserProfileDto> getProfile(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getProfile(HttpServletRequest httpRequest) throws JsonProcessingException {
 
         // SECURITY: JWT auth required
         String userEmail = getUserEmail(httpRequest);
@@ -235,10 +260,24 @@ public class ExtensionController {
             return ResponseEntity.status(401).build();
         }
 
-        return userProfileRepository.findByEmail(userEmail)
-                .map(this::toDto)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        UserProfileDocument profile = userProfileRepository.findByEmail(userEmail).orElse(null);
+        if (profile == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Serialize once so the ETag is the hash of exactly the bytes sent
+        byte[] body = objectMapper.writeValueAsBytes(toDto(profile));
+        String contentHash = GzipCodec.contentHash(body);
+        String etag = ETags.strong(contentHash, false);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ETags.matches(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), contentHash)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
     }
 
     /**
@@ -672,24 +711,191 @@ public class ExtensionController {
             return ResponseEntity.status(500).body(errorResponse);
         }
 
-        // Truncate if needed, respecting word boundaries
-        if (request.getMaxLength() > 0 && aiResponse.length() > request.getMaxLength()) {
-            // Find the last space before the max length to avoid cutting words in half
-            int truncateAt = aiResponse.lastIndexOf(' ', request.getMaxLength());
+        aiResponse = truncateAnswer(aiResponse, request.getMaxLength());
 
-            // If no space found (very unlikely), fall back to hard truncation
-            if (truncateAt == -1 || truncateAt < request.getMaxLength() / 2) {
-                truncateAt = request.getMaxLength();
-            }
+        Map<String, Object> response = new HashMap<>();
+        response.put("response", aiResponse);
+        response.put("success", true);
+
+        log.info("AI essay generated successfully, length: {} chars", aiResponse.length());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streaming variant of /generate-essay: the answer is sent as server-sent
+     * events while the AI writes it, so the extension can start filling the
+     * field after the first chunk instead of after the whole answer.
+     *
+     * Events: "token" {"text"} for each piece of the answer, then "done"
+     * {"length", "truncated"}, or "error" {"error"} if generation failed.
+     * maxLength is enforced on the fly with the same cut as /generate-essay;
+     * reaching it, or the client disconnecting, cancels the upstream call.
+     */
+    @PostMapping(value = "/generate-essay/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Map<String, Object>>>> streamEssay(
+            @RequestBody GenerateEssayRequest request,
+            HttpServletRequest httpRequest) {
+
+        // SECURITY: JWT auth required
+        String userEmail = getUserEmail(httpRequest);
+        if (userEmail == null) {
+            return ResponseEntity.status(401).build();
+        }
 
-            aiResponse = aiResponse.substring(0, truncateAt).trim() + "...";
+        UserProfileDocument profile = userProfileRepository.findByEmail(userEmail).orElse(null);
+        if (profile == null) {
+            return ResponseEntity.status(400).build();
+        }
+
+        if (!openAIService.isAvailable()) {
+            return ResponseEntity.status(503).build();
+        }
+
+        log.info("Streaming AI essay for user: {}", userEmail);
+
+        TextStreamLimiter limiter = new TextStreamLimiter(request.getMaxLength());
+        Flux<ServerSentEvent<Map<String, Object>>> events = openAIService.streamAnswer(
+                request.getQuestion(),
+                profile,
+                request.getJobTitle(),
+                request.getCompanyName())
+                .map(limiter::accept)
+                // Stops the upstream generation once the field is full
+                .takeUntil(text -> limiter.isTruncated())
+                .concatWith(Mono.fromSupplier(limiter::finish))
+                .filter(text -> !text.isEmpty())
+                .map(text -> essayEvent("token", Map.of("text", text)))
+                .concatWith(Mono.fromSupplier(() -> essayEvent("done",
+                        Map.of("length", limiter.length(), "truncated", limiter.isTruncated()))))
+                .onErrorResume(e -> {
+                    log.error("AI essay stream failed: {}", e.getMessage());
+                    return Mono.just(essayEvent("error",
+                            Map.of("error", "Failed to generate AI response. Please try again.")));
+                })
+                .doOnCancel(() -> log.info("AI essay stream cancelled by client"));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(events);
+    }
+
+    private static ServerSentEvent<Map<String, Object>> essayEvent(String event, Map<String, Object> data) {
+        return ServerSentEvent.<Map<String, Object>>builder(data).event(event).build();
+    }
+
+    /**
+     * Request body for answering every essay question of a form at once.
+     */
+    public static class GenerateEssaysRequest {
+        private String jobTitle;
+        private String companyName;
+        private List<EssayQuestion> questions;
+
+        public String getJobTitle() {
+            return jobTitle;
+        }
+
+        public void setJobTitle(String jobTitle) {
+            this.jobTitle = jobTitle;
+        }
+
+        public String getCompanyName() {
+            return companyName;
+        }
+
+        public void setCompanyName(String companyName) {
+            this.companyName = companyName;
+        }
+
+        public List<EssayQuestion> getQuestions() {
+            return questions;
+        }
+
+        public void setQuestions(List<EssayQuestion> questions) {
+            this.questions = questions;
+        }
+    }
+
+    /**
+     * Generate AI responses for all essay questions of a form with one AI
+     * call. Returns { "answers": { questionId: text } }, each answer cut to
+     * its question's maxLength; questions the AI couldn't answer are left
+     * out.
+     */
+    @PostMapping("/generate-essays")
+    public ResponseEntity<Map<String, Object>> generateEssays(
+            @RequestBody GenerateEssaysRequest request,
+            HttpServletRequest httpRequest) {
+
+        // SECURITY: JWT auth required
+        String userEmail = getUserEmail(httpRequest);
+        if (userEmail == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        List<EssayQuestion> questions = request.getQuestions();
+        if (questions == null || questions.isEmpty() || questions.size() > MAX_ESSAY_BATCH
+                || questions.stream().anyMatch(q -> q == null || q.id() == null || q.question() == null)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Send 1-" + MAX_ESSAY_BATCH + " questions, each with an id and question.");
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+
+        log.info("Generating {} AI essays for user: {}", questions.size(), userEmail);
+
+        UserProfileDocument profile = userProfileRepository.findByEmail(userEmail).orElse(null);
+        if (profile == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Profile not found. Please set up your profile first.");
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+
+        if (!openAIService.isAvailable()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "AI service is not configured.");
+            return ResponseEntity.status(503).body(errorResponse);
+        }
+
+        Map<String, String> generated = openAIService.generateAnswers(
+                questions, profile, request.getJobTitle(), request.getCompanyName());
+        if (generated.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to generate AI responses. Please try again.");
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+
+        Map<String, String> answers = new LinkedHashMap<>();
+        for (EssayQuestion question : questions) {
+            String answer = generated.get(question.id());
+            if (answer != null) {
+                answers.put(question.id(), truncateAnswer(answer, question.maxLength()));
+            }
         }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("response", aiResponse);
+        response.put("answers", answers);
         response.put("success", true);
 
-        log.info("AI essay generated successfully, length: {} chars", aiResponse.length());
+        log.info("AI essays generated: {}/{}", answers.size(), questions.size());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Truncate an answer to maxLength (if positive), respecting word
+     * boundaries.
+     */
+    private static String truncateAnswer(String answer, int maxLength) {
+        if (maxLength <= 0 || answer.length() <= maxLength) {
+            return answer;
+        }
+        // Find the last space before the max length to avoid cutting words in half
+        int truncateAt = answer.lastIndexOf(' ', maxLength);
+
+        // If no space found (very unlikely), fall back to hard truncation
+        if (truncateAt == -1 || truncateAt < maxLength / 2) {
+            truncateAt = maxLength;
+        }
+
+        return answer.substring(0, truncateAt).trim() + "...";
+    }
 }
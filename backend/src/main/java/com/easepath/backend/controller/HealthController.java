@@ -1,17 +1,41 @@
 package com.easepath.backend.controller;
 
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.easepath.backend.service.CacheWarmerService;
+
 /**
  * Simple health check endpoint so you can test the backend quickly.
  */
 @RestController
 public class HealthController {
 
+    private final CacheWarmerService cacheWarmerService;
+
+    public HealthController(CacheWarmerService cacheWarmerService) {
+        this.cacheWarmerService = cacheWarmerService;
+    }
+
     @GetMapping("/api/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("EasePath backend is running");
     }
+
+    /**
+     * Readiness probe for load balancers: 503 while the job search cache is
+     * still warming (only with the warm-up readiness gate enabled), with the
+     * warm-up progress in the body either way.
+     */
+    @GetMapping("/api/health/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        boolean ready = cacheWarmerService.isReady();
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", ready ? "READY" : "WARMING",
+                        "warmup", cacheWarmerService.getWarmupStatus()));
+    }
 }
@@ -1,5 +1,10 @@
 package com.easepath.backend.controller;
 
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -8,10 +13,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.easepath.backend.dto.JobSearchResult;
 import com.easepath.backend.model.User;
+import com.easepath.backend.service.JobSearchCursor;
 import com.easepath.backend.service.JobSearchService;
+import com.easepath.backend.util.ETags;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -24,16 +33,39 @@ import jakarta.servlet.http.HttpServletRequest;
 }, allowCredentials = "true")
 public class JobController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final JobSearchService jobSearchService;
 
     public JobController(JobSearchService jobSearchService) {
         this.jobSearchService = jobSearchService;
     }
 
+    /**
+     * Returns the search Mono directly - Spring MVC completes the request
+     * asynchronously, so the servlet thread is released while upstream APIs
+     * respond.
+     *
+     * Results are kept gzip-compressed; clients that accept gzip get those
+     * bytes unchanged, everyone else gets the decoded JSON.
+     *
+     * Every response carries a strong ETag from the content hash of the page.
+     * A cached page is byte-identical until it expires, so a polling client
+     * that sends If-None-Match gets a bodyless 304 until it changes.
+     *
+     * Paging: pass page_size and, for every page after the first, the
+     * next_cursor from the previous response. The legacy page/num_pages
+     * parameters are still honored when no cursor is given. Offsets past the
+     * configured paging depth get a 400.
+     */
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> searchJobs(
+    public Mono<ResponseEntity<?>> searchJobs(
             @RequestParam(value = "query") String query,
-            @RequestParam(value = "num_pages", defaultValue = "1") String numPages,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "page_size", required = false) Integer pageSize,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "num_pages", required = false) Integer numPages,
             @RequestParam(value = "date_posted", defaultValue = "all") String datePosted,
             @RequestParam(value = "remote_jobs_only", required = false) String remoteJobsOnly,
             @RequestParam(value = "employment_types", required = false) String employmentTypes,
@@ -42,11 +74,92 @@ public class JobController {
 
         User currentUser = (User) request.getAttribute("currentUser");
         if (currentUser == null) {
-            return ResponseEntity.status(401).build();
+            return Mono.just(ResponseEntity.status(401).build());
+        }
+
+        int size = pageSize != null ? pageSize
+                : numPages != null ? numPages * DEFAULT_PAGE_SIZE : DEFAULT_PAGE_SIZE;
+        // A page is cut from one upstream window; anything larger would
+        // silently come back short
+        size = Math.max(1, Math.min(Math.min(MAX_PAGE_SIZE, jobSearchService.getMaxPageSize()), size));
+
+        // long: (page - 1) * size overflows int for a large page number
+        long offset;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = JobSearchCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor")));
+            }
+        } else {
+            offset = page != null && page > 1 ? (page - 1L) * size : 0;
+        }
+        // Each window deeper is another paid upstream call - paging stops at
+        // the configured depth
+        if (offset >= jobSearchService.getMaxOffset()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Page out of range")));
         }
 
-        String result = jobSearchService.searchJobs(query, numPages, datePosted, remoteJobsOnly, employmentTypes,
-                jobRequirements);
-        return ResponseEntity.ok(result);
+        return jobSearchService.searchJobs(query, (int) offset, size, datePosted, remoteJobsOnly, employmentTypes,
+                jobRequirements)
+                .map(result -> toResponse(result, acceptsGzip(request), request.getHeader(HttpHeaders.IF_NONE_MATCH)));
+    }
+
+    private ResponseEntity<?> toResponse(JobSearchResult result, boolean gzip, String ifNoneMatch) {
+        String etag = ETags.strong(result.getContentHash(), gzip);
+        // no-cache: clients may store the page but must revalidate it
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ETags.matches(ifNoneMatch, result.getContentHash())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            byte[] body = result.getGzipped();
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(body.length)
+                    .body(body);
+        }
+        return response.body(result.getJson());
+    }
+
+    /**
+     * True if Accept-Encoding lists gzip (or *) without q=0.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0.0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,11 @@
+package com.easepath.backend.dto;
+
+/**
+ * One free-text question from an application form.
+ *
+ * @param id        caller-chosen id the answer is returned under
+ * @param question  the question text / field label
+ * @param maxLength character limit of the field (0 = none)
+ */
+public record EssayQuestion(String id, String question, int maxLength) {
+}
@@ -0,0 +1,70 @@
+package com.easepath.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+
+import com.easepath.backend.util.GzipCodec;
+
+/**
+ * A JSearch-format job search response held in gzip form.
+ *
+ * Cached results are stored compressed, so the common path never inflates
+ * them: clients that accept gzip get {@link #getGzipped()} written straight
+ * to the response. The JSON text is only decoded the first time
+ * {@link #getJson()} is called.
+ */
+public final class JobSearchResult {
+
+    private final byte[] gzipped;
+    private final int originalSize;
+    private final String contentHash;
+    private volatile String json;
+
+    private JobSearchResult(byte[] gzipped, int originalSize, String contentHash, String json) {
+        this.gzipped = gzipped;
+        this.originalSize = originalSize;
+        this.contentHash = contentHash;
+        this.json = json;
+    }
+
+    /**
+     * Compress a freshly fetched response.
+     */
+    public static JobSearchResult fromJson(String json) {
+        byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+        return new JobSearchResult(GzipCodec.compress(raw), raw.length, GzipCodec.contentHash(raw), json);
+    }
+
+    /**
+     * Wrap already-compressed bytes, e.g. read from the cache.
+     */
+    public static JobSearchResult fromGzipped(byte[] gzipped, int originalSize, String contentHash) {
+        return new JobSearchResult(gzipped, originalSize, contentHash, null);
+    }
+
+    public byte[] getGzipped() {
+        return gzipped;
+    }
+
+    /**
+     * Size of the JSON in bytes before compression.
+     */
+    public int getOriginalSize() {
+        return originalSize;
+    }
+
+    /**
+     * SHA-256 of the uncompressed JSON.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getJson() {
+        String decoded = json;
+        if (decoded == null) {
+            decoded = GzipCodec.decompress(gzipped, originalSize);
+            json = decoded;
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,172 @@
+package com.easepath.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Profile data the AI extracted from a resume. Any field may be null when
+ * the resume doesn't state it; {@link #validated()} normalizes what the
+ * model returned before it reaches the profile form.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ParsedResume(
+        String firstName,
+        String lastName,
+        String phone,
+        String email,
+        String linkedInUrl,
+        String githubUrl,
+        String portfolioUrl,
+        String city,
+        String state,
+        String country,
+        String highestDegree,
+        String university,
+        String major,
+        String educationStartDate,
+        String educationEndDate,
+        String desiredJobTitle,
+        String yearsOfExperience,
+        List<WorkExperience> workExperience) {
+
+    public static final int MAX_WORK_EXPERIENCE = 5;
+
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final Pattern YEAR_MONTH = Pattern.compile("(\\d{4})[-/.](\\d{1,2})");
+    private static final Pattern MONTH_YEAR = Pattern.compile("(\\d{1,2})[-/.](\\d{4})");
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record WorkExperience(
+            String company,
+            String jobTitle,
+            String startDate,
+            String endDate,
+            Boolean isCurrent,
+            String location,
+            String description) {
+    }
+
+    /**
+     * Placeholder strings become null, the phone is formatted
+     * xxx-xxx-xxxx, an invalid email is dropped, dates are normalized to
+     * the formats the prompt asks for, and work experience keeps at most
+     * {@value #MAX_WORK_EXPERIENCE} entries that name a company or title.
+     */
+    public ParsedResume validated() {
+        List<WorkExperience> jobs = null;
+        if (workExperience != null) {
+            jobs = new ArrayList<>();
+            for (WorkExperience job : workExperience) {
+                if (job == null || (clean(job.company()) == null && clean(job.jobTitle()) == null)) {
+                    continue;
+                }
+                String endDate = clean(job.endDate());
+                boolean current = job.isCurrent() != null ? job.isCurrent() : endDate == null;
+                if (endDate != null && endDate.matches("(?i)present|current|now")) {
+                    endDate = null;
+                    current = true;
+                }
+                jobs.add(new WorkExperience(clean(job.company()), clean(job.jobTitle()),
+                        yearMonth(clean(job.startDate())), current ? null : yearMonth(endDate), current,
+                        clean(job.location()), clean(job.description())));
+                if (jobs.size() == MAX_WORK_EXPERIENCE) {
+                    break;
+                }
+            }
+        }
+
+        String cleanState = clean(state);
+        if (cleanState != null && cleanState.length() == 2) {
+            cleanState = cleanState.toUpperCase(Locale.ROOT);
+        }
+
+        return new ParsedResume(clean(firstName), clean(lastName), phone(clean(phone)), email(clean(email)),
+                url(clean(linkedInUrl)), url(clean(githubUrl)), url(clean(portfolioUrl)),
+                clean(city), cleanState, clean(country), clean(highestDegree), clean(university), clean(major),
+                monthYear(clean(educationStartDate)), monthYear(clean(educationEndDate)),
+                clean(desiredJobTitle), clean(yearsOfExperience), jobs);
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.equalsIgnoreCase("null") || trimmed.equalsIgnoreCase("n/a")
+                || trimmed.equalsIgnoreCase("none") || trimmed.equalsIgnoreCase("unknown")) {
+            return null;
+        }
+        return trimmed;
+    }
+
+    private static String phone(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replaceAll("\\D", "");
+        if (digits.length() == 11 && digits.startsWith("1")) {
+            digits = digits.substring(1);
+        }
+        if (digits.length() != 10) {
+            // Not a US number - keep it as written
+            return value;
+        }
+        return digits.substring(0, 3) + "-" + digits.substring(3, 6) + "-" + digits.substring(6);
+    }
+
+    private static String email(String value) {
+        return value != null && EMAIL.matcher(value).matches() ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String url(String value) {
+        if (value == null || value.startsWith("http://") || value.startsWith("https://")) {
+            return value;
+        }
+        return value.contains(".") && !value.contains(" ") ? "https://" + value : null;
+    }
+
+    /**
+     * YYYY-MM, the format of work experience dates.
+     */
+    private static String yearMonth(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher yearFirst = YEAR_MONTH.matcher(value);
+        if (yearFirst.matches()) {
+            return yearFirst.group(1) + "-" + twoDigits(yearFirst.group(2));
+        }
+        Matcher monthFirst = MONTH_YEAR.matcher(value);
+        if (monthFirst.matches()) {
+            return monthFirst.group(2) + "-" + twoDigits(monthFirst.group(1));
+        }
+        return value;
+    }
+
+    /**
+     * MM/YYYY, the format of education dates.
+     */
+    private static String monthYear(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher monthFirst = MONTH_YEAR.matcher(value);
+        if (monthFirst.matches()) {
+            return twoDigits(monthFirst.group(1)) + "/" + monthFirst.group(2);
+        }
+        Matcher yearFirst = YEAR_MONTH.matcher(value);
+        if (yearFirst.matches()) {
+            return twoDigits(yearFirst.group(2)) + "/" + yearFirst.group(1);
+        }
+        return value;
+    }
+
+    private static String twoDigits(String month) {
+        return month.length() == 1 ? "0" + month : month;
+    }
+}
@@ -0,0 +1,41 @@
+package com.easepath.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Resume score as returned by the AI. Scores are 0-100; any of them may be
+ * missing or out of range in a raw reply, see {@link #validated()}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ResumeScore(Integer overall, Integer profile, Integer keywords, Integer ats, String message) {
+
+    /**
+     * Missing scores get the defaults the UI has always shown, scores above
+     * 100 are capped, and a missing overall score is the average of the
+     * category scores the model did give.
+     */
+    public ResumeScore validated() {
+        int profileScore = score(profile, 70);
+        int keywordsScore = score(keywords, 60);
+        int atsScore = score(ats, 80);
+
+        int overallScore;
+        if (overall != null && overall >= 0) {
+            overallScore = Math.min(overall, 100);
+        } else if (profile != null || keywords != null || ats != null) {
+            overallScore = (profileScore + keywordsScore + atsScore) / 3;
+        } else {
+            overallScore = 70;
+        }
+
+        String feedback = message != null && !message.isBlank() ? message.trim() : "Resume analyzed successfully.";
+        return new ResumeScore(overallScore, profileScore, keywordsScore, atsScore, feedback);
+    }
+
+    private static int score(Integer value, int fallback) {
+        if (value == null || value < 0) {
+            return fallback;
+        }
+        return Math.min(value, 100);
+    }
+}
@@ -0,0 +1,93 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Cached LLM response for one prompt. The id is the model plus a hash of the
+ * normalized prompt, so the same prompt sent to the same model is answered
+ * from here instead of another round trip.
+ */
+@Document(collection = "ai_response_cache")
+public class AiResponseCacheDocument {
+
+    @Id
+    private String id;
+
+    // AiOperation key, for per-operation stats and debugging
+    private String operation;
+
+    // Model that produced the response, e.g. "gemini:gemini-2.5-flash"
+    private String model;
+
+    private String response;
+
+    private Instant createdAt;
+
+    // Mongo's TTL monitor deletes the document at this instant
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public AiResponseCacheDocument() {
+    }
+
+    public AiResponseCacheDocument(String id, String operation, String model, String response, Instant expireAt) {
+        this.id = id;
+        this.operation = operation;
+        this.model = model;
+        this.response = response;
+        this.createdAt = Instant.now();
+        this.expireAt = expireAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One job posting in JSearch format, shared by every cached search that
+ * returned it. Search cache entries only reference postings by job_id, so a
+ * refresh of any search updates the posting for all of them.
+ */
+@Document(collection = "job_postings")
+public class JobPostingDocument {
+
+    // JSearch job_id
+    @Id
+    private String id;
+
+    // Gzip-compressed JSON of the posting
+    private byte[] postingGzip;
+
+    // Uncompressed size in bytes
+    private int originalSize;
+
+    private Instant updatedAt;
+
+    // Pushed forward every time a search returns the posting, so it outlives
+    // every cache entry that references it
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public JobPostingDocument() {
+    }
+
+    public JobPostingDocument(String id, byte[] postingGzip, int originalSize, Instant expireAt) {
+        this.id = id;
+        this.postingGzip = postingGzip;
+        this.originalSize = originalSize;
+        this.updatedAt = Instant.now();
+        this.expireAt = expireAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public byte[] getPostingGzip() {
+        return postingGzip;
+    }
+
+    public void setPostingGzip(byte[] postingGzip) {
+        this.postingGzip = postingGzip;
+    }
+
+    public int getOriginalSize() {
+        return originalSize;
+    }
+
+    public void setOriginalSize(int originalSize) {
+        this.originalSize = originalSize;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
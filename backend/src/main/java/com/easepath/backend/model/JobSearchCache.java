@@ -1,36 +1,80 @@
 package com.easepath.backend.model;
 
 import java.time.Instant;
+import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+/**
+ * Cached JSearch-format response for one canonical job search.
+ * The id is the fixed-length JobSearchKey hash, so lookups go through the
+ * _id index and re-caching the same search overwrites the old entry.
+ *
+ * The postings themselves live in the shared job_postings collection; an
+ * entry only keeps the ordered job_ids plus the response envelope (every
+ * top-level field except "data"), and the response is reassembled from
+ * those on read.
+ */
 @Document(collection = "job_search_cache")
 public class JobSearchCache {
 
     @Id
     private String id;
 
-    @Indexed
+    // Canonical search string - kept for debugging, not indexed
     private String query;
 
-    private String resultJson;
+    // Top-level response fields other than "data", as JSON
+    private String envelopeJson;
 
+    // job_ids of the postings in "data", in response order
+    private List<String> jobIds;
+
+    // Newest-first scans (snapshot export) walk this index and stop early
+    @Indexed(direction = IndexDirection.DESCENDING)
     private Instant createdAt;
 
-    // Cache expires after 24 hours (86400 seconds) for fresher job results
+    // Soft expiry: after this the entry is stale - still served, but refreshed
+    // in the background
+    private Instant freshUntil;
+
+    // Hard expiry: Mongo's TTL monitor deletes the document at this instant
     @Indexed(expireAfterSeconds = 0)
     private Instant expireAt;
 
     public JobSearchCache() {
     }
 
-    public JobSearchCache(String query, String resultJson) {
+    public JobSearchCache(String id, String query, String envelopeJson, List<String> jobIds, Instant freshUntil,
+            Instant expireAt) {
+        this.id = id;
         this.query = query;
-        this.resultJson = resultJson;
+        this.envelopeJson = envelopeJson;
+        this.jobIds = jobIds;
         this.createdAt = Instant.now();
-        this.expireAt = Instant.now().plusSeconds(86400); // 24 hours
+        this.freshUntil = freshUntil;
+        this.expireAt = expireAt;
+    }
+
+    /**
+     * Entries written before soft expiry existed have no freshUntil and are
+     * fresh until their hard expiry.
+     */
+    public boolean isStale(Instant now) {
+        Instant softDeadline = freshUntil != null ? freshUntil : expireAt;
+        return softDeadline != null && !softDeadline.isAfter(now);
+    }
+
+    /**
+     * Entries written before postings were normalized stored the whole
+     * response in a field that no longer exists; they have no id list and are
+     * treated as a miss until the TTL index removes them.
+     */
+    public boolean hasPayload() {
+        return envelopeJson != null && jobIds != null;
     }
 
     public String getId() {
@@ -49,12 +93,20 @@ public class JobSearchCache {
         this.query = query;
     }
 
-    public String getResultJson() {
-        return resultJson;
+    public String getEnvelopeJson() {
+        return envelopeJson;
     }
 
-    public void setResultJson(String resultJson) {
-        this.resultJson = resultJson;
+    public void setEnvelopeJson(String envelopeJson) {
+        this.envelopeJson = envelopeJson;
+    }
+
+    public List<String> getJobIds() {
+        return jobIds;
+    }
+
+    public void setJobIds(List<String> jobIds) {
+        this.jobIds = jobIds;
     }
 
     public Instant getCreatedAt() {
@@ -65,6 +117,14 @@ public class JobSearchCache {
         this.createdAt = createdAt;
     }
 
+    public Instant getFreshUntil() {
+        return freshUntil;
+    }
+
+    public void setFreshUntil(Instant freshUntil) {
+        this.freshUntil = freshUntil;
+    }
+
     public Instant getExpireAt() {
         return expireAt;
     }
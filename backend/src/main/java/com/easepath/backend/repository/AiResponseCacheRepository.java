@@ -0,0 +1,11 @@
+package com.easepath.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.easepath.backend.model.AiResponseCacheDocument;
+
+/**
+ * Cached LLM responses are looked up by id (model + prompt hash).
+ */
+public interface AiResponseCacheRepository extends MongoRepository<AiResponseCacheDocument, String> {
+}
@@ -0,0 +1,20 @@
+package com.easepath.backend.repository;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.easepath.backend.model.JobPostingDocument;
+
+/**
+ * Shared job postings, looked up in bulk by job_id.
+ */
+public interface JobPostingRepository extends MongoRepository<JobPostingDocument, String> {
+
+    /**
+     * Postings refreshed after the given instant, streamed through a cursor
+     * (callers must close the stream).
+     */
+    Stream<JobPostingDocument> findByUpdatedAtAfter(Instant since);
+}
@@ -1,11 +1,21 @@
 package com.easepath.backend.repository;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.easepath.backend.model.JobSearchCache;
 
+/**
+ * Job search cache entries are looked up by id (the JobSearchKey hash).
+ */
 public interface JobSearchRepository extends MongoRepository<JobSearchCache, String> {
-    Optional<JobSearchCache> findByQuery(String query);
+
+    /**
+     * Up to {@code limit} entries not yet past their hard expiry, newest
+     * first, streamed through a cursor (callers must close the stream).
+     */
+    Stream<JobSearchCache> findByExpireAtAfterOrderByCreatedAtDesc(Instant now, Limit limit);
 }
@@ -0,0 +1,269 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.LatencyTracker;
+
+/**
+ * Admission control for LLM calls.
+ *
+ * Every call takes a permit for its workload class before going upstream.
+ * Each class is a bulkhead with its own concurrency limit and bounded FIFO
+ * queue, and all classes share one limit on calls in flight, so a burst of
+ * resume uploads can fill the background queue but never the slots autofill
+ * needs. When a slot frees up, queued interactive calls are admitted first.
+ *
+ * A call is shed when its class's queue is full or when it has waited longer
+ * than the class's max-wait - an autofill answer that arrives after the user
+ * gave up is wasted quota. Shed calls fail with {@link OverloadedException}
+ * and callers fall back to their heuristics, as for any failed AI call.
+ * Settings are read per class from easepath.ai.gateway.&lt;class&gt;.*.
+ */
+@Service
+public class AiGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(AiGateway.class);
+
+    // Queue waits kept per class for the percentiles in getMetrics()
+    private static final int WAIT_SAMPLES = 500;
+
+    private final int maxConcurrent;
+    private final Map<AiWorkload, Bulkhead> bulkheads = new EnumMap<>(AiWorkload.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private int inFlight;
+
+    public AiGateway(Environment environment,
+            @Value("${easepath.ai.gateway.max-concurrent:6}") int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        for (AiWorkload workload : AiWorkload.values()) {
+            String prefix = "easepath.ai.gateway." + workload.key() + ".";
+            int concurrency = environment.getProperty(prefix + "max-concurrent", Integer.class, this.maxConcurrent);
+            int maxQueue = environment.getProperty(prefix + "max-queue", Integer.class, 20);
+            Duration maxWait = environment.getProperty(prefix + "max-wait", Duration.class, Duration.ofSeconds(10));
+            bulkheads.put(workload, new Bulkhead(workload, Math.max(1, concurrency), Math.max(0, maxQueue), maxWait));
+        }
+    }
+
+    /**
+     * Wait for a slot to make one call for {@code operation}. Blocks for at
+     * most the class's max-wait; close the permit once the call is done.
+     *
+     * @throws OverloadedException if the queue is full or the wait expired
+     */
+    public Permit acquire(AiOperation operation) {
+        Bulkhead bulkhead = bulkheads.get(operation.workload());
+        lock.lock();
+        try {
+            // Joining the back of a non-empty queue keeps the class FIFO
+            if (bulkhead.queue.isEmpty() && canStart(bulkhead)) {
+                start(bulkhead);
+                bulkhead.recordWait(0);
+                return new Permit(bulkhead);
+            }
+            if (bulkhead.queue.size() >= bulkhead.maxQueue) {
+                bulkhead.shedQueueFull++;
+                log.debug(" AI gateway shed {} call: {} queue full", operation.key(), bulkhead.workload.key());
+                throw new OverloadedException(bulkhead.workload, "queue full");
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition(), System.nanoTime());
+            bulkhead.queue.addLast(waiter);
+            long remaining = bulkhead.maxWait.toNanos();
+            try {
+                while (!waiter.admitted) {
+                    if (remaining <= 0) {
+                        bulkhead.queue.remove(waiter);
+                        bulkhead.shedDeadline++;
+                        log.debug(" AI gateway shed {} call: waited over {}ms", operation.key(),
+                                bulkhead.maxWait.toMillis());
+                        throw new OverloadedException(bulkhead.workload, "queue wait expired");
+                    }
+                    remaining = waiter.admittedSignal.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.admitted) {
+                    // Admitted just before the interrupt: hand the slot on
+                    finish(bulkhead);
+                } else {
+                    bulkhead.queue.remove(waiter);
+                }
+                throw new OverloadedException(bulkhead.workload, "interrupted while queued");
+            }
+            bulkhead.recordWait(System.nanoTime() - waiter.enqueuedNanos);
+            return new Permit(bulkhead);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue depth, wait time and shed counters per workload class for the
+     * admin dashboard.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Map<String, Object> classes = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            metrics.put("inFlight", inFlight);
+            metrics.put("maxConcurrent", maxConcurrent);
+            long now = System.nanoTime();
+            bulkheads.forEach((workload, bulkhead) -> classes.put(workload.key(), bulkhead.metrics(now)));
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("classes", classes);
+        return metrics;
+    }
+
+    private boolean canStart(Bulkhead bulkhead) {
+        return bulkhead.active < bulkhead.maxConcurrent && inFlight < maxConcurrent;
+    }
+
+    private void start(Bulkhead bulkhead) {
+        bulkhead.active++;
+        bulkhead.admitted++;
+        inFlight++;
+    }
+
+    private void finish(Bulkhead bulkhead) {
+        bulkhead.active--;
+        inFlight--;
+        dispatch();
+    }
+
+    /**
+     * Admit queued calls into free slots, highest priority class first.
+     * Caller holds the lock.
+     */
+    private void dispatch() {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            while (!bulkhead.queue.isEmpty() && canStart(bulkhead)) {
+                Waiter waiter = bulkhead.queue.pollFirst();
+                start(bulkhead);
+                waiter.admitted = true;
+                waiter.admittedSignal.signal();
+            }
+        }
+    }
+
+    private void release(Bulkhead bulkhead) {
+        lock.lock();
+        try {
+            finish(bulkhead);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A slot for one upstream call. Closing it more than once is harmless.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(bulkhead);
+            }
+        }
+    }
+
+    /**
+     * The call was shed instead of queued or waited too long for a slot.
+     */
+    public static class OverloadedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        OverloadedException(AiWorkload workload, String reason) {
+            super("AI gateway overloaded (" + workload.key() + "): " + reason);
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition admittedSignal;
+        private final long enqueuedNanos;
+        private boolean admitted;
+
+        Waiter(Condition admittedSignal, long enqueuedNanos) {
+            this.admittedSignal = admittedSignal;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Limits, queue and counters of one workload class. Guarded by the
+     * gateway lock.
+     */
+    private static final class Bulkhead {
+
+        private final AiWorkload workload;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final Duration maxWait;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private final LatencyTracker waits = new LatencyTracker(WAIT_SAMPLES, 1);
+
+        private int active;
+        private long admitted;
+        private long shedQueueFull;
+        private long shedDeadline;
+        private long maxWaitSeenNanos;
+
+        Bulkhead(AiWorkload workload, int maxConcurrent, int maxQueue, Duration maxWait) {
+            this.workload = workload;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+        }
+
+        void recordWait(long nanos) {
+            waits.record(Duration.ofNanos(nanos));
+            maxWaitSeenNanos = Math.max(maxWaitSeenNanos, nanos);
+        }
+
+        Map<String, Object> metrics(long now) {
+            Duration p50 = waits.percentile(0.5);
+            Duration p95 = waits.percentile(0.95);
+            Waiter oldest = queue.peekFirst();
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("active", active);
+            metrics.put("maxConcurrent", maxConcurrent);
+            metrics.put("queued", queue.size());
+            metrics.put("maxQueue", maxQueue);
+            metrics.put("maxWaitMs", maxWait.toMillis());
+            metrics.put("oldestQueuedMs", oldest != null ? TimeUnit.NANOSECONDS.toMillis(now - oldest.enqueuedNanos) : 0);
+            metrics.put("admitted", admitted);
+            metrics.put("shedQueueFull", shedQueueFull);
+            metrics.put("shedDeadline", shedDeadline);
+            metrics.put("waitP50Ms", p50 != null ? p50.toMillis() : null);
+            metrics.put("waitP95Ms", p95 != null ? p95.toMillis() : null);
+            metrics.put("waitMaxMs", TimeUnit.NANOSECONDS.toMillis(maxWaitSeenNanos));
+            return metrics;
+        }
+    }
+}
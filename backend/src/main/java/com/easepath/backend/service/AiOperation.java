@@ -0,0 +1,33 @@
+package com.easepath.backend.service;
+
+/**
+ * The kinds of LLM call the backend makes. Used to key per-operation
+ * settings (easepath.ai.&lt;key&gt;.*) and metrics, and to pick the
+ * AiGateway bulkhead a call runs in.
+ */
+public enum AiOperation {
+
+    FIELD_MAPPING("field-mapping", AiWorkload.INTERACTIVE),
+    ESSAY("essay", AiWorkload.INTERACTIVE),
+    RESUME_SCORE("resume-score", AiWorkload.BACKGROUND),
+    RESUME_PARSE("resume-parse", AiWorkload.BACKGROUND);
+
+    private final String key;
+    private final AiWorkload workload;
+
+    AiOperation(String key, AiWorkload workload) {
+        this.key = key;
+        this.workload = workload;
+    }
+
+    /**
+     * Name used in property keys and metrics, e.g. "field-mapping".
+     */
+    public String key() {
+        return key;
+    }
+
+    public AiWorkload workload() {
+        return workload;
+    }
+}
@@ -0,0 +1,54 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+
+import com.easepath.backend.util.JsonSchema;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * An LLM backend the AI features can run on.
+ *
+ * Providers are ordered by easepath.ai.providers and wrapped by
+ * AiProviderRouter in a deadline, a circuit breaker and an API budget under
+ * {@link #getName()}. Implementations record token usage themselves and
+ * signal errors through the returned publisher.
+ */
+public interface AiProvider {
+
+    /**
+     * Stable name used in configuration (easepath.ai.providers), as the
+     * circuit breaker and API budget name, and in provider health.
+     */
+    String getName();
+
+    /**
+     * False if the provider cannot be called, e.g. its API key is not set.
+     */
+    boolean isConfigured();
+
+    /**
+     * The model answers are cached under (AiResponseCache), e.g.
+     * "gemini:gemini-2.5-flash".
+     */
+    String getModelId();
+
+    /**
+     * Deadline for a {@link #generate} call, and for each chunk of a
+     * {@link #stream}.
+     */
+    Duration getTimeout();
+
+    /**
+     * One completion for {@code prompt}.
+     *
+     * @param schema if not null, ask for JSON output matching it
+     */
+    Mono<String> generate(AiOperation operation, String prompt, JsonSchema schema);
+
+    /**
+     * The same completion streamed, one element per chunk of text.
+     */
+    Flux<String> stream(AiOperation operation, String prompt);
+}
@@ -0,0 +1,347 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.CircuitBreaker;
+import com.easepath.backend.util.JsonSchema;
+import com.easepath.backend.util.LatencyTracker;
+import com.easepath.backend.util.ProviderGuard;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks the AI provider for each call and fails over between them.
+ *
+ * Providers are tried in the order of easepath.ai.providers, the first being
+ * the primary. Every call has the provider's deadline, each provider has a
+ * circuit breaker driven by its error rate, and a provider with an open
+ * circuit or over its API budget is skipped outright - a failing Gemini costs
+ * one failed call before OpenAI answers, and once its circuit opens, not even
+ * that.
+ *
+ * Latency is tracked per provider and operation. For the operations listed
+ * in easepath.ai.hedge.operations (field mapping by default: the user is
+ * looking at the form), the next provider is also called once the primary
+ * has taken longer than its recent latency percentile for that operation;
+ * the first answer wins and the other call is cancelled. A hedged call runs
+ * under one AiGateway permit.
+ */
+@Service
+public class AiProviderRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(AiProviderRouter.class);
+
+    private final List<AiProvider> providers;
+
+    // Breaker and budget per provider; latencies per provider and operation
+    private final ProviderGuard providerGuard;
+    private final Map<String, AtomicLong> servedCounts = new ConcurrentHashMap<>();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private volatile String lastServedBy;
+
+    // Hedging configuration
+    @Value("${easepath.ai.hedge.operations:field-mapping}")
+    private Set<String> hedgeOperations;
+
+    @Value("${easepath.ai.hedge.percentile:0.9}")
+    private double hedgePercentile;
+
+    @Value("${easepath.ai.hedge.default-delay:3s}")
+    private Duration hedgeDefaultDelay;
+
+    @Value("${easepath.ai.hedge.min-delay:1s}")
+    private Duration hedgeMinDelay;
+
+    // Circuit breakers - open after too many failing or slow calls
+    @Value("${easepath.ai.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${easepath.ai.circuit.min-calls:5}")
+    private int circuitMinCalls;
+
+    @Value("${easepath.ai.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${easepath.ai.circuit.slow-call-threshold:45s}")
+    private Duration circuitSlowCallThreshold;
+
+    @Value("${easepath.ai.circuit.slow-call-rate:0.8}")
+    private double circuitSlowCallRate;
+
+    @Value("${easepath.ai.circuit.open-duration:30s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${easepath.ai.circuit.half-open-calls:1}")
+    private int circuitHalfOpenCalls;
+
+    public AiProviderRouter(List<AiProvider> available, ApiBudget apiBudget,
+            @Value("${easepath.ai.providers:gemini,openai}") List<String> order) {
+        this.providers = ProviderGuard.prioritize(available, AiProvider::getName, order, "easepath.ai.providers");
+        this.providerGuard = new ProviderGuard(this::newCircuitBreaker, apiBudget::tryAcquire);
+    }
+
+    private CircuitBreaker newCircuitBreaker(String name) {
+        return new CircuitBreaker(name, circuitWindowSize, circuitMinCalls, circuitFailureRate,
+                circuitSlowCallThreshold, circuitSlowCallRate, circuitOpenDuration, circuitHalfOpenCalls);
+    }
+
+    /**
+     * Enabled providers that can actually be called, in priority order.
+     */
+    public List<AiProvider> getConfiguredProviders() {
+        return providers.stream().filter(AiProvider::isConfigured).toList();
+    }
+
+    public boolean isAvailable() {
+        return providers.stream().anyMatch(AiProvider::isConfigured);
+    }
+
+    /**
+     * Models of the configured providers in the order they are tried, for
+     * cache lookups.
+     */
+    public List<String> candidateModels() {
+        return getConfiguredProviders().stream().map(AiProvider::getModelId).toList();
+    }
+
+    /**
+     * One completion from the first provider that gives one, hedged for the
+     * configured operations.
+     *
+     * @return the reply and the model that wrote it; fails with the first
+     *         provider error if every provider failed or was skipped
+     */
+    public Mono<Reply> generate(AiOperation operation, String prompt, JsonSchema schema) {
+        return Mono.defer(() -> {
+            List<AiProvider> configured = getConfiguredProviders();
+            if (configured.isEmpty()) {
+                return Mono.error(new RuntimeException("No AI API configured (neither Gemini nor OpenAI)"));
+            }
+            Attempts attempts = new Attempts();
+
+            // Each fallback is only subscribed if everything before it failed
+            Mono<Reply> fallbacks = Mono.empty();
+            for (int i = configured.size() - 1; i >= 1; i--) {
+                fallbacks = attempt(configured.get(i), operation, prompt, schema, attempts).switchIfEmpty(fallbacks);
+            }
+            AiProvider primary = configured.get(0);
+            Mono<Reply> primaryCall = attempt(primary, operation, prompt, schema, attempts);
+
+            Mono<Reply> reply = configured.size() > 1 && hedgeOperations.contains(operation.key())
+                    ? hedged(operation, primary, primaryCall, fallbacks)
+                    : primaryCall.switchIfEmpty(fallbacks);
+            return reply.switchIfEmpty(Mono.error(attempts::failure));
+        });
+    }
+
+    /**
+     * Stream a completion from the first provider that starts one. A provider
+     * that fails before its first chunk is skipped like a failed call; once
+     * text has gone out an error ends the stream, since another model can't
+     * continue the answer. Streams are not hedged.
+     */
+    public Flux<Reply> stream(AiOperation operation, String prompt) {
+        return Flux.defer(() -> {
+            List<AiProvider> configured = getConfiguredProviders();
+            if (configured.isEmpty()) {
+                return Flux.error(new RuntimeException("No AI API configured (neither Gemini nor OpenAI)"));
+            }
+            Attempts attempts = new Attempts();
+            Flux<Reply> chain = Flux.defer(() -> Flux.error(attempts.failure()));
+            for (int i = configured.size() - 1; i >= 0; i--) {
+                chain = streamAttempt(configured.get(i), operation, prompt, attempts, chain);
+            }
+            return chain;
+        });
+    }
+
+    /**
+     * HEDGED REQUEST: start the fallbacks after the hedge delay, or
+     * immediately if the primary fails first. The first reply wins.
+     */
+    private Mono<Reply> hedged(AiOperation operation, AiProvider primaryProvider, Mono<Reply> primaryCall,
+            Mono<Reply> fallbacks) {
+        Duration hedgeDelay = providerGuard.hedgeDelay(latencyKey(primaryProvider, operation), hedgePercentile,
+                hedgeDefaultDelay, hedgeMinDelay);
+        AtomicBoolean hedged = new AtomicBoolean();
+
+        return ProviderGuard.hedged(primaryCall, fallbacks, hedgeDelay, () -> {
+            hedged.set(true);
+            hedges.incrementAndGet();
+            log.info(" Hedging {} call after {}ms", operation.key(), hedgeDelay.toMillis());
+        }).doOnNext(reply -> {
+            if (hedged.get() && !reply.provider().equals(primaryProvider.getName())) {
+                hedgeWins.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * One provider call with its deadline, circuit breaker and API budget.
+     * Completes empty on any failure so the caller moves on to the next
+     * provider.
+     */
+    private Mono<Reply> attempt(AiProvider provider, AiOperation operation, String prompt, JsonSchema schema,
+            Attempts attempts) {
+        String name = provider.getName();
+        return providerGuard.guard(name, latencyKey(provider, operation),
+                Mono.defer(() -> provider.generate(operation, prompt, schema)).timeout(provider.getTimeout()))
+                .filter(text -> !text.isBlank())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(name + " returned an empty response")))
+                .map(text -> served(provider, text))
+                .onErrorResume(e -> {
+                    skipped(provider, operation, e, attempts);
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<Reply> streamAttempt(AiProvider provider, AiOperation operation, String prompt, Attempts attempts,
+            Flux<Reply> next) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return providerGuard.guard(provider.getName(), latencyKey(provider, operation),
+                    Flux.defer(() -> provider.stream(operation, prompt)).timeout(provider.getTimeout()))
+                    .map(text -> started.compareAndSet(false, true)
+                            ? served(provider, text)
+                            : new Reply(text, provider.getName(), provider.getModelId()))
+                    .switchIfEmpty(Flux.error(() -> new RuntimeException(provider.getName() + " returned an empty response")))
+                    .onErrorResume(e -> !started.get(), e -> {
+                        skipped(provider, operation, e, attempts);
+                        return next;
+                    });
+        });
+    }
+
+    private void skipped(AiProvider provider, AiOperation operation, Throwable e, Attempts attempts) {
+        String name = provider.getName();
+        if (e instanceof ProviderGuard.CircuitOpenException) {
+            log.warn(" {} circuit is open, skipping", name);
+        } else if (e instanceof ProviderGuard.BudgetExhaustedException) {
+            log.warn(" {} is over its API budget, skipping", name);
+            attempts.throttled = true;
+        } else if (e instanceof TimeoutException) {
+            log.warn(" {} timed out after {}ms on {}", name, provider.getTimeout().toMillis(), operation.key());
+            attempts.failed(new RuntimeException(
+                    name + " timed out after " + provider.getTimeout().toMillis() + "ms", e));
+        } else {
+            log.warn(" {} failed on {}: {}", name, operation.key(), e.getMessage());
+            attempts.failed(e);
+        }
+    }
+
+    private Reply served(AiProvider provider, String text) {
+        servedCounts.computeIfAbsent(provider.getName(), p -> new AtomicLong()).incrementAndGet();
+        lastServedBy = provider.getName();
+        return new Reply(text, provider.getName(), provider.getModelId());
+    }
+
+    /**
+     * Latency is tracked per provider and operation: a field mapping and an
+     * essay batch on the same provider take very different times.
+     */
+    private static String latencyKey(AiProvider provider, AiOperation operation) {
+        return provider.getName() + ":" + operation.key();
+    }
+
+    /**
+     * Provider health for ops: circuit state, recent error/slow-call rates,
+     * latency per operation and how often hedging fired.
+     */
+    public Map<String, Object> getProviderHealth() {
+        Map<String, Object> providerHealth = new LinkedHashMap<>();
+        for (AiProvider provider : providers) {
+            providerHealth.put(provider.getName(), providerHealth(provider));
+        }
+
+        Map<String, Object> hedging = new LinkedHashMap<>();
+        hedging.put("operations", hedgeOperations);
+        hedging.put("hedged", hedges.get());
+        hedging.put("wonBySecondary", hedgeWins.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("providers", providerHealth);
+        result.put("hedging", hedging);
+        result.put("lastServedBy", lastServedBy);
+        return result;
+    }
+
+    private Map<String, Object> providerHealth(AiProvider provider) {
+        CircuitBreaker.Snapshot snapshot = providerGuard.breaker(provider.getName()).snapshot();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (AiOperation operation : AiOperation.values()) {
+            LatencyTracker tracker = providerGuard.latency(latencyKey(provider, operation));
+            Duration p50 = tracker.percentile(0.5);
+            if (p50 != null) {
+                latency.put(operation.key(), Map.of("p50Ms", p50.toMillis(),
+                        "p90Ms", tracker.percentile(0.9).toMillis()));
+            }
+        }
+
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("configured", provider.isConfigured());
+        health.put("model", provider.getModelId());
+        health.put("state", snapshot.state().name());
+        health.put("failureRate", snapshot.failureRate());
+        health.put("slowCallRate", snapshot.slowCallRate());
+        health.put("bufferedCalls", snapshot.bufferedCalls());
+        health.put("openUntil", snapshot.openUntil());
+        health.put("served", servedCounts.getOrDefault(provider.getName(), new AtomicLong()).get());
+        health.put("latency", latency);
+        return health;
+    }
+
+    /**
+     * A completion (or one chunk of a streamed one) and who wrote it.
+     *
+     * @param modelId the model it is cached under
+     */
+    public record Reply(String text, String provider, String modelId) {
+    }
+
+    /**
+     * What went wrong across the providers tried for one call.
+     */
+    private static final class Attempts {
+
+        private volatile Throwable firstError;
+        private volatile boolean throttled;
+
+        /**
+         * The first error is kept: it is the primary's, which says more
+         * about why the call failed than a fallback's.
+         */
+        synchronized void failed(Throwable e) {
+            if (firstError == null) {
+                firstError = e;
+            }
+        }
+
+        RuntimeException failure() {
+            if (firstError != null) {
+                return firstError instanceof RuntimeException runtime
+                        ? runtime
+                        : new RuntimeException(firstError.getMessage(), firstError);
+            }
+            if (throttled) {
+                log.warn("AI API budget exhausted - skipping AI call");
+                return new RuntimeException("AI API rate limit: budget exhausted");
+            }
+            return new RuntimeException("AI providers unavailable: every circuit is open");
+        }
+    }
+}
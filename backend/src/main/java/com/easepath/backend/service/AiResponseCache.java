@@ -0,0 +1,191 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.model.AiResponseCacheDocument;
+import com.easepath.backend.repository.AiResponseCacheRepository;
+import com.easepath.backend.util.BoundedTtlCache;
+import com.easepath.backend.util.GzipCodec;
+
+/**
+ * Content-addressed cache of LLM responses.
+ *
+ * The key is the model plus a SHA-256 of the normalized prompt (whitespace
+ * runs collapsed, ends trimmed), so a repeat autofill of the same form with
+ * the same profile, or a second parse of the same resume, is answered
+ * without an LLM round trip. A bounded in-memory L1 sits in front of the
+ * ai_response_cache collection; both tiers expire entries after the
+ * operation's TTL (easepath.ai.&lt;operation&gt;.cache-ttl, default
+ * easepath.ai.cache.ttl).
+ *
+ * All methods are blocking; a Mongo failure is treated as a miss.
+ */
+@Service
+public class AiResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AiResponseCacheRepository repository;
+    private final Environment environment;
+    private final boolean enabled;
+    private final Duration defaultTtl;
+    private final BoundedTtlCache<String, String> l1Cache;
+    private final Map<AiOperation, Counters> counters = new EnumMap<>(AiOperation.class);
+
+    public AiResponseCache(AiResponseCacheRepository repository, Environment environment,
+            @Value("${easepath.ai.cache.enabled:true}") boolean enabled,
+            @Value("${easepath.ai.cache.ttl:7d}") Duration defaultTtl,
+            @Value("${easepath.ai.cache.l1.max-entries:1000}") int l1MaxEntries) {
+        this.repository = repository;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.defaultTtl = defaultTtl;
+        this.l1Cache = new BoundedTtlCache<>(l1MaxEntries);
+        for (AiOperation operation : AiOperation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    /**
+     * The cached response to {@code prompt} from the first of {@code models}
+     * that has one, or null.
+     *
+     * @param models model ids in the order they would be called, e.g.
+     *               "gemini:gemini-2.5-flash"
+     */
+    public String get(AiOperation operation, List<String> models, String prompt) {
+        if (!enabled) {
+            return null;
+        }
+        Counters stats = counters.get(operation);
+        String promptHash = promptHash(prompt);
+        for (String model : models) {
+            String cached = l1Cache.get(key(model, promptHash));
+            if (cached != null) {
+                stats.l1Hits.incrementAndGet();
+                return cached;
+            }
+        }
+        for (String model : models) {
+            String id = key(model, promptHash);
+            try {
+                AiResponseCacheDocument document = repository.findById(id).orElse(null);
+                if (document != null && document.getExpireAt() != null
+                        && document.getExpireAt().isAfter(Instant.now())) {
+                    l1Cache.put(id, document.getResponse(), document.getExpireAt());
+                    stats.l2Hits.incrementAndGet();
+                    log.info(" AI response cache hit for {} ({})", operation.key(), model);
+                    return document.getResponse();
+                }
+            } catch (Exception e) {
+                log.warn(" AI response cache lookup failed: {}", e.getMessage());
+                break;
+            }
+        }
+        stats.misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache the response {@code model} gave to {@code prompt}.
+     */
+    public void put(AiOperation operation, String model, String prompt, String response) {
+        if (!enabled || response == null || response.isBlank()) {
+            return;
+        }
+        String id = key(model, promptHash(prompt));
+        Instant expireAt = Instant.now().plus(ttl(operation));
+        l1Cache.put(id, response, expireAt);
+        try {
+            repository.save(new AiResponseCacheDocument(id, operation.key(), model, response, expireAt));
+        } catch (Exception e) {
+            log.warn(" Failed to cache AI response: {}", e.getMessage());
+        }
+        counters.get(operation).stores.incrementAndGet();
+    }
+
+    /**
+     * Drop the cached responses to {@code prompt}, e.g. one that turned out
+     * not to parse, so the next call asks the model again.
+     */
+    public void evict(List<String> models, String prompt) {
+        if (!enabled) {
+            return;
+        }
+        String promptHash = promptHash(prompt);
+        for (String model : models) {
+            String id = key(model, promptHash);
+            l1Cache.invalidate(id);
+            try {
+                repository.deleteById(id);
+            } catch (Exception e) {
+                log.warn(" Failed to evict AI response: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Per-operation hit ratios plus L1 counters for the admin dashboard.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        counters.forEach((operation, stats) -> {
+            long l1Hits = stats.l1Hits.get();
+            long l2Hits = stats.l2Hits.get();
+            long misses = stats.misses.get();
+            long lookups = l1Hits + l2Hits + misses;
+            Map<String, Object> op = new LinkedHashMap<>();
+            op.put("l1Hits", l1Hits);
+            op.put("l2Hits", l2Hits);
+            op.put("misses", misses);
+            op.put("stores", stats.stores.get());
+            op.put("hitRatio", lookups == 0 ? 0.0 : (double) (l1Hits + l2Hits) / lookups);
+            op.put("ttl", ttl(operation).toString());
+            operations.put(operation.key(), op);
+        });
+        BoundedTtlCache.Stats l1 = l1Cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("l1Size", l1.size());
+        result.put("l1MaxEntries", l1.maxEntries());
+        result.put("l1Evictions", l1.evictions());
+        result.put("operations", operations);
+        return result;
+    }
+
+    private Duration ttl(AiOperation operation) {
+        return environment.getProperty("easepath.ai." + operation.key() + ".cache-ttl", Duration.class, defaultTtl);
+    }
+
+    private static String promptHash(String prompt) {
+        String normalized = WHITESPACE.matcher(prompt.strip()).replaceAll(" ");
+        return GzipCodec.contentHash(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(String model, String promptHash) {
+        return model + ":" + promptHash;
+    }
+
+    private static class Counters {
+        final AtomicLong l1Hits = new AtomicLong();
+        final AtomicLong l2Hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong stores = new AtomicLong();
+    }
+}
@@ -0,0 +1,98 @@
+package com.easepath.backend.service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.PromptBuilder;
+
+/**
+ * Prompt and completion token counts of every LLM call, per operation.
+ *
+ * Counts are the provider's own (Gemini usageMetadata, OpenAI usage). The
+ * local estimate PromptBuilder budgets with is recorded next to them, so
+ * the admin dashboard shows how far the estimate is off.
+ */
+@Service
+public class AiTokenUsage {
+
+    private static final Logger log = LoggerFactory.getLogger(AiTokenUsage.class);
+
+    private final Map<AiOperation, Counters> counters = new EnumMap<>(AiOperation.class);
+
+    public AiTokenUsage() {
+        for (AiOperation operation : AiOperation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    /**
+     * Record one call.
+     *
+     * @param promptTokens     prompt tokens reported by the provider, or
+     *                         negative if the response had no usage
+     * @param completionTokens completion tokens reported by the provider, or
+     *                         negative if the response had no usage
+     */
+    public void record(AiOperation operation, int estimatedPromptTokens, long promptTokens, long completionTokens) {
+        counters.get(operation).record(estimatedPromptTokens, promptTokens, completionTokens);
+    }
+
+    /**
+     * Record one call of {@code prompt}, estimating its tokens locally.
+     */
+    public void record(AiOperation operation, String prompt, long promptTokens, long completionTokens) {
+        int estimated = PromptBuilder.estimateTokens(prompt);
+        log.info("AI tokens for {} - prompt: {} (estimated {}), completion: {}",
+                operation.key(), promptTokens, estimated, completionTokens);
+        record(operation, estimated, promptTokens, completionTokens);
+    }
+
+    /**
+     * Per-operation totals and averages for the admin dashboard.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        counters.forEach((operation, counter) -> stats.put(operation.key(), counter.stats()));
+        return stats;
+    }
+
+    private static final class Counters {
+
+        private long calls;
+        private long reportedCalls;
+        private long estimatedPromptTokens;
+        private long promptTokens;
+        private long completionTokens;
+
+        synchronized void record(int estimated, long prompt, long completion) {
+            calls++;
+            if (prompt < 0 || completion < 0) {
+                return;
+            }
+            reportedCalls++;
+            estimatedPromptTokens += estimated;
+            promptTokens += prompt;
+            completionTokens += completion;
+        }
+
+        synchronized Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("calls", calls);
+            stats.put("callsWithUsage", reportedCalls);
+            stats.put("promptTokens", promptTokens);
+            stats.put("completionTokens", completionTokens);
+            stats.put("avgPromptTokens", reportedCalls > 0 ? promptTokens / reportedCalls : null);
+            stats.put("avgCompletionTokens", reportedCalls > 0 ? completionTokens / reportedCalls : null);
+            // Above 1 the local estimate overcounts, so prompts are cut more than needed
+            stats.put("estimateRatio", promptTokens > 0
+                    ? Math.round(100.0 * estimatedPromptTokens / promptTokens) / 100.0
+                    : null);
+            return stats;
+        }
+    }
+}
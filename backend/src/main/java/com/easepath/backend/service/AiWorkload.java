@@ -0,0 +1,26 @@
+package com.easepath.backend.service;
+
+/**
+ * Workload classes of LLM calls, in priority order. Each class gets its own
+ * bulkhead in the AiGateway (easepath.ai.gateway.&lt;key&gt;.*).
+ */
+public enum AiWorkload {
+
+    // A user is waiting on the result (autofill, essay answers)
+    INTERACTIVE("interactive"),
+    // Nobody is blocked on it right away (resume scoring and parsing)
+    BACKGROUND("background");
+
+    private final String key;
+
+    AiWorkload(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Name used in property keys and metrics, e.g. "interactive".
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,233 @@
+package com.easepath.backend.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.TokenBucket;
+
+/**
+ * Local rate and spend control for the paid APIs we call.
+ *
+ * Every provider gets:
+ * - a token bucket (rate-per-minute, burst) so a traffic spike cannot burn
+ *   through the upstream quota before we notice
+ * - a pause honouring the upstream's Retry-After after a 429
+ * - a daily call cap (UTC day) and an estimated spend from cost-per-call
+ *
+ * Callers ask {@link #tryAcquire} before each call and, when refused, degrade
+ * instead of calling: job search serves stale or locally indexed results, AI
+ * features fall back to their heuristics. Settings are read per provider from
+ * easepath.budget.&lt;provider&gt;.*; unset providers get permissive defaults.
+ * A rate-per-minute of 0 turns the token bucket off, as a daily-limit of 0
+ * turns off the daily cap.
+ */
+@Service
+public class ApiBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiBudget.class);
+
+    public static final String JSEARCH = "jsearch";
+    public static final String THEIRSTACK = "theirstack";
+    public static final String GEMINI = "gemini";
+    public static final String OPENAI = "openai";
+    public static final String AI_SCORE = "ai-score";
+    // Not an upstream itself: caps the provider calls the cache warmer may spend
+    public static final String CACHE_WARMER = "cache-warmer";
+
+    // Never pause a provider longer than this, whatever Retry-After says
+    private static final Duration MAX_RETRY_AFTER = Duration.ofHours(1);
+
+    private final Environment environment;
+    private final Duration defaultRetryAfter;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<String, ProviderBudget> budgets = new ConcurrentHashMap<>();
+
+    public ApiBudget(Environment environment,
+            @Value("${easepath.budget.default-retry-after:60s}") Duration defaultRetryAfter) {
+        this.environment = environment;
+        this.defaultRetryAfter = defaultRetryAfter;
+    }
+
+    /**
+     * Ask to make one call to {@code provider}. A granted call is counted
+     * against the daily cap and spend; a refused one is counted as throttled.
+     */
+    public boolean tryAcquire(String provider) {
+        return budgetFor(provider).tryAcquire(clock.instant());
+    }
+
+    /**
+     * The upstream rate limited us: stop calling it until Retry-After has
+     * passed (capped at an hour).
+     */
+    public void backOff(String provider, Duration retryAfter) {
+        Duration pause = retryAfter.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : retryAfter;
+        budgetFor(provider).pause(clock.instant().plus(pause));
+        log.warn(" {} rate limited us, pausing calls for {}s", provider, pause.toSeconds());
+    }
+
+    /**
+     * Parse a Retry-After header (delta-seconds or HTTP-date). Falls back to
+     * the configured default when the header is missing or unreadable.
+     */
+    public Duration retryAfter(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) {
+            return defaultRetryAfter;
+        }
+        value = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            // Not a number - try an HTTP-date
+        }
+        try {
+            Instant until = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delta = Duration.between(clock.instant(), until);
+            return delta.isNegative() ? Duration.ZERO : delta;
+        } catch (DateTimeParseException e) {
+            return defaultRetryAfter;
+        }
+    }
+
+    /**
+     * Per-provider spend and throttle counters for the admin dashboard.
+     */
+    public Map<String, Object> getMetrics() {
+        Instant now = clock.instant();
+        Map<String, Object> providers = new LinkedHashMap<>();
+        budgets.keySet().stream().sorted().forEach(name -> providers.put(name, budgets.get(name).metrics(now)));
+        return providers;
+    }
+
+    private ProviderBudget budgetFor(String provider) {
+        return budgets.computeIfAbsent(provider, this::loadBudget);
+    }
+
+    private ProviderBudget loadBudget(String provider) {
+        String prefix = "easepath.budget." + provider + ".";
+        double ratePerMinute = environment.getProperty(prefix + "rate-per-minute", Double.class, 60d);
+        double burst = environment.getProperty(prefix + "burst", Double.class, 10d);
+        long dailyLimit = environment.getProperty(prefix + "daily-limit", Long.class, 0L);
+        double costPerCall = environment.getProperty(prefix + "cost-per-call", Double.class, 0d);
+        if (ratePerMinute < 0 || Double.isNaN(ratePerMinute)) {
+            log.warn(" Invalid {}rate-per-minute {}, not rate limiting {}", prefix, ratePerMinute, provider);
+        }
+        // 0 (or invalid) = no rate limit; TokenBucket needs a positive refill
+        TokenBucket bucket = ratePerMinute > 0
+                ? new TokenBucket(Math.max(1, burst), ratePerMinute / 60d, clock)
+                : null;
+        return new ProviderBudget(provider, bucket, dailyLimit, costPerCall);
+    }
+
+    /**
+     * Budget state of one provider. Counters reset at the start of each UTC
+     * day, except the totals.
+     */
+    private static class ProviderBudget {
+
+        private final String name;
+        // null when the provider has no rate limit
+        private final TokenBucket bucket;
+        private final long dailyLimit;
+        private final double costPerCall;
+
+        private LocalDate day;
+        private long callsToday;
+        private long throttledToday;
+        private long callsTotal;
+        private long throttledRate;
+        private long throttledDaily;
+        private long throttledRetryAfter;
+        private long upstreamRateLimits;
+        private Instant pausedUntil;
+        private boolean dailyLimitReported;
+
+        ProviderBudget(String name, TokenBucket bucket, long dailyLimit, double costPerCall) {
+            this.name = name;
+            this.bucket = bucket;
+            this.dailyLimit = dailyLimit;
+            this.costPerCall = costPerCall;
+        }
+
+        synchronized boolean tryAcquire(Instant now) {
+            rollDay(now);
+            if (pausedUntil != null && now.isBefore(pausedUntil)) {
+                throttledRetryAfter++;
+                throttledToday++;
+                return false;
+            }
+            if (dailyLimit > 0 && callsToday >= dailyLimit) {
+                if (!dailyLimitReported) {
+                    dailyLimitReported = true;
+                    log.warn(" Daily budget of {} calls to {} used up", dailyLimit, name);
+                }
+                throttledDaily++;
+                throttledToday++;
+                return false;
+            }
+            if (bucket != null && !bucket.tryAcquire()) {
+                throttledRate++;
+                throttledToday++;
+                return false;
+            }
+            callsToday++;
+            callsTotal++;
+            return true;
+        }
+
+        synchronized void pause(Instant until) {
+            upstreamRateLimits++;
+            if (pausedUntil == null || until.isAfter(pausedUntil)) {
+                pausedUntil = until;
+            }
+            if (bucket != null) {
+                bucket.drain();
+            }
+        }
+
+        synchronized Map<String, Object> metrics(Instant now) {
+            rollDay(now);
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("callsToday", callsToday);
+            metrics.put("dailyLimit", dailyLimit > 0 ? dailyLimit : null);
+            metrics.put("spendToday", callsToday * costPerCall);
+            metrics.put("throttledToday", throttledToday);
+            metrics.put("availableTokens", bucket != null ? Math.floor(bucket.availableTokens()) : null);
+            metrics.put("pausedUntil", pausedUntil != null && now.isBefore(pausedUntil) ? pausedUntil : null);
+            metrics.put("callsTotal", callsTotal);
+            metrics.put("spendTotal", callsTotal * costPerCall);
+            metrics.put("throttledByRate", throttledRate);
+            metrics.put("throttledByDailyLimit", throttledDaily);
+            metrics.put("throttledByRetryAfter", throttledRetryAfter);
+            metrics.put("upstreamRateLimits", upstreamRateLimits);
+            return metrics;
+        }
+
+        private void rollDay(Instant now) {
+            LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+            if (!today.equals(day)) {
+                day = today;
+                callsToday = 0;
+                throttledToday = 0;
+                dailyLimitReported = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.easepath.backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.easepath.backend.model.JobSearchCache;
+import com.easepath.backend.repository.JobPostingRepository;
+import com.easepath.backend.repository.JobSearchRepository;
+import com.easepath.backend.util.GzipCodec;
+
+/**
+ * Exports the hot part of the job search cache to a local file and loads it
+ * back, so a new node or a staging environment starts with a warm cache
+ * instead of paying for every first search.
+ *
+ * A snapshot holds up to max-entries live job_search_cache entries (the most
+ * searched keys first, then the newest) and every job_postings document they
+ * reference, postings still gzip-compressed. The file is a gzipped binary
+ * stream, written to a temp file and moved into place so a crash never
+ * leaves a half-written snapshot behind.
+ *
+ * Loading keeps every createdAt, freshUntil, updatedAt and expireAt as
+ * exported: expired records are skipped, and a record never replaces a newer
+ * one already in Mongo. With load-on-startup the file is loaded before the
+ * application reports ready, so the local index rebuild and the cache
+ * warm-up both see it.
+ */
+@Service
+public class CacheSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    // "EPS1" - bump the version when the record layout changes
+    private static final int MAGIC = 0x45505331;
+    private static final int BATCH_SIZE = 500;
+    // Upper bound for any length or count read back from a snapshot, so a
+    // truncated or corrupt file fails with an IOException instead of trying
+    // to allocate whatever its bytes happen to say (up to 2GB)
+    private static final int MAX_LENGTH = 16 << 20;
+
+    private final JobSearchRepository jobSearchRepository;
+    private final JobPostingRepository jobPostingRepository;
+    private final SearchFrequencyTracker searchFrequency;
+    private final LocalJobIndex localJobIndex;
+
+    @Value("${easepath.jobsearch.snapshot.path:data/job-search-snapshot.bin}")
+    private Path snapshotPath;
+
+    @Value("${easepath.jobsearch.snapshot.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${easepath.jobsearch.snapshot.load-on-startup:false}")
+    private boolean loadOnStartup;
+
+    public CacheSnapshotService(JobSearchRepository jobSearchRepository, JobPostingRepository jobPostingRepository,
+            SearchFrequencyTracker searchFrequency, LocalJobIndex localJobIndex) {
+        this.jobSearchRepository = jobSearchRepository;
+        this.jobPostingRepository = jobPostingRepository;
+        this.searchFrequency = searchFrequency;
+        this.localJobIndex = localJobIndex;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadOnStartup() {
+        if (!loadOnStartup) {
+            return;
+        }
+        if (!Files.exists(snapshotPath)) {
+            log.info("No job search cache snapshot at {}, starting cold", snapshotPath);
+            return;
+        }
+        try {
+            Map<String, Object> stats = importSnapshot();
+            log.info("Loaded job search cache snapshot: {}", stats);
+        } catch (Exception e) {
+            // A bad snapshot only costs a cold cache - never fail startup over it
+            log.warn("Failed to load job search cache snapshot from {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the hot cache entries and their postings to the snapshot file.
+     * Blocking.
+     *
+     * @return counts, file size and timing for the admin dashboard
+     */
+    public Map<String, Object> exportSnapshot() throws IOException {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        List<JobSearchCache> entries = hotEntries(now);
+        Set<String> jobIds = new LinkedHashSet<>();
+        entries.forEach(entry -> jobIds.addAll(entry.getJobIds()));
+
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        int postings = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(now.toEpochMilli());
+
+            // Postings first, so a partly loaded snapshot never has entries
+            // pointing at postings that aren't there yet
+            List<JobPostingDocument> documents = new ArrayList<>();
+            for (List<String> batch : batches(new ArrayList<>(jobIds))) {
+                jobPostingRepository.findAllById(batch).forEach(documents::add);
+            }
+            documents.removeIf(document -> document.getExpireAt() == null || !document.getExpireAt().isAfter(now));
+            out.writeInt(documents.size());
+            for (JobPostingDocument document : documents) {
+                writeString(out, document.getId());
+                out.writeInt(document.getPostingGzip().length);
+                out.write(document.getPostingGzip());
+                out.writeInt(document.getOriginalSize());
+                writeInstant(out, document.getUpdatedAt());
+                writeInstant(out, document.getExpireAt());
+            }
+            postings = documents.size();
+
+            out.writeInt(entries.size());
+            for (JobSearchCache entry : entries) {
+                writeString(out, entry.getId());
+                writeString(out, entry.getQuery());
+                writeString(out, entry.getEnvelopeJson());
+                out.writeInt(entry.getJobIds().size());
+                for (String jobId : entry.getJobIds()) {
+                    writeString(out, jobId);
+                }
+                writeInstant(out, entry.getCreatedAt());
+                writeInstant(out, entry.getFreshUntil());
+                writeInstant(out, entry.getExpireAt());
+            }
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("path", snapshotPath.toAbsolutePath().toString());
+        stats.put("entries", entries.size());
+        stats.put("postings", postings);
+        stats.put("bytes", Files.size(snapshotPath));
+        stats.put("tookMs", (System.nanoTime() - started) / 1_000_000);
+        log.info(" Exported job search cache snapshot: {}", stats);
+        return stats;
+    }
+
+    /**
+     * Bulk-load the snapshot file into Mongo (and the local index), with
+     * expiry preserved. Blocking.
+     *
+     * @return counts and timing for the admin dashboard
+     */
+    public Map<String, Object> importSnapshot() throws IOException {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        int postingsLoaded = 0;
+        int entriesLoaded = 0;
+        int skipped = 0;
+        Instant exportedAt;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(snapshotPath), 1 << 16)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a job search cache snapshot (or an incompatible version)");
+            }
+            exportedAt = Instant.ofEpochMilli(in.readLong());
+
+            List<JobPostingDocument> postings = new ArrayList<>(BATCH_SIZE);
+            int postingCount = in.readInt();
+            for (int i = 0; i < postingCount; i++) {
+                JobPostingDocument document = new JobPostingDocument();
+                document.setId(readString(in));
+                byte[] gzip = new byte[readLength(in, "posting")];
+                in.readFully(gzip);
+                document.setPostingGzip(gzip);
+                document.setOriginalSize(in.readInt());
+                document.setUpdatedAt(readInstant(in));
+                document.setExpireAt(readInstant(in));
+                if (document.getExpireAt() == null || !document.getExpireAt().isAfter(now)) {
+                    skipped++;
+                    continue;
+                }
+                postings.add(document);
+                if (postings.size() == BATCH_SIZE) {
+                    int saved = savePostings(postings);
+                    postingsLoaded += saved;
+                    skipped += postings.size() - saved;
+                    postings.clear();
+                }
+            }
+            if (!postings.isEmpty()) {
+                int saved = savePostings(postings);
+                postingsLoaded += saved;
+                skipped += postings.size() - saved;
+            }
+
+            List<JobSearchCache> entries = new ArrayList<>(BATCH_SIZE);
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                JobSearchCache entry = new JobSearchCache();
+                entry.setId(readString(in));
+                entry.setQuery(readString(in));
+                entry.setEnvelopeJson(readString(in));
+                int ids = readLength(in, "job id list");
+                List<String> jobIds = new ArrayList<>(ids);
+                for (int j = 0; j < ids; j++) {
+                    jobIds.add(readString(in));
+                }
+                entry.setJobIds(jobIds);
+                entry.setCreatedAt(readInstant(in));
+                entry.setFreshUntil(readInstant(in));
+                entry.setExpireAt(readInstant(in));
+                if (entry.getExpireAt() == null || !entry.getExpireAt().isAfter(now)) {
+                    skipped++;
+                    continue;
+                }
+                entries.add(entry);
+                if (entries.size() == BATCH_SIZE) {
+                    int saved = saveEntries(entries);
+                    entriesLoaded += saved;
+                    skipped += entries.size() - saved;
+                    entries.clear();
+                }
+            }
+            if (!entries.isEmpty()) {
+                int saved = saveEntries(entries);
+                entriesLoaded += saved;
+                skipped += entries.size() - saved;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("path", snapshotPath.toAbsolutePath().toString());
+        stats.put("exportedAt", exportedAt);
+        stats.put("entries", entriesLoaded);
+        stats.put("postings", postingsLoaded);
+        stats.put("skipped", skipped);
+        stats.put("tookMs", (System.nanoTime() - started) / 1_000_000);
+        log.info(" Imported job search cache snapshot: {}", stats);
+        return stats;
+    }
+
+    /**
+     * Live entries, most searched keys first, then newest first.
+     */
+    private List<JobSearchCache> hotEntries(Instant now) {
+        Map<String, JobSearchCache> hot = new LinkedHashMap<>();
+        List<String> popular = searchFrequency.top(maxEntries).stream()
+                .map(entry -> entry.item().hash())
+                .toList();
+        Map<String, JobSearchCache> found = new LinkedHashMap<>();
+        for (List<String> batch : batches(popular)) {
+            jobSearchRepository.findAllById(batch).forEach(entry -> found.put(entry.getId(), entry));
+        }
+        for (String id : popular) {
+            JobSearchCache entry = found.get(id);
+            if (entry != null && isLive(entry, now)) {
+                hot.put(id, entry);
+            }
+        }
+        try (Stream<JobSearchCache> newest = jobSearchRepository.findByExpireAtAfterOrderByCreatedAtDesc(now,
+                Limit.of(maxEntries))) {
+            Iterator<JobSearchCache> it = newest.iterator();
+            while (it.hasNext() && hot.size() < maxEntries) {
+                JobSearchCache entry = it.next();
+                if (isLive(entry, now)) {
+                    hot.putIfAbsent(entry.getId(), entry);
+                }
+            }
+        }
+        return new ArrayList<>(hot.values());
+    }
+
+    private static boolean isLive(JobSearchCache entry, Instant now) {
+        return entry.hasPayload() && entry.getExpireAt() != null && entry.getExpireAt().isAfter(now);
+    }
+
+    /**
+     * Save postings not already stored with a newer update, keeping the later
+     * expiry of the two. Also feeds them to the local index.
+     *
+     * @return how many were saved
+     */
+    private int savePostings(List<JobPostingDocument> postings) {
+        Map<String, JobPostingDocument> existing = byId(
+                jobPostingRepository.findAllById(postings.stream().map(JobPostingDocument::getId).toList()),
+                JobPostingDocument::getId);
+        List<JobPostingDocument> toSave = new ArrayList<>(postings.size());
+        for (JobPostingDocument posting : postings) {
+            JobPostingDocument current = existing.get(posting.getId());
+            if (current != null && isAfter(current.getUpdatedAt(), posting.getUpdatedAt())) {
+                continue;
+            }
+            if (current != null && isAfter(current.getExpireAt(), posting.getExpireAt())) {
+                posting.setExpireAt(current.getExpireAt());
+            }
+            toSave.add(posting);
+        }
+        if (toSave.isEmpty()) {
+            return 0;
+        }
+        jobPostingRepository.saveAll(toSave);
+
+        Map<String, String> decoded = new LinkedHashMap<>();
+        Instant oldest = null;
+        for (JobPostingDocument posting : toSave) {
+            decoded.put(posting.getId(), GzipCodec.decompress(posting.getPostingGzip(), posting.getOriginalSize()));
+            if (posting.getUpdatedAt() != null && (oldest == null || posting.getUpdatedAt().isBefore(oldest))) {
+                oldest = posting.getUpdatedAt();
+            }
+        }
+        localJobIndex.addAll(decoded, oldest != null ? oldest : Instant.EPOCH);
+        return toSave.size();
+    }
+
+    /**
+     * Save entries not already cached with a newer result.
+     *
+     * @return how many were saved
+     */
+    private int saveEntries(List<JobSearchCache> entries) {
+        Map<String, JobSearchCache> existing = byId(
+                jobSearchRepository.findAllById(entries.stream().map(JobSearchCache::getId).toList()),
+                JobSearchCache::getId);
+        List<JobSearchCache> toSave = entries.stream()
+                .filter(entry -> {
+                    JobSearchCache current = existing.get(entry.getId());
+                    return current == null || !current.hasPayload()
+                            || !isAfter(current.getCreatedAt(), entry.getCreatedAt());
+                })
+                .toList();
+        if (!toSave.isEmpty()) {
+            jobSearchRepository.saveAll(toSave);
+        }
+        return toSave.size();
+    }
+
+    private static boolean isAfter(Instant a, Instant b) {
+        return a != null && (b == null || a.isAfter(b));
+    }
+
+    private static <T> Map<String, T> byId(Iterable<T> items, Function<T, String> id) {
+        Map<String, T> result = new LinkedHashMap<>();
+        items.forEach(item -> result.put(id.apply(item), item));
+        return result;
+    }
+
+    private static List<List<String>> batches(List<String> ids) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(ids.size(), i + BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    // Length-prefixed UTF-8; writeUTF caps strings at 64KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[checkLength(length, "string")];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream in, String what) throws IOException {
+        return checkLength(in.readInt(), what);
+    }
+
+    private static int checkLength(int length, String what) throws IOException {
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Corrupt job search cache snapshot: " + what + " length " + length);
+        }
+        return length;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value != null ? value.toEpochMilli() : Long.MIN_VALUE);
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        long millis = in.readLong();
+        return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+    }
+}
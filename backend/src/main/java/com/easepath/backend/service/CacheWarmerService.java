@@ -1,15 +1,46 @@
 package com.easepath.backend.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import com.easepath.backend.util.TopKSketch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
- * Pre-populates the job search cache with common searches on application
- * startup.
- * This saves API credits by ensuring popular searches are already cached.
+ * Keeps the job searches users actually run in the cache.
+ *
+ * Search frequency is tracked by SearchFrequencyTracker. Every interval the
+ * hottest keys whose cached results go stale within refresh-ahead are
+ * refetched, so popular searches are always answered fresh from the cache.
+ * Each refetch costs one token from the cache-warmer API budget, on top of
+ * the provider's own budget, and a run refetches at most
+ * max-refreshes-per-run keys.
+ *
+ * On startup the hot set (the configured seed searches plus whatever the
+ * tracker already knows) is warmed in the background: at most
+ * startup-concurrency fetches at once, started no faster than startup-rate
+ * per second. Startup itself never waits for it. With the readiness gate on,
+ * /api/health/ready answers 503 until the warm-up finishes (or
+ * readiness-timeout passes), so a load balancer only sends traffic to an
+ * instance whose hot set is loaded.
  */
 @Service
 public class CacheWarmerService {
@@ -17,47 +48,284 @@ public class CacheWarmerService {
     private static final Logger log = LoggerFactory.getLogger(CacheWarmerService.class);
 
     private final JobSearchService jobSearchService;
+    private final SearchFrequencyTracker searchFrequency;
+    private final ApiBudget apiBudget;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${easepath.jobsearch.warmer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${easepath.jobsearch.warmer.interval:5m}")
+    private Duration interval;
+
+    // How many of the most searched keys each run considers
+    @Value("${easepath.jobsearch.warmer.hot-keys:50}")
+    private int hotKeys;
+
+    // A key searched fewer times than this (after decay) isn't worth an API call
+    @Value("${easepath.jobsearch.warmer.min-searches:2}")
+    private long minSearches;
+
+    // Refetch keys whose results go stale within this
+    @Value("${easepath.jobsearch.warmer.refresh-ahead:30m}")
+    private Duration refreshAhead;
+
+    @Value("${easepath.jobsearch.warmer.max-refreshes-per-run:10}")
+    private int maxRefreshesPerRun;
+
+    // Cache lookups and refetches in flight at once during a refresh run
+    @Value("${easepath.jobsearch.warmer.refresh-concurrency:4}")
+    private int refreshConcurrency;
+
+    // Cold-start searches, warmed on startup before any traffic is tracked
+    @Value("${easepath.jobsearch.warmer.seed-queries:software engineer,data scientist,product manager}")
+    private String[] seedQueries;
+
+    @Value("${easepath.jobsearch.warmer.startup-concurrency:4}")
+    private int startupConcurrency;
+
+    // Upstream fetches started per second during warm-up
+    @Value("${easepath.jobsearch.warmer.startup-rate:2}")
+    private double startupRate;
 
-    // Common search terms to pre-cache
-    private static final String[] POPULAR_SEARCHES = {
-            "software engineer",
-            "software engineer intern",
-            "data scientist",
-            "product manager",
-            "product manager intern",
-            "frontend developer",
-            "backend developer",
-            "full stack developer",
-            "machine learning engineer",
-            "data analyst",
-            "devops engineer",
-            "nurse"
-    };
-
-    public CacheWarmerService(JobSearchService jobSearchService) {
+    @Value("${easepath.jobsearch.warmer.readiness-gate:false}")
+    private boolean readinessGate;
+
+    // Report ready anyway after this, so a dead provider can't block a deploy
+    @Value("${easepath.jobsearch.warmer.readiness-timeout:60s}")
+    private Duration readinessTimeout;
+
+    // Warm-up progress, for the readiness probe and logs
+    private volatile WarmupState warmupState = WarmupState.PENDING;
+    private volatile Instant warmupStartedAt;
+    private volatile Instant warmupFinishedAt;
+    private volatile int warmupTotal;
+    private final AtomicInteger warmupDone = new AtomicInteger();
+    private final AtomicInteger warmupFetched = new AtomicInteger();
+    private final AtomicInteger warmupFailed = new AtomicInteger();
+
+    // A slow run must not overlap the next one
+    private final AtomicBoolean refreshRunning = new AtomicBoolean();
+
+    public CacheWarmerService(JobSearchService jobSearchService, SearchFrequencyTracker searchFrequency,
+            ApiBudget apiBudget, TaskScheduler taskScheduler) {
         this.jobSearchService = jobSearchService;
+        this.searchFrequency = searchFrequency;
+        this.apiBudget = apiBudget;
+        this.taskScheduler = taskScheduler;
     }
 
+    /**
+     * Starts the background warm-up and the refresh-ahead schedule, then
+     * returns straight away.
+     */
     @EventListener(ApplicationReadyEvent.class)
     public void warmCache() {
-        log.info("Starting cache warm-up with {} popular searches...", POPULAR_SEARCHES.length);
-
-        int successCount = 0;
-        for (String query : POPULAR_SEARCHES) {
-            try {
-                // Search with default parameters - this will cache the results
-                jobSearchService.searchJobs(query, "1", "all", null, null, null);
-                successCount++;
-                log.info(" Cached: {}", query);
-
-                // Small delay to avoid overwhelming the API
-                Thread.sleep(1000);
-            } catch (Exception e) {
-                log.warn("Failed to cache '{}': {}", query, e.getMessage());
+        // Decay keeps running when warming is off so the admin top list stays current
+        taskScheduler.scheduleWithFixedDelay(this::refreshHotKeys, Instant.now().plus(interval), interval);
+        if (!enabled) {
+            warmupState = WarmupState.DISABLED;
+            return;
+        }
+
+        List<JobSearchKey> hotSet = hotSet();
+        warmupTotal = hotSet.size();
+        warmupStartedAt = Instant.now();
+        warmupState = WarmupState.WARMING;
+        log.info("Starting cache warm-up of {} searches in the background...", hotSet.size());
+
+        warmUp(hotSet).subscribe(
+                outcome -> {
+                },
+                e -> {
+                    log.warn(" Cache warm-up failed: {}", e.getMessage());
+                    finishWarmup();
+                },
+                this::finishWarmup);
+    }
+
+    /**
+     * The warm-up pipeline: cache lookups run concurrently, the keys that
+     * need a fetch are paced to startup-rate, and at most
+     * startup-concurrency fetches are in flight. Once the warmer budget is
+     * used up no more fetches are started; those in flight still finish.
+     */
+    Flux<Outcome> warmUp(List<JobSearchKey> hotSet) {
+        int concurrency = Math.max(1, startupConcurrency);
+        Duration spacing = startupRate > 0
+                ? Duration.ofNanos((long) (1_000_000_000L / startupRate))
+                : Duration.ZERO;
+        Instant staleBefore = Instant.now().plus(refreshAhead);
+        AtomicBoolean overBudget = new AtomicBoolean();
+
+        Flux<JobSearchKey> needFetch = Flux.fromIterable(hotSet)
+                .flatMapSequential(key -> isFresh(key, staleBefore)
+                        .doOnNext(fresh -> {
+                            if (fresh) {
+                                recordWarmed(key, Outcome.STILL_FRESH);
+                            }
+                        })
+                        .filter(fresh -> !fresh)
+                        .map(fresh -> key), concurrency);
+        if (!spacing.isZero()) {
+            needFetch = needFetch.delayElements(spacing);
+        }
+        return needFetch
+                .takeWhile(key -> !overBudget.get())
+                .flatMap(key -> {
+                    if (!apiBudget.tryAcquire(ApiBudget.CACHE_WARMER)) {
+                        if (overBudget.compareAndSet(false, true)) {
+                            log.info(" Cache warmer budget used up, stopping warm-up");
+                        }
+                        return Mono.just(Outcome.OVER_BUDGET);
+                    }
+                    return fetch(key, staleBefore).doOnNext(outcome -> recordWarmed(key, outcome));
+                }, concurrency);
+    }
+
+    private List<JobSearchKey> hotSet() {
+        Set<JobSearchKey> keys = new LinkedHashSet<>();
+        for (TopKSketch.Entry<JobSearchKey> hot : searchFrequency.top(hotKeys)) {
+            keys.add(hot.item());
+        }
+        for (String query : seedQueries) {
+            if (!query.isBlank()) {
+                keys.add(JobSearchKey.of(query.trim(), "all", null, null, null));
             }
         }
+        return new ArrayList<>(keys);
+    }
+
+    private void recordWarmed(JobSearchKey key, Outcome outcome) {
+        int done = warmupDone.incrementAndGet();
+        if (outcome == Outcome.REFRESHED) {
+            warmupFetched.incrementAndGet();
+        } else if (outcome == Outcome.FAILED) {
+            warmupFailed.incrementAndGet();
+        }
+        log.info(" Warm-up {}/{}: {} ({})", done, warmupTotal, key.getQuery(), outcome);
+    }
+
+    private void finishWarmup() {
+        warmupFinishedAt = Instant.now();
+        warmupState = WarmupState.DONE;
+        log.info("Cache warm-up complete in {} ms! {}/{} searches cached ({} fetched, {} failed).",
+                Duration.between(warmupStartedAt, warmupFinishedAt).toMillis(),
+                warmupDone.get() - warmupFailed.get(), warmupTotal, warmupFetched.get(), warmupFailed.get());
+    }
+
+    /**
+     * Whether this instance should receive traffic: always with the gate
+     * off, otherwise once warm-up has finished or readiness-timeout passed.
+     */
+    public boolean isReady() {
+        if (!readinessGate || warmupState == WarmupState.DONE || warmupState == WarmupState.DISABLED) {
+            return true;
+        }
+        Instant startedAt = warmupStartedAt;
+        return startedAt != null && Instant.now().isAfter(startedAt.plus(readinessTimeout));
+    }
+
+    /**
+     * Warm-up progress for the readiness probe.
+     */
+    public Map<String, Object> getWarmupStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", warmupState.name());
+        status.put("total", warmupTotal);
+        status.put("done", warmupDone.get());
+        status.put("fetched", warmupFetched.get());
+        status.put("failed", warmupFailed.get());
+        status.put("startedAt", warmupStartedAt);
+        status.put("finishedAt", warmupFinishedAt);
+        status.put("readinessGate", readinessGate);
+        return status;
+    }
+
+    /**
+     * REFRESH-AHEAD: refetch the most searched keys before they go stale.
+     * Runs every interval; the run itself is subscribed to, not waited on,
+     * so the shared scheduler thread is only held long enough to start it.
+     * A run still in progress when the next is due makes that one a no-op.
+     */
+    public void refreshHotKeys() {
+        searchFrequency.decayIfDue();
+        if (!enabled || !refreshRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        AtomicInteger refreshed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        refreshRun()
+                .doFinally(signal -> refreshRunning.set(false))
+                .subscribe(
+                        outcome -> {
+                            if (outcome == Outcome.REFRESHED) {
+                                refreshed.incrementAndGet();
+                            } else if (outcome == Outcome.FAILED) {
+                                failed.incrementAndGet();
+                            }
+                        },
+                        e -> log.warn(" Hot key refresh failed: {}", e.getMessage()),
+                        () -> {
+                            if (refreshed.get() + failed.get() > 0) {
+                                log.info(" Refreshed {} hot job searches ahead of expiry ({} failed)",
+                                        refreshed.get(), failed.get());
+                            }
+                        });
+    }
+
+    /**
+     * One refresh run, like {@link #warmUp}: the hot keys searched at least
+     * min-searches times are checked concurrently, and at most
+     * max-refreshes-per-run of those going stale are refetched, with at most
+     * refresh-concurrency lookups or fetches in flight. Once the warmer
+     * budget is used up no more fetches are started.
+     */
+    Flux<Outcome> refreshRun() {
+        int concurrency = Math.max(1, refreshConcurrency);
+        Instant staleBefore = Instant.now().plus(refreshAhead);
+        AtomicBoolean overBudget = new AtomicBoolean();
+
+        // Sorted by count - nothing after the first cold key is hot either
+        List<JobSearchKey> hot = searchFrequency.top(hotKeys).stream()
+                .takeWhile(entry -> entry.count() >= minSearches)
+                .map(TopKSketch.Entry::item)
+                .toList();
+
+        return Flux.fromIterable(hot)
+                .flatMapSequential(key -> isFresh(key, staleBefore)
+                        .filter(fresh -> !fresh)
+                        .map(fresh -> key), concurrency)
+                .take(Math.max(0, maxRefreshesPerRun))
+                .takeWhile(key -> !overBudget.get())
+                .flatMap(key -> {
+                    if (!apiBudget.tryAcquire(ApiBudget.CACHE_WARMER)) {
+                        if (overBudget.compareAndSet(false, true)) {
+                            log.info(" Cache warmer budget used up, stopping this refresh run");
+                        }
+                        return Mono.just(Outcome.OVER_BUDGET);
+                    }
+                    return fetch(key, staleBefore);
+                }, concurrency);
+    }
+
+    private Mono<Boolean> isFresh(JobSearchKey key, Instant staleBefore) {
+        return jobSearchService.cachedFreshUntil(key)
+                .map(freshUntil -> freshUntil.isAfter(staleBefore))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Outcome> fetch(JobSearchKey key, Instant staleBefore) {
+        return jobSearchService.refreshAhead(key, staleBefore)
+                .map(ok -> ok ? Outcome.REFRESHED : Outcome.FAILED);
+    }
+
+    enum Outcome {
+        STILL_FRESH, REFRESHED, FAILED, OVER_BUDGET
+    }
 
-        log.info("Cache warm-up complete! Successfully cached {}/{} searches.",
-                successCount, POPULAR_SEARCHES.length);
+    private enum WarmupState {
+        PENDING, WARMING, DONE, DISABLED
     }
 }
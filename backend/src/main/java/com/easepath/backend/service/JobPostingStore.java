@@ -0,0 +1,184 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.easepath.backend.repository.JobPostingRepository;
+import com.easepath.backend.util.GzipCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Normalized store of job postings shared across cached searches.
+ *
+ * Overlapping searches ("software engineer", "backend developer") return many
+ * of the same postings. Instead of every cache entry carrying its own copy,
+ * each posting is stored once in job_postings keyed by job_id, and a cache
+ * entry keeps only the ordered ids. Responses are reassembled from the shared
+ * postings, so when any search refreshes a posting, every search that
+ * references it sees the update.
+ *
+ * All methods that touch Mongo are blocking; callers run them on
+ * boundedElastic.
+ */
+@Service
+public class JobPostingStore {
+
+    private final JobPostingRepository jobPostingRepository;
+    private final ObjectMapper objectMapper;
+
+    public JobPostingStore(JobPostingRepository jobPostingRepository) {
+        this.jobPostingRepository = jobPostingRepository;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Split a JSearch-format response into its envelope, ordered job_ids and
+     * the postings themselves.
+     *
+     * @throws JsonProcessingException  if the response is not valid JSON
+     * @throws IllegalArgumentException if the response is not a JSON object
+     */
+    public NormalizedResult normalize(String responseJson) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(responseJson);
+        if (!(root instanceof ObjectNode envelope)) {
+            throw new IllegalArgumentException("Job search response is not a JSON object");
+        }
+
+        JsonNode data = envelope.remove("data");
+        List<String> jobIds = new ArrayList<>();
+        Map<String, String> postings = new LinkedHashMap<>();
+        Map<String, StoredPosting> stored = new LinkedHashMap<>();
+        if (data != null && data.isArray()) {
+            for (JsonNode job : data) {
+                String postingJson = objectMapper.writeValueAsString(job);
+                byte[] raw = postingJson.getBytes(StandardCharsets.UTF_8);
+                String jobId = job.path("job_id").asText("");
+                if (jobId.isEmpty()) {
+                    // No stable id from the provider - key the posting by its content
+                    jobId = "sha:" + GzipCodec.contentHash(raw);
+                }
+                jobIds.add(jobId);
+                if (postings.put(jobId, postingJson) == null) {
+                    stored.put(jobId, new StoredPosting(GzipCodec.compress(raw), raw.length));
+                }
+            }
+        }
+        return new NormalizedResult(objectMapper.writeValueAsString(envelope), jobIds, postings, stored);
+    }
+
+    /**
+     * Upsert the postings of a fetched response. Each posting's expiry is
+     * moved to {@code expireAt} so it lives at least as long as the cache
+     * entry that was just written for it.
+     */
+    public void save(NormalizedResult result, Instant expireAt) {
+        List<JobPostingDocument> documents = new ArrayList<>(result.stored().size());
+        result.stored().forEach((jobId, posting) -> documents
+                .add(new JobPostingDocument(jobId, posting.gzip(), posting.originalSize(), expireAt)));
+        if (!documents.isEmpty()) {
+            jobPostingRepository.saveAll(documents);
+        }
+    }
+
+    /**
+     * Compressed postings for the given ids; ids with no posting are left
+     * out, so callers can tell when a referenced posting is gone.
+     */
+    public Map<String, StoredPosting> findPostings(List<String> jobIds) {
+        Map<String, StoredPosting> postings = new HashMap<>();
+        for (JobPostingDocument document : jobPostingRepository.findAllById(jobIds)) {
+            postings.put(document.getId(), new StoredPosting(document.getPostingGzip(), document.getOriginalSize()));
+        }
+        return postings;
+    }
+
+    /**
+     * Stream postings updated after {@code since} to {@code consumer} in
+     * batches, together with the oldest update time in each batch. Stops
+     * after {@code limit} postings.
+     *
+     * @return the number of postings handed to the consumer
+     */
+    public int forEachUpdatedSince(Instant since, int limit, int batchSize,
+            BiConsumer<Map<String, String>, Instant> consumer) {
+        int count = 0;
+        Map<String, String> batch = new LinkedHashMap<>();
+        Instant oldest = null;
+        try (Stream<JobPostingDocument> documents = jobPostingRepository.findByUpdatedAtAfter(since)) {
+            Iterator<JobPostingDocument> it = documents.iterator();
+            while (it.hasNext() && count < limit) {
+                JobPostingDocument document = it.next();
+                batch.put(document.getId(),
+                        GzipCodec.decompress(document.getPostingGzip(), document.getOriginalSize()));
+                if (oldest == null || document.getUpdatedAt().isBefore(oldest)) {
+                    oldest = document.getUpdatedAt();
+                }
+                count++;
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch, oldest);
+                    batch = new LinkedHashMap<>();
+                    oldest = null;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch, oldest);
+        }
+        return count;
+    }
+
+    /**
+     * Append "data" to the envelope object. The envelope is always an object
+     * serialized by Jackson, so it ends with '}'.
+     */
+    public static String assemble(String envelopeJson, List<String> jobIds, Function<String, String> postingJson) {
+        StringBuilder json = new StringBuilder(envelopeJson.length() + 64);
+        json.append(envelopeJson, 0, envelopeJson.length() - 1);
+        if (envelopeJson.length() > 2) {
+            json.append(',');
+        }
+        json.append("\"data\":[");
+        for (int i = 0; i < jobIds.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(postingJson.apply(jobIds.get(i)));
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * A response split into what a cache entry stores (envelope and ids) and
+     * what goes to job_postings. {@code postings} holds the JSON of each
+     * posting, {@code stored} the same postings compressed.
+     */
+    public record NormalizedResult(String envelopeJson, List<String> jobIds, Map<String, String> postings,
+            Map<String, StoredPosting> stored) {
+    }
+
+    /**
+     * One posting as held in job_postings and L1: gzip bytes plus the
+     * uncompressed size.
+     */
+    public record StoredPosting(byte[] gzip, int originalSize) {
+
+        public String json() {
+            return GzipCodec.decompress(gzip, originalSize);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor for job search results.
+ *
+ * A cursor is the absolute offset of the next result in the search, encoded
+ * so clients treat it as a token rather than doing arithmetic on it. Pages
+ * are slices of cached upstream windows, so the server is free to change the
+ * window size without breaking cursors already handed out.
+ */
+public final class JobSearchCursor {
+
+    private static final String PREFIX = "o:";
+
+    private JobSearchCursor() {
+    }
+
+    public static String encode(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the offset, or 0 for a null/blank cursor (first page)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int offset = Integer.parseInt(decoded.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical form of a job search request.
+ *
+ * Two requests that would return the same jobs must produce the same key, so
+ * every parameter is normalized before it is used for caching or sent
+ * upstream:
+ * - query: trimmed, lower-cased, internal whitespace collapsed
+ * - datePosted: lower-cased, defaults to "all"
+ * - remoteJobsOnly: boolean ("true" in any case, everything else is false)
+ * - employmentTypes / jobRequirements: comma lists, de-duplicated and sorted
+ *
+ * Results are fetched upstream in fixed-size windows of several pages, and
+ * each window is cached on its own; {@link #getWindow()} says which one. Page
+ * size is not part of the key - pages are sliced out of a cached window.
+ *
+ * The cache stores {@link #hash()} - a fixed 22-character digest of the
+ * canonical string - rather than the raw parameters, which keeps the
+ * job_search_cache index small no matter how long the query is.
+ */
+public final class JobSearchKey {
+
+    private static final String VERSION = "v3";
+
+    private final String query;
+    private final int window;
+    private final String datePosted;
+    private final boolean remoteJobsOnly;
+    private final String employmentTypes;
+    private final String jobRequirements;
+
+    private final String canonical;
+    private final String hash;
+
+    private JobSearchKey(String query, int window, String datePosted, boolean remoteJobsOnly,
+            String employmentTypes, String jobRequirements) {
+        this.query = query;
+        this.window = window;
+        this.datePosted = datePosted;
+        this.remoteJobsOnly = remoteJobsOnly;
+        this.employmentTypes = employmentTypes;
+        this.jobRequirements = jobRequirements;
+        this.canonical = String.join("|", "jobs", VERSION, query, "w" + window, datePosted,
+                String.valueOf(remoteJobsOnly), employmentTypes, jobRequirements);
+        this.hash = digest(canonical);
+    }
+
+    /**
+     * Build a key for the first result window from raw request parameters.
+     * Any of them may be null.
+     */
+    public static JobSearchKey of(String query, String datePosted, String remoteJobsOnly,
+            String employmentTypes, String jobRequirements) {
+        return new JobSearchKey(
+                normalizeQuery(query),
+                0,
+                isBlank(datePosted) ? "all" : datePosted.trim().toLowerCase(Locale.ROOT),
+                remoteJobsOnly != null && "true".equalsIgnoreCase(remoteJobsOnly.trim()),
+                normalizeList(employmentTypes, true),
+                normalizeList(jobRequirements, false));
+    }
+
+    /**
+     * The same search, for another result window (0-based).
+     */
+    public JobSearchKey forWindow(int window) {
+        if (window == this.window) {
+            return this;
+        }
+        return new JobSearchKey(query, Math.max(0, window), datePosted, remoteJobsOnly, employmentTypes,
+                jobRequirements);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * 0-based index of the upstream result window this key caches.
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    public String getDatePosted() {
+        return datePosted;
+    }
+
+    public boolean isRemoteJobsOnly() {
+        return remoteJobsOnly;
+    }
+
+    /**
+     * Sorted, comma-separated employment types, or "" if none.
+     */
+    public String getEmploymentTypes() {
+        return employmentTypes;
+    }
+
+    /**
+     * Sorted, comma-separated job requirements, or "" if none.
+     */
+    public String getJobRequirements() {
+        return jobRequirements;
+    }
+
+    /**
+     * Human-readable canonical form, e.g. "jobs|v3|software engineer|w0|all|false||".
+     */
+    public String canonical() {
+        return canonical;
+    }
+
+    /**
+     * Fixed-length (128-bit, base64url) digest of the canonical form.
+     */
+    public String hash() {
+        return hash;
+    }
+
+    private static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeList(String value, boolean upperCase) {
+        if (isBlank(value)) {
+            return "";
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .map(v -> upperCase ? v.toUpperCase(Locale.ROOT) : v.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(sha, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof JobSearchKey other && canonical.equals(other.canonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(canonical);
+    }
+
+    @Override
+    public String toString() {
+        return canonical;
+    }
+}
@@ -0,0 +1,97 @@
+package com.easepath.backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Merges JSearch-format responses from several providers into one.
+ *
+ * Postings are taken round-robin across the responses (in provider priority
+ * order) so every provider contributes to the first results, and a posting is
+ * dropped if one with the same normalized title, company and location was
+ * already taken - the big boards syndicate the same job under different ids.
+ * The envelope comes from the first response.
+ */
+final class JobSearchMerger {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // "Acme Inc" and "Acme" are the same employer
+    private static final Pattern COMPANY_SUFFIX = Pattern.compile(" (inc|llc|ltd|corp|corporation|co|company)$");
+
+    private JobSearchMerger() {
+    }
+
+    /**
+     * @param responses JSearch-format JSON in priority order; unparseable
+     *                  responses are skipped
+     * @param limit     maximum number of postings in the merged response
+     * @return the merged response, or null if no response could be parsed
+     */
+    static String merge(List<String> responses, int limit) throws JsonProcessingException {
+        ObjectNode merged = null;
+        List<ArrayNode> sources = new ArrayList<>();
+        for (String response : responses) {
+            JsonNode root;
+            try {
+                root = OBJECT_MAPPER.readTree(response);
+            } catch (JsonProcessingException e) {
+                continue;
+            }
+            if (!(root instanceof ObjectNode object)) {
+                continue;
+            }
+            if (merged == null) {
+                merged = object.deepCopy();
+            }
+            if (object.get("data") instanceof ArrayNode data) {
+                sources.add(data);
+            }
+        }
+        if (merged == null) {
+            return null;
+        }
+
+        ArrayNode data = merged.putArray("data");
+        Set<String> seen = new HashSet<>();
+        int longest = sources.stream().mapToInt(ArrayNode::size).max().orElse(0);
+        for (int i = 0; i < longest && data.size() < limit; i++) {
+            for (ArrayNode source : sources) {
+                if (i < source.size() && data.size() < limit && seen.add(dedupeKey(source.get(i)))) {
+                    data.add(source.get(i));
+                }
+            }
+        }
+        return OBJECT_MAPPER.writeValueAsString(merged);
+    }
+
+    /**
+     * Normalized title + company + location of a posting.
+     */
+    static String dedupeKey(JsonNode job) {
+        String location = job.path("job_is_remote").asBoolean(false) && job.path("job_city").asText("").isEmpty()
+                ? "remote"
+                : normalize(job.path("job_city").asText("")) + "," + normalize(job.path("job_state").asText(""));
+        return normalize(job.path("job_title").asText("")) + "|"
+                + COMPANY_SUFFIX.matcher(normalize(job.path("employer_name").asText(""))).replaceAll("") + "|"
+                + location;
+    }
+
+    private static String normalize(String value) {
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return folded.replaceAll("[^a-z0-9]+", " ").trim();
+    }
+}
@@ -0,0 +1,41 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * An upstream source of job postings.
+ *
+ * Implementations return JSearch-format JSON (an object with a "data" array
+ * of postings) so the cache, the local index and the frontend only ever see
+ * one shape; providers with another format adapt it themselves. Providers are
+ * picked up by JobSearchProviderRegistry and wrapped by JobSearchService in
+ * a deadline, a circuit breaker and an API budget under {@link #getName()}.
+ */
+public interface JobSearchProvider {
+
+    /**
+     * Stable name used in configuration (easepath.jobsearch.providers), as the
+     * circuit breaker and API budget name, and in provider health.
+     */
+    String getName();
+
+    /**
+     * False if the provider cannot be called, e.g. its API key is not set.
+     */
+    boolean isConfigured();
+
+    /**
+     * Deadline for a single {@link #search} call.
+     */
+    Duration getTimeout();
+
+    /**
+     * Fetch one result window: up to {@code windowSize} results starting at
+     * result {@code key.getWindow() * windowSize}.
+     *
+     * @return JSearch-format JSON; errors are signalled through the Mono
+     */
+    Mono<String> search(JobSearchKey key, int windowSize);
+}
@@ -0,0 +1,43 @@
+package com.easepath.backend.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.ProviderGuard;
+
+/**
+ * The job search providers in use, in priority order.
+ *
+ * Every JobSearchProvider bean is registered under its name; which of them
+ * are used, and in what order, comes from easepath.jobsearch.providers. The
+ * first listed provider is the primary, the rest are fallbacks (or, in
+ * fan-out mode, queried alongside it). Adding a provider means adding a bean
+ * and listing its name - JobSearchService does not change.
+ */
+@Service
+public class JobSearchProviderRegistry {
+
+    private final List<JobSearchProvider> providers;
+
+    public JobSearchProviderRegistry(List<JobSearchProvider> available,
+            @Value("${easepath.jobsearch.providers:jsearch,theirstack}") List<String> order) {
+        this.providers = ProviderGuard.prioritize(available, JobSearchProvider::getName, order,
+                "easepath.jobsearch.providers");
+    }
+
+    /**
+     * All enabled providers in priority order, configured or not.
+     */
+    public List<JobSearchProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Enabled providers that can actually be called, in priority order.
+     */
+    public List<JobSearchProvider> getConfiguredProviders() {
+        return providers.stream().filter(JobSearchProvider::isConfigured).toList();
+    }
+}
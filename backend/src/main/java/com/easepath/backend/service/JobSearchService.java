@@ -1,26 +1,32 @@
 package com.easepath.backend.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.easepath.backend.dto.JobSearchResult;
 import com.easepath.backend.model.JobSearchCache;
 import com.easepath.backend.repository.JobSearchRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.easepath.backend.util.BoundedTtlCache;
+import com.easepath.backend.util.CircuitBreaker;
+import com.easepath.backend.util.ProviderGuard;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * JOB SEARCH SERVICE - Aggregates multiple job search APIs with caching
@@ -28,24 +34,62 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * DESIGN PATTERNS USED:
  * 
  * 1. FALLBACK PATTERN (Circuit Breaker-like)
+ * - Providers are JobSearchProvider beans, ordered by
+ *   easepath.jobsearch.providers (JobSearchProviderRegistry)
  * - Primary API: JSearch (RapidAPI) - Fast, good data quality
  * - Fallback API: TheirStack - Alternative when primary fails
  * - Why? External APIs can fail, hit rate limits, or go down
  * - This ensures users always get job results
+ * - Each provider call has a deadline; optionally the fallbacks are hedged
+ *   in parallel once the primary is slower than its recent p90
+ * - Each provider has a circuit breaker (closed / open / half-open) driven
+ *   by error rate and latency; an open provider is skipped outright
+ * - Fan-out mode instead queries every provider at once and merges the
+ *   results, dropping duplicates (JobSearchMerger)
  * 
- * 2. CACHING PATTERN
- * - Cache key: Unique hash of all search parameters
- * - Cache storage: MongoDB (JobSearchCache collection)
- * - TTL: 72 hours (configured in JobSearchCache model)
+ * 2. CACHING PATTERN (two tiers)
+ * - Cache key: Hash of the canonical search parameters (see JobSearchKey)
+ * - L1: bounded in-process LRU (BoundedTtlCache) - no network hop at all
+ * - L2: MongoDB - JobSearchCache entries hold ordered job_ids; the postings
+ *   live once each in job_postings (JobPostingStore), gzip-compressed
+ * - TTL: fresh for 24h, then served stale for up to 48h more before the
+ *   Mongo TTL index deletes it; L1 entries expire at the same instant as
+ *   the Mongo document they mirror
  * - Why? API calls cost money (RapidAPI charges per request)
  * - Same search within 72 hours = free, instant response
  * 
- * 3. ADAPTER PATTERN (transformTheirStackResponse method)
+ * 3. ADAPTER PATTERN (TheirStackResponseAdapter, used by TheirStackProvider)
  * - JSearch and TheirStack return different JSON formats
  * - Frontend expects ONE consistent format
  * - The adapter transforms TheirStack -> JSearch format
  * - Why? Single frontend code, multiple data sources
  * 
+ * 4. SINGLE-FLIGHT (fetchCoalesced method)
+ * - Concurrent misses for the same key share one upstream fetch
+ * - Why? A hot key expiring would otherwise fan out into N paid API calls
+ * 
+ * 5. STALE-WHILE-REVALIDATE
+ * - Entries have a soft expiry (freshUntil) and a later hard expiry (expireAt)
+ * - Stale entries are returned immediately while one background refresh runs
+ * - If every provider is down, stale data beats an error payload
+ * 
+ * 6. LOCAL INDEX (LocalJobIndex)
+ * - Every fetched posting is added to an in-process inverted index
+ * - A cache miss with enough fresh local matches is answered without an
+ *   upstream call
+ * 
+ * 7. API BUDGET (ApiBudget)
+ * - Each provider call needs a token from the provider's bucket and is
+ *   counted against its daily cap; a 429 pauses the provider for its
+ *   Retry-After
+ * - Over budget, a provider is skipped like an open circuit: stale results
+ *   are served, and failing that any local matches at all
+ * 
+ * 8. REFRESH-AHEAD (SearchFrequencyTracker, CacheWarmerService)
+ * - Every search key is counted in a bounded heavy-hitters sketch
+ * - On a schedule the warmer refetches the hottest keys shortly before
+ *   their soft expiry, so popular searches never reach a user stale
+ * 
  * COST OPTIMIZATION:
  * - RapidAPI: ~$0.001 per request (adds up with many users!)
  * - TheirStack: Usage-based pricing
@@ -56,351 +100,642 @@ public class JobSearchService {
 
     private static final Logger log = LoggerFactory.getLogger(JobSearchService.class);
 
-    // MongoDB repository for caching search results
+    private static final String ERROR_RESPONSE = "{\"status\":\"ERROR\","
+            + "\"message\":\"Unable to fetch jobs. Please try again later.\",\"data\":[]}";
+    private static final JobSearchResult ERROR_RESULT = JobSearchResult.fromJson(ERROR_RESPONSE);
+    private static final String LOCAL_ENVELOPE = "{\"status\":\"OK\"}";
+
+    // Results per upstream page (JSearch returns 10 per page)
+    private static final int PAGE_RESULTS = 10;
+
+    // MongoDB repository for caching search results (L2)
     private final JobSearchRepository jobSearchRepository;
 
-    // WebClient is Spring's non-blocking HTTP client (like axios for Java)
-    // We have TWO clients - one for each API, preconfigured with base URLs
-    private final WebClient jsearchClient; // Primary API
-    private final WebClient theirStackClient; // Fallback API
+    // Shared job_postings collection - cache entries only reference postings
+    private final JobPostingStore jobPostingStore;
+
+    // Inverted index over fetched postings, to answer misses without an API call
+    private final LocalJobIndex localJobIndex;
+
+    // Per-provider rate limits and daily caps
+    private final ApiBudget apiBudget;
+
+    // What users actually search for - drives the cache warmer
+    private final SearchFrequencyTracker searchFrequency;
+
+    @Value("${easepath.jobsearch.local.enabled:true}")
+    private boolean localIndexEnabled;
+
+    // Local matches needed before we skip the upstream call
+    @Value("${easepath.jobsearch.local.min-matches:10}")
+    private int localMinMatches;
+
+    // Upstream pages fetched per call; every page holds PAGE_RESULTS results.
+    // Client pages of any size are sliced out of these windows.
+    private final int windowPages;
+    private final int windowSize;
+
+    // Windows a search can page into; deeper offsets are rejected
+    private final int maxWindows;
+
+    // In-process cache in front of Mongo (L1) - most search traffic is repeats.
+    // Holds windows with their postings so L1 hits never touch job_postings.
+    private final BoundedTtlCache<String, JobSearchWindow> l1Cache;
+
+    // Upstream fetches currently running, keyed by cache key (single-flight)
+    private final Map<String, CompletableFuture<JobSearchWindow>> inFlightSearches = new ConcurrentHashMap<>();
+
+    // How long an entry is served as fresh, and how long after that it may
+    // still be served stale before Mongo deletes it
+    private final Duration freshTtl;
+    private final Duration maxStale;
 
-    // JSON parsing library (like JSON.parse in JavaScript)
-    private final ObjectMapper objectMapper;
+    // Upstream providers in priority order (JSearch, TheirStack, ...)
+    private final JobSearchProviderRegistry providerRegistry;
 
-    // API keys loaded from environment variables via @Value annotation
-    // These are injected by Spring from application.properties or .env
-    @Value("${theirstack.api-key:}")
-    private String theirStackApiKey;
+    // Query every provider in parallel and merge, instead of falling back
+    @Value("${easepath.jobsearch.fan-out.enabled:false}")
+    private boolean fanOutEnabled;
 
-    @Value("${rapidapi.key:}")
-    private String rapidApiKey;
+    // Hedging configuration
+    @Value("${easepath.jobsearch.hedge.enabled:false}")
+    private boolean hedgeEnabled;
 
-    @Value("${rapidapi.host:jsearch.p.rapidapi.com}")
-    private String rapidApiHost;
+    @Value("${easepath.jobsearch.hedge.percentile:0.9}")
+    private double hedgePercentile;
 
-    // Constructor injection - Spring provides the WebClient builder
-    public JobSearchService(JobSearchRepository jobSearchRepository, WebClient.Builder webClientBuilder) {
+    @Value("${easepath.jobsearch.hedge.default-delay:2s}")
+    private Duration hedgeDefaultDelay;
+
+    @Value("${easepath.jobsearch.hedge.min-delay:500ms}")
+    private Duration hedgeMinDelay;
+
+    // Circuit breakers - open after too many failing or slow calls
+    @Value("${easepath.jobsearch.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${easepath.jobsearch.circuit.min-calls:5}")
+    private int circuitMinCalls;
+
+    @Value("${easepath.jobsearch.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${easepath.jobsearch.circuit.slow-call-threshold:5s}")
+    private Duration circuitSlowCallThreshold;
+
+    @Value("${easepath.jobsearch.circuit.slow-call-rate:0.8}")
+    private double circuitSlowCallRate;
+
+    @Value("${easepath.jobsearch.circuit.open-duration:60s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${easepath.jobsearch.circuit.half-open-calls:2}")
+    private int circuitHalfOpenCalls;
+
+    // Breaker, budget and recent latencies per provider, keyed by provider
+    // name - the primary's latencies drive the hedge delay
+    private final ProviderGuard providerGuard;
+
+    // Which provider is actually answering searches
+    private final Map<String, AtomicLong> servedCounts = new ConcurrentHashMap<>();
+    private volatile String lastServedBy;
+
+    // Constructor injection - the providers own their HTTP clients and keys
+    public JobSearchService(JobSearchRepository jobSearchRepository, JobPostingStore jobPostingStore,
+            LocalJobIndex localJobIndex, ApiBudget apiBudget, SearchFrequencyTracker searchFrequency,
+            JobSearchProviderRegistry providerRegistry,
+            @Value("${easepath.jobsearch.l1.max-entries:500}") int l1MaxEntries,
+            @Value("${easepath.jobsearch.cache.fresh-ttl:24h}") Duration freshTtl,
+            @Value("${easepath.jobsearch.cache.max-stale:48h}") Duration maxStale,
+            @Value("${easepath.jobsearch.window-pages:3}") int windowPages,
+            @Value("${easepath.jobsearch.max-windows:10}") int maxWindows) {
         this.jobSearchRepository = jobSearchRepository;
-        // .clone() creates independent clients with different base URLs
-        this.jsearchClient = webClientBuilder.clone().baseUrl("https://jsearch.p.rapidapi.com").build();
-        this.theirStackClient = webClientBuilder.clone().baseUrl("https://api.theirstack.com").build();
-        this.objectMapper = new ObjectMapper();
+        this.jobPostingStore = jobPostingStore;
+        this.localJobIndex = localJobIndex;
+        this.apiBudget = apiBudget;
+        this.searchFrequency = searchFrequency;
+        this.providerRegistry = providerRegistry;
+        this.l1Cache = new BoundedTtlCache<>(l1MaxEntries);
+        this.freshTtl = freshTtl;
+        this.maxStale = maxStale;
+        this.windowPages = Math.max(1, windowPages);
+        this.windowSize = this.windowPages * PAGE_RESULTS;
+        this.maxWindows = Math.max(1, maxWindows);
+        this.providerGuard = new ProviderGuard(this::newCircuitBreaker, apiBudget::tryAcquire);
+    }
+
+    private CircuitBreaker newCircuitBreaker(String name) {
+        return new CircuitBreaker(name, circuitWindowSize, circuitMinCalls, circuitFailureRate,
+                circuitSlowCallThreshold, circuitSlowCallRate, circuitOpenDuration, circuitHalfOpenCalls);
+    }
+
+    /**
+     * Largest page searchJobs can fill: one upstream window, since a page
+     * never crosses into the next one.
+     */
+    public int getMaxPageSize() {
+        return windowSize;
+    }
+
+    /**
+     * First offset past the deepest window a search may page into. Callers
+     * reject larger offsets instead of passing them to searchJobs.
+     */
+    public int getMaxOffset() {
+        return maxWindows * windowSize;
     }
 
     /**
      * MAIN SEARCH METHOD - Orchestrates caching and API fallback
      * 
+     * Fully non-blocking: Mongo lookups run on the bounded-elastic scheduler
+     * and the upstream calls are plain WebClient Monos, so no servlet thread is
+     * held while RapidAPI or TheirStack is thinking.
+     * 
+     * PAGINATION:
+     * Upstream results are fetched and cached in windows of windowPages pages.
+     * The requested page (offset, pageSize) is sliced out of the window that
+     * contains offset, so paging through a window costs one upstream call in
+     * total. The response carries next_cursor for the following page.
+     * 
      * FLOW:
-     * 1. Check cache → return immediately if found (FREE + FAST)
-     * 2. Try JSearch API → cache and return if successful
-     * 3. If JSearch fails → try TheirStack API → cache and return
-     * 4. If both fail → return error message
+     * 1. Check L1 (memory), then L2 (Mongo) → return immediately if found
+     *    (if the entry is stale, also kick off one background refresh)
+     * 2. On a miss, join the in-flight fetch for the same key if there is one
+     * 3. Try JSearch API → cache and return if successful
+     * 4. If JSearch fails → try TheirStack API → cache and return
+     * 5. If both fail → serve stale data if we have any, else an error message
      * 
-     * @return JSON string matching JSearch format (frontend expects this)
+     * @param offset   absolute index of the first result (from the cursor),
+     *                 below {@link #getMaxOffset()}
+     * @param pageSize results per page, at most {@link #getMaxPageSize()};
+     *                 pages never cross a window boundary
+     * @return JSearch-format page (frontend expects this) plus page_size and
+     *         next_cursor, gzip-compressed with the JSON decoded on demand
      */
-    public String searchJobs(String query, String numPages, String datePosted, String remoteJobsOnly,
-            String employmentTypes, String jobRequirements) {
+    public Mono<JobSearchResult> searchJobs(String query, int offset, int pageSize, String datePosted,
+            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
 
         // ══════════════════════════════════════════════════════════════════
-        // STEP 1: Create cache key from ALL parameters
+        // STEP 1: Create canonical cache key from ALL parameters
         // ══════════════════════════════════════════════════════════════════
-        // Different parameters = different cache entry
-        // "software engineer|1|week|true|FULLTIME|" is a unique search
-        String cacheKey = "jobs|" + query + "|" + numPages + "|" + datePosted + "|" + remoteJobsOnly + "|"
-                + employmentTypes + "|" + jobRequirements;
+        // Different parameters = different cache entry, but cosmetic
+        // differences ("Software Engineer " vs "software engineer", null vs
+        // "all") normalize to the same key
+        int window = offset / windowSize;
+        int windowStart = window * windowSize;
+        JobSearchKey key = JobSearchKey.of(query, datePosted, remoteJobsOnly, employmentTypes, jobRequirements)
+                .forWindow(window);
+        searchFrequency.record(key);
 
         // ══════════════════════════════════════════════════════════════════
         // STEP 2: Check cache first (O(1) lookup, no API cost)
         // ══════════════════════════════════════════════════════════════════
-        Optional<JobSearchCache> cached = jobSearchRepository.findByQuery(cacheKey);
-        if (cached.isPresent()) {
-            log.info(" Returning cached job search results for: {}", cacheKey);
-            return cached.get().getResultJson(); // Return immediately - FREE!
-        }
+        return findCached(key)
+                .doOnNext(cached -> {
+                    if (cached.isStale(Instant.now())) {
+                        // Past its soft expiry: answer now, refresh for the next caller
+                        refreshInBackground(key);
+                    }
+                })
+                // ══════════════════════════════════════════════════════════
+                // STEP 3: Cache miss - answer from postings we already have
+                // ══════════════════════════════════════════════════════════
+                .switchIfEmpty(Mono.defer(() -> answerLocally(key,
+                        Math.min(windowSize, Math.max(localMinMatches, offset - windowStart + pageSize)))))
+                // ══════════════════════════════════════════════════════════
+                // STEP 4: Not enough local matches - coalesce with any
+                // in-flight fetch
+                // ══════════════════════════════════════════════════════════
+                .switchIfEmpty(Mono.defer(() -> fetchCoalesced(key)))
+                // Providers failed or are over budget and nothing stale is
+                // cached - a few local matches beat an error page
+                .switchIfEmpty(Mono.defer(() -> answerLocally(key, 1)))
+                // Cut the requested page out of the window (memoized per page)
+                .map(found -> found.slice(windowStart, offset, pageSize, getMaxOffset()))
+                // ══════════════════════════════════════════════════════════
+                // STEP 5: BOTH APIS FAILED - Return graceful error
+                // ══════════════════════════════════════════════════════════
+                // Don't throw exception - return valid JSON that frontend can handle
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.error(" All job search APIs failed");
+                    return ERROR_RESULT;
+                }))
+                .onErrorResume(e -> {
+                    log.error(" Job search failed for {}: {}", key, e.getMessage());
+                    return Mono.just(ERROR_RESULT);
+                });
+    }
 
-        // ══════════════════════════════════════════════════════════════════
-        // STEP 3: Try PRIMARY API (JSearch via RapidAPI)
-        // ══════════════════════════════════════════════════════════════════
-        if (rapidApiKey != null && !rapidApiKey.isEmpty()) {
-            try {
-                log.info(" Trying JSearch API for: {}", query);
-                String result = searchWithJSearch(query, numPages, datePosted, remoteJobsOnly, employmentTypes,
-                        jobRequirements);
-                if (result != null && !result.isEmpty()) {
-                    // SUCCESS! Cache for future requests and return
-                    jobSearchRepository.save(new JobSearchCache(cacheKey, result));
-                    return result;
-                }
-            } catch (WebClientResponseException.TooManyRequests e) {
-                // 429 = Rate limited (too many requests)
-                log.warn(" JSearch rate limited, falling back to TheirStack");
-            } catch (Exception e) {
-                // Any other error - network, timeout, 500, etc.
-                log.warn(" JSearch failed: {}, falling back to TheirStack", e.getMessage());
-            }
+    /**
+     * LOCAL INDEX: answer a cache miss for the first window from postings
+     * fetched under other searches, if at least {@code needed} fresh ones
+     * match. Completes empty (go upstream) when coverage is too thin, when a
+     * matched posting has left job_postings, or on any error. Local answers
+     * are not written to the search cache - the index is cheaper to ask again
+     * than to keep the two consistent.
+     */
+    private Mono<JobSearchWindow> answerLocally(JobSearchKey key, int needed) {
+        if (!localIndexEnabled || key.getWindow() > 0) {
+            return Mono.empty();
         }
-
-        // ══════════════════════════════════════════════════════════════════
-        // STEP 4: FALLBACK to secondary API (TheirStack)
-        // ══════════════════════════════════════════════════════════════════
-        // Only reaches here if JSearch failed or is not configured
-        if (theirStackApiKey != null && !theirStackApiKey.isEmpty()) {
-            try {
-                log.info(" Trying TheirStack API for: {}", query);
-                String result = searchWithTheirStack(query, datePosted, remoteJobsOnly, employmentTypes);
-                if (result != null && !result.isEmpty()) {
-                    // SUCCESS! Cache and return (already transformed to JSearch format)
-                    jobSearchRepository.save(new JobSearchCache(cacheKey, result));
-                    return result;
-                }
-            } catch (Exception e) {
-                log.error(" TheirStack also failed: {}", e.getMessage());
+        return Mono.fromCallable(() -> {
+            List<String> jobIds = localJobIndex.search(key, windowSize);
+            if (jobIds.size() < needed) {
+                return null;
             }
-        }
+            Map<String, JobPostingStore.StoredPosting> postings = jobPostingStore.findPostings(jobIds);
+            if (postings.size() < jobIds.size()) {
+                return null;
+            }
+            // The index only holds what other searches happened to fetch, so
+            // a short answer is not the end: the next page goes upstream
+            return new JobSearchWindow(null, LOCAL_ENVELOPE, jobIds, postings, true);
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(result -> {
+                    localJobIndex.recordLocalAnswer();
+                    log.info(" Answered job search from local index: {}", key);
+                })
+                .onErrorResume(e -> {
+                    log.warn(" Local job index lookup failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
 
-        // ══════════════════════════════════════════════════════════════════
-        // STEP 5: BOTH APIS FAILED - Return graceful error
-        // ══════════════════════════════════════════════════════════════════
-        // Don't throw exception - return valid JSON that frontend can handle
-        log.error(" All job search APIs failed");
-        return "{\"status\":\"ERROR\",\"message\":\"Unable to fetch jobs. Please try again later.\",\"data\":[]}";
+    /**
+     * SINGLE-FLIGHT: only one upstream fetch runs per cache key at a time.
+     *
+     * When a hot key expires, every request arriving at that moment misses the
+     * cache. The first caller starts the paid API call; everyone else
+     * subscribes to the same future and gets the same result. The fetch is
+     * subscribed independently of any one caller, so a client disconnecting
+     * never cancels work other callers are waiting on. N concurrent misses
+     * cost one API call and one Mongo write instead of N.
+     */
+    private Mono<JobSearchWindow> fetchCoalesced(JobSearchKey key) {
+        return fetchCoalesced(key, null);
     }
 
     /**
-     * Search using JSearch (RapidAPI) - Primary API
+     * @param staleBefore treat cached results going stale before this instant
+     *                    as stale already (null = now); lets refresh-ahead
+     *                    replace an entry that is still fresh
      */
-    private String searchWithJSearch(String query, String numPages, String datePosted,
-            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
+    private Mono<JobSearchWindow> fetchCoalesced(JobSearchKey key, Instant staleBefore) {
+        return Mono.defer(() -> {
+            CompletableFuture<JobSearchWindow> ours = new CompletableFuture<>();
+            CompletableFuture<JobSearchWindow> inFlight = inFlightSearches.putIfAbsent(key.hash(), ours);
+            if (inFlight != null) {
+                log.info(" Joining in-flight job search for: {}", key);
+                return Mono.fromFuture(inFlight, true);
+            }
 
-        String response = jsearchClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path("/search")
-                            .queryParam("query", query)
-                            .queryParam("page", "1")
-                            .queryParam("num_pages", numPages != null ? numPages : "1")
-                            .queryParam("date_posted", datePosted != null ? datePosted : "all");
+            loadFromUpstream(key, staleBefore != null ? staleBefore : Instant.now())
+                    .doFinally(signal -> inFlightSearches.remove(key.hash(), ours))
+                    .subscribe(ours::complete, ours::completeExceptionally, () -> ours.complete(null));
+            return Mono.fromFuture(ours, true);
+        });
+    }
 
-                    if (remoteJobsOnly != null && "true".equalsIgnoreCase(remoteJobsOnly)) {
-                        uriBuilder.queryParam("remote_jobs_only", "true");
-                    }
-                    if (employmentTypes != null && !employmentTypes.isEmpty()) {
-                        uriBuilder.queryParam("employment_types", employmentTypes);
-                    }
-                    if (jobRequirements != null && !jobRequirements.isEmpty()) {
-                        uriBuilder.queryParam("job_requirements", jobRequirements);
+    /**
+     * Leader side of a coalesced fetch: call the providers and write the cache.
+     * Completes empty if every provider failed and there is nothing stale to
+     * fall back on.
+     */
+    private Mono<JobSearchWindow> loadFromUpstream(JobSearchKey key, Instant staleBefore) {
+        // The previous leader may have finished between our cache check and
+        // claiming the key - check again before paying for an API call
+        return findCached(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (cached.isPresent() && !cached.get().isStale(staleBefore)) {
+                        return Mono.just(cached.get());
                     }
-
-                    return uriBuilder.build();
-                })
-                .header("X-RapidAPI-Key", rapidApiKey)
-                .header("X-RapidAPI-Host", rapidApiHost)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-        log.info(" JSearch returned results");
-        return response;
+                    return fetchFromProviders(key)
+                            .flatMap(json -> cacheFetched(key, json))
+                            .switchIfEmpty(Mono.defer(() -> {
+                                if (cached.isEmpty()) {
+                                    return Mono.empty();
+                                }
+                                // Every provider failed - stale results beat an error page
+                                log.warn(" All job search APIs failed, serving stale results for: {}", key);
+                                return Mono.just(cached.get());
+                            }));
+                });
     }
 
     /**
-     * Search using TheirStack API - Fallback API
+     * REFRESH-AHEAD: when the cached results for a key stop being fresh, or
+     * empty if nothing is cached. Local index answers don't count - they are
+     * never cached.
      */
-    private String searchWithTheirStack(String query, String datePosted, String remoteJobsOnly,
-            String employmentTypes) {
-
-        Map<String, Object> requestBody = buildTheirStackRequest(query, datePosted, remoteJobsOnly, employmentTypes);
-
-        log.info("Sending request to TheirStack: {}", requestBody);
-
-        String response = theirStackClient.post()
-                .uri("/v1/jobs/search")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + theirStackApiKey)
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-        // Transform TheirStack response to match JSearch format
-        String transformedResponse = transformTheirStackResponse(response);
-        log.info(" TheirStack returned results");
-        return transformedResponse;
+    public Mono<Instant> cachedFreshUntil(JobSearchKey key) {
+        return findCached(key)
+                .filter(cached -> cached.getEntry() != null)
+                .map(cached -> cached.getEntry().getFreshUntil());
     }
 
-    private Map<String, Object> buildTheirStackRequest(String query, String datePosted, String remoteJobsOnly,
-            String employmentTypes) {
-        Map<String, Object> request = new HashMap<>();
-
-        // Pagination - limit to 10 to conserve credits
-        request.put("page", 0);
-        request.put("limit", 10);
-        request.put("blur_company_data", false);
-
-        // Parse query for location
-        String jobTitle = query;
-        String location = null;
+    /**
+     * REFRESH-AHEAD: fetch a key from the providers if its cached results go
+     * stale before {@code staleBefore} (or nothing is cached). Shares the
+     * single-flight slot with user searches for the same key.
+     *
+     * @return true if the key now has results fresh until at least
+     *         staleBefore; false if the providers failed or are over budget
+     */
+    public Mono<Boolean> refreshAhead(JobSearchKey key, Instant staleBefore) {
+        return fetchCoalesced(key, staleBefore)
+                .map(fetched -> fetched.getEntry() != null && !fetched.isStale(staleBefore))
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    log.warn(" Refresh-ahead failed for {}: {}", key, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
 
-        if (query != null && query.toLowerCase().contains(" in ")) {
-            int inIndex = query.toLowerCase().lastIndexOf(" in ");
-            jobTitle = query.substring(0, inIndex).trim();
-            location = query.substring(inIndex + 4).trim();
+    /**
+     * Refresh a stale entry without making the caller wait. Skipped if a fetch
+     * for the key is already running; fetchCoalesced dedupes the rest.
+     */
+    private void refreshInBackground(JobSearchKey key) {
+        if (inFlightSearches.containsKey(key.hash())) {
+            return;
         }
+        log.info(" Serving stale results, refreshing in background: {}", key);
+        fetchCoalesced(key).subscribe(
+                result -> log.debug(" Background refresh complete for: {}", key),
+                e -> log.warn(" Background refresh failed for {}: {}", key, e.getMessage()));
+    }
 
-        // Job title search
-        if (jobTitle != null && !jobTitle.isEmpty()) {
-            List<String> titlePatterns = new ArrayList<>();
-            titlePatterns.add(jobTitle);
-            request.put("job_title_pattern_or", titlePatterns);
+    /**
+     * FALLBACK CHAIN: providers in priority order (JSearch, then TheirStack by
+     * default), or all of them at once in fan-out mode.
+     *
+     * Every provider call has its own deadline, so a hanging primary costs at
+     * most its timeout before the next provider is tried. With hedging
+     * enabled, the fallbacks are also fired in parallel once the primary has
+     * taken longer than its recent latency percentile; whichever answers first
+     * wins and the other request is cancelled.
+     *
+     * @return JSearch-format JSON, or empty if every provider failed
+     */
+    private Mono<String> fetchFromProviders(JobSearchKey key) {
+        List<JobSearchProvider> providers = providerRegistry.getConfiguredProviders();
+        if (providers.isEmpty()) {
+            return Mono.empty();
         }
-
-        // Date posted filter
-        if (datePosted != null && !datePosted.isEmpty() && !datePosted.equals("all")) {
-            int maxAgeDays = switch (datePosted) {
-                case "today" -> 1;
-                case "3days" -> 3;
-                case "week" -> 7;
-                case "month" -> 30;
-                default -> 30;
-            };
-            request.put("posted_at_max_age_days", maxAgeDays);
-        } else {
-            request.put("posted_at_max_age_days", 30);
+        if (fanOutEnabled && providers.size() > 1) {
+            return fannedOut(key, providers);
         }
 
-        // Location filter
-        List<String> locationPatterns = new ArrayList<>();
-        if ("true".equalsIgnoreCase(remoteJobsOnly)) {
-            locationPatterns.add("remote");
-        }
-        if (location != null && !location.isEmpty()) {
-            locationPatterns.add(location);
+        // Try PRIMARY API first; each fallback is only subscribed if everything
+        // before it failed
+        Mono<String> fallbacks = Mono.empty();
+        for (int i = providers.size() - 1; i >= 1; i--) {
+            fallbacks = attempt(providers.get(i), key).switchIfEmpty(fallbacks);
         }
-        if (!locationPatterns.isEmpty()) {
-            request.put("job_location_pattern_or", locationPatterns);
+        JobSearchProvider primary = providers.get(0);
+        if (hedgeEnabled && providers.size() > 1) {
+            return hedged(key, primary, attempt(primary, key), fallbacks);
         }
-
-        // Country filter - default to US
-        List<String> countryCodes = new ArrayList<>();
-        countryCodes.add("US");
-        request.put("job_country_code_or", countryCodes);
-
-        // Order by date posted
-        List<Map<String, Object>> orderBy = new ArrayList<>();
-        Map<String, Object> order = new HashMap<>();
-        order.put("field", "date_posted");
-        order.put("desc", true);
-        orderBy.add(order);
-        request.put("order_by", orderBy);
-
-        return request;
+        return attempt(primary, key).switchIfEmpty(fallbacks);
     }
 
-    private String transformTheirStackResponse(String theirStackResponse) {
-        try {
-            JsonNode root = objectMapper.readTree(theirStackResponse);
-            JsonNode dataArray = root.path("data");
-
-            // Create response in JSearch-compatible format
-            ObjectNode result = objectMapper.createObjectNode();
-            result.put("status", "OK");
-
-            ArrayNode jobsArray = objectMapper.createArrayNode();
+    /**
+     * FAN-OUT: query every provider in parallel and merge what comes back,
+     * de-duplicating postings that several providers list. Providers that
+     * fail or time out are left out of the merge; empty if all of them did.
+     */
+    private Mono<String> fannedOut(JobSearchKey key, List<JobSearchProvider> providers) {
+        List<Mono<Optional<String>>> calls = providers.stream()
+                .map(provider -> attempt(provider, key).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .toList();
+        // zip keeps provider order, so the merge follows priority order
+        return Mono.zip(calls, results -> {
+            List<String> responses = new ArrayList<>();
+            for (Object result : results) {
+                ((Optional<?>) result).ifPresent(json -> responses.add((String) json));
+            }
+            return responses;
+        })
+                .flatMap(responses -> {
+                    if (responses.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    try {
+                        return Mono.justOrEmpty(JobSearchMerger.merge(responses, windowSize));
+                    } catch (Exception e) {
+                        log.warn(" Failed to merge fanned-out job search for {}: {}", key, e.getMessage());
+                        return Mono.just(responses.get(0));
+                    }
+                });
+    }
 
-            if (dataArray.isArray()) {
-                for (JsonNode job : dataArray) {
-                    ObjectNode transformedJob = objectMapper.createObjectNode();
+    /**
+     * HEDGED REQUEST: start the fallbacks after the hedge delay, or
+     * immediately if the primary fails first. The first non-empty result wins.
+     */
+    private Mono<String> hedged(JobSearchKey key, JobSearchProvider primaryProvider, Mono<String> primaryCall,
+            Mono<String> fallbacks) {
+        Duration hedgeDelay = providerGuard.hedgeDelay(primaryProvider.getName(), hedgePercentile,
+                hedgeDefaultDelay, hedgeMinDelay);
+        return ProviderGuard.hedged(primaryCall, fallbacks, hedgeDelay,
+                () -> log.info(" Hedging job search after {}ms for: {}", hedgeDelay.toMillis(), key.getQuery()));
+    }
 
-                    // Map TheirStack fields to JSearch format
-                    transformedJob.put("job_id", job.path("id").asText());
-                    transformedJob.put("job_title", job.path("job_title").asText());
+    /**
+     * One provider call with its deadline, circuit breaker and API budget.
+     * Completes empty on any failure so the caller moves on to the next
+     * provider.
+     */
+    private Mono<String> attempt(JobSearchProvider provider, JobSearchKey key) {
+        String name = provider.getName();
+        return providerGuard.guard(name, name, Mono.defer(() -> {
+            log.info(" Trying {} for: {}", name, key.getQuery());
+            return provider.search(key, windowSize);
+        }).timeout(provider.getTimeout()))
+                .filter(result -> !result.isEmpty())
+                .doOnNext(result -> recordServed(name))
+                .onErrorResume(ProviderGuard.CircuitOpenException.class, e -> {
+                    log.warn(" {} circuit is open, skipping", name);
+                    return Mono.empty();
+                })
+                .onErrorResume(ProviderGuard.BudgetExhaustedException.class, e -> {
+                    log.warn(" {} is over its API budget, skipping", name);
+                    return Mono.empty();
+                })
+                .onErrorResume(WebClientResponseException.TooManyRequests.class, e -> {
+                    // 429 = Rate limited (too many requests)
+                    log.warn(" {} rate limited", name);
+                    backOff(name, e);
+                    return Mono.empty();
+                })
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn(" {} timed out after {}ms", name, provider.getTimeout().toMillis());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    // Any other error - network, 500, etc.
+                    log.warn(" {} failed: {}", name, e.getMessage());
+                    return Mono.empty();
+                });
+    }
 
-                    // Company info
-                    String company = job.path("company").asText();
-                    if (company.isEmpty() && job.has("company_object")) {
-                        company = job.path("company_object").path("name").asText();
-                    }
-                    transformedJob.put("employer_name", company);
+    /**
+     * A 429 means every call until Retry-After will fail too: pause the
+     * provider's budget and hold its circuit open for that long.
+     */
+    private void backOff(String provider, WebClientResponseException e) {
+        Duration retryAfter = apiBudget.retryAfter(e.getHeaders());
+        apiBudget.backOff(provider, retryAfter);
+        providerGuard.breaker(provider).tripFor(retryAfter);
+    }
 
-                    // Company logo
-                    if (job.has("company_object") && job.path("company_object").has("logo")) {
-                        transformedJob.put("employer_logo", job.path("company_object").path("logo").asText());
-                    } else {
-                        transformedJob.putNull("employer_logo");
-                    }
+    private void recordServed(String provider) {
+        servedCounts.computeIfAbsent(provider, p -> new AtomicLong()).incrementAndGet();
+        lastServedBy = provider;
+    }
 
-                    // Location
-                    String jobLocation = job.path("job_location").asText("");
-                    String[] locationParts = jobLocation.split(",");
-                    transformedJob.put("job_city", locationParts.length > 0 ? locationParts[0].trim() : "");
-                    transformedJob.put("job_state", locationParts.length > 1 ? locationParts[1].trim() : "");
-                    transformedJob.put("job_country", job.path("job_country_code").asText("US"));
-
-                    // Employment type
-                    String commitment = job.path("commitment").asText("full_time");
-                    String employmentType = switch (commitment.toLowerCase()) {
-                        case "full_time" -> "FULLTIME";
-                        case "part_time" -> "PARTTIME";
-                        case "internship", "intern" -> "INTERN";
-                        case "contract", "contractor" -> "CONTRACTOR";
-                        default -> "FULLTIME";
-                    };
-                    transformedJob.put("job_employment_type", employmentType);
-
-                    // Date posted
-                    String datePosted = job.path("date_posted").asText();
-                    if (!datePosted.isEmpty()) {
-                        transformedJob.put("job_posted_at_datetime_utc", datePosted + "T00:00:00.000Z");
-                    } else {
-                        transformedJob.put("job_posted_at_datetime_utc", "");
-                    }
+    /**
+     * Provider health for ops: circuit state, recent error/slow-call rates and
+     * which provider most recently served a search.
+     */
+    public Map<String, Object> getProviderHealth() {
+        Map<String, Object> providers = new LinkedHashMap<>();
+        for (JobSearchProvider provider : providerRegistry.getProviders()) {
+            providers.put(provider.getName(), providerHealth(provider));
+        }
 
-                    // Description
-                    transformedJob.put("job_description", job.path("description").asText(""));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("providers", providers);
+        result.put("mode", fanOutEnabled ? "fan-out" : "fallback");
+        result.put("lastServedBy", lastServedBy);
+        return result;
+    }
 
-                    // Apply link
-                    String url = job.path("url").asText();
-                    if (url.isEmpty()) {
-                        url = job.path("final_url").asText();
-                    }
-                    transformedJob.put("job_apply_link", url);
-
-                    // Salary
-                    transformedJob.putNull("job_min_salary");
-                    transformedJob.putNull("job_max_salary");
-                    transformedJob.putNull("job_salary_currency");
-                    transformedJob.putNull("job_salary_period");
-
-                    // Remote
-                    boolean isRemote = jobLocation.toLowerCase().contains("remote");
-                    transformedJob.put("job_is_remote", isRemote);
-
-                    // Skills
-                    if (job.has("technology_slugs") && job.path("technology_slugs").isArray()) {
-                        ArrayNode skills = objectMapper.createArrayNode();
-                        for (JsonNode tech : job.path("technology_slugs")) {
-                            skills.add(tech.asText());
-                        }
-                        transformedJob.set("job_required_skills", skills);
-                    } else {
-                        transformedJob.putNull("job_required_skills");
-                    }
+    private Map<String, Object> providerHealth(JobSearchProvider provider) {
+        CircuitBreaker.Snapshot snapshot = providerGuard.breaker(provider.getName()).snapshot();
+        Duration p90 = providerGuard.latency(provider.getName()).percentile(0.9);
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("configured", provider.isConfigured());
+        health.put("state", snapshot.state().name());
+        health.put("failureRate", snapshot.failureRate());
+        health.put("slowCallRate", snapshot.slowCallRate());
+        health.put("bufferedCalls", snapshot.bufferedCalls());
+        health.put("openUntil", snapshot.openUntil());
+        health.put("served", servedCounts.getOrDefault(provider.getName(), new AtomicLong()).get());
+        if (p90 != null) {
+            health.put("p90LatencyMs", p90.toMillis());
+        }
+        return health;
+    }
 
-                    // Experience
-                    ObjectNode experience = objectMapper.createObjectNode();
-                    experience.put("no_experience_required", false);
-                    experience.putNull("required_experience_in_months");
-                    transformedJob.set("job_required_experience", experience);
+    /**
+     * Look up a cache entry in L1, then L2. An L2 hit is assembled from the
+     * shared postings and promoted to L1 with the same expiry as the Mongo
+     * document so both tiers age out together. A Mongo failure, or an entry
+     * whose postings are gone, is treated as a miss rather than failing the
+     * search.
+     */
+    private Mono<JobSearchWindow> findCached(JobSearchKey key) {
+        JobSearchWindow cached = l1Cache.get(key.hash());
+        if (cached != null) {
+            log.debug(" L1 cache hit for: {}", key);
+            return Mono.just(cached);
+        }
 
-                    jobsArray.add(transformedJob);
-                }
-            }
+        return Mono.fromCallable(() -> loadFromStore(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(stored -> {
+                    log.info(" Returning cached job search results for: {}", key);
+                    l1Cache.put(key.hash(), stored, stored.getEntry().getExpireAt());
+                })
+                .onErrorResume(e -> {
+                    log.warn(" Job search cache lookup failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
 
-            result.set("data", jobsArray);
-            return objectMapper.writeValueAsString(result);
+    /**
+     * Blocking L2 read: the cache entry plus its postings. Returns null (no
+     * value) on a miss.
+     */
+    private JobSearchWindow loadFromStore(JobSearchKey key) {
+        JobSearchCache entry = jobSearchRepository.findById(key.hash()).orElse(null);
+        if (entry == null || !entry.hasPayload()) {
+            return null;
+        }
+        Map<String, JobPostingStore.StoredPosting> postings = jobPostingStore.findPostings(entry.getJobIds());
+        if (!postings.keySet().containsAll(entry.getJobIds())) {
+            log.warn(" Cached job search references missing postings, refetching: {}", key);
+            return null;
+        }
+        return new JobSearchWindow(entry, entry.getEnvelopeJson(), entry.getJobIds(), postings,
+                entry.getJobIds().size() >= windowSize);
+    }
 
+    /**
+     * Split a fresh provider response into postings and an id list and cache
+     * it as a window. Pages are cut from the same window whether it was just
+     * fetched or read back from the store, so fresh and cached answers are
+     * identical. A response that cannot be parsed counts as a failed fetch.
+     */
+    private Mono<JobSearchWindow> cacheFetched(JobSearchKey key, String json) {
+        JobPostingStore.NormalizedResult normalized;
+        try {
+            normalized = jobPostingStore.normalize(json);
         } catch (Exception e) {
-            log.error("Error transforming TheirStack response", e);
-            return "{\"status\":\"OK\",\"data\":[]}";
+            log.warn(" Discarding unparseable job search response for {}: {}", key, e.getMessage());
+            return Mono.empty();
         }
+        Instant freshUntil = Instant.now().plus(freshTtl);
+        JobSearchCache entry = new JobSearchCache(key.hash(), key.canonical(), normalized.envelopeJson(),
+                normalized.jobIds(), freshUntil, freshUntil.plus(maxStale));
+        JobSearchWindow window = new JobSearchWindow(entry, normalized.envelopeJson(), normalized.jobIds(),
+                normalized.stored(), normalized.jobIds().size() >= windowSize);
+        return cache(window, normalized).thenReturn(window);
+    }
+
+    /**
+     * Write-through: keep a copy in L1 and persist to Mongo. Postings are
+     * written before the entry that references them. A failed Mongo write is
+     * logged, not propagated - the user still gets their results.
+     */
+    private Mono<Void> cache(JobSearchWindow window, JobPostingStore.NormalizedResult normalized) {
+        JobSearchCache entry = window.getEntry();
+        l1Cache.put(entry.getId(), window, entry.getExpireAt());
+        return Mono.fromRunnable(() -> {
+                    jobPostingStore.save(normalized, entry.getExpireAt());
+                    jobSearchRepository.save(entry);
+                })
+                // Index even if the Mongo write failed - a local answer that
+                // needs a missing posting falls through to upstream
+                .doFinally(signal -> localJobIndex.addAll(normalized.postings(), entry.getCreatedAt()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn(" Failed to write job search cache: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * L1 cache counters for the admin dashboard.
+     */
+    public Map<String, Object> getCacheStats() {
+        BoundedTtlCache.Stats stats = l1Cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", stats.size());
+        result.put("maxEntries", stats.maxEntries());
+        result.put("hits", stats.hits());
+        result.put("misses", stats.misses());
+        result.put("evictions", stats.evictions());
+        result.put("expirations", stats.expirations());
+        result.put("hitRatio", stats.hitRatio());
+        result.put("localIndex", localJobIndex.getStats());
+        result.put("popular", searchFrequency.getStats(20));
+        return result;
     }
 }
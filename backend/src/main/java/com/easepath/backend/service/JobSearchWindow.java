@@ -0,0 +1,100 @@
+package com.easepath.backend.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.easepath.backend.dto.JobSearchResult;
+import com.easepath.backend.model.JobSearchCache;
+import com.easepath.backend.service.JobPostingStore.StoredPosting;
+
+/**
+ * One upstream result window of a search - several pages fetched in a single
+ * call - from which individual pages are sliced.
+ *
+ * Each slice is assembled and compressed once and then reused, so paging
+ * through a cached window costs no upstream calls and, after the first
+ * request for a given page, no work at all.
+ */
+final class JobSearchWindow {
+
+    // Slices are memoized per (offset, page size); cap how many a window keeps
+    private static final int MAX_SLICES = 64;
+
+    private final JobSearchCache entry;
+    private final String envelopeJson;
+    private final List<String> jobIds;
+    private final Map<String, StoredPosting> postings;
+    private final boolean full;
+    private final Map<Long, JobSearchResult> slices = new ConcurrentHashMap<>();
+
+    /**
+     * @param entry    the persisted cache entry, or null for a window that is
+     *                 not cached (e.g. answered from the local index)
+     * @param postings compressed postings for every id in {@code jobIds}
+     * @param full     true if more results may follow this window: upstream
+     *                 filled it, or it is a local answer
+     */
+    JobSearchWindow(JobSearchCache entry, String envelopeJson, List<String> jobIds,
+            Map<String, StoredPosting> postings, boolean full) {
+        this.entry = entry;
+        this.envelopeJson = envelopeJson;
+        this.jobIds = jobIds;
+        this.postings = postings;
+        this.full = full;
+    }
+
+    JobSearchCache getEntry() {
+        return entry;
+    }
+
+    boolean isStale(Instant now) {
+        return entry != null && entry.isStale(now);
+    }
+
+    int size() {
+        return jobIds.size();
+    }
+
+    /**
+     * The page of up to {@code pageSize} results starting at absolute offset
+     * {@code offset}, where this window starts at {@code windowStart}. A page
+     * never crosses into the next window; it ends early instead and its
+     * next_cursor points at the next window. No cursor is handed out for
+     * offsets at or past {@code maxOffset}.
+     */
+    JobSearchResult slice(int windowStart, int offset, int pageSize, int maxOffset) {
+        int from = Math.max(0, offset - windowStart);
+        long sliceKey = ((long) from << 32) | pageSize;
+        JobSearchResult cached = slices.get(sliceKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        int to = Math.min(jobIds.size(), from + pageSize);
+        List<String> page = from < to ? jobIds.subList(from, to) : List.of();
+        Integer nextOffset = null;
+        if (to < jobIds.size()) {
+            nextOffset = windowStart + to;
+        } else if (full && to > from) {
+            // Only if the page made progress, so a short window (a local
+            // answer) asked past its end cannot hand back the same cursor
+            nextOffset = windowStart + jobIds.size();
+        }
+        if (nextOffset != null && nextOffset >= maxOffset) {
+            nextOffset = null;
+        }
+
+        String nextCursor = nextOffset == null ? "null" : "\"" + JobSearchCursor.encode(nextOffset) + "\"";
+        String envelope = envelopeJson.substring(0, envelopeJson.length() - 1)
+                + (envelopeJson.length() > 2 ? "," : "")
+                + "\"page_size\":" + pageSize + ",\"next_cursor\":" + nextCursor + "}";
+        JobSearchResult result = JobSearchResult.fromJson(
+                JobPostingStore.assemble(envelope, page, jobId -> postings.get(jobId).json()));
+        if (slices.size() < MAX_SLICES) {
+            slices.put(sliceKey, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,451 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-process inverted index over every job posting the service has fetched.
+ *
+ * Searches that miss the cache usually overlap with postings fetched a few
+ * minutes earlier under a different key ("java developer" vs "backend java
+ * engineer"). This index lets such a search be answered locally when enough
+ * fresh postings match, so the paid upstream call only happens when local
+ * coverage is thin.
+ *
+ * HOW IT WORKS:
+ * - Each posting gets an ordinal; per field (title, employer, location,
+ *   skills, description) every token maps to the list of ordinals containing
+ *   it. Lists are append-only int arrays, so adding a posting is O(tokens).
+ * - A query matches a posting when every query token appears in some field
+ *   and at least one appears in the title. Matches are ranked by field
+ *   weights, then by posting date.
+ * - Re-indexing a posting (a newer fetch) or evicting the oldest postings
+ *   beyond {@code maxPostings} leaves a dead ordinal behind; once dead
+ *   ordinals outnumber live ones the lists are compacted and renumbered.
+ *
+ * Only ids are held here - the posting JSON stays in job_postings.
+ */
+@Service
+public class LocalJobIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalJobIndex.class);
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "at", "for", "in", "of", "on", "or",
+            "the", "to", "with", "jobs", "job");
+
+    // A query matches with a bitmask per posting, so cap the terms used
+    private static final int MAX_QUERY_TERMS = 31;
+
+    private enum Field {
+        TITLE(3.0f), EMPLOYER(2.0f), LOCATION(1.5f), SKILLS(2.0f), DESCRIPTION(0.5f);
+
+        final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Field, Map<String, IntList>> postingLists = new EnumMap<>(Field.class);
+    // Indexed by ordinal; null once the posting was replaced or evicted
+    private final List<IndexedPosting> postings = new ArrayList<>();
+    private final Map<String, Integer> ordinalByJobId = new HashMap<>();
+    private int oldestLive;
+    private int liveCount;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong localAnswers = new AtomicLong();
+
+    private final JobPostingStore jobPostingStore;
+    private final int maxPostings;
+    private final Duration maxAge;
+
+    public LocalJobIndex(JobPostingStore jobPostingStore,
+            @Value("${easepath.jobsearch.local.max-postings:20000}") int maxPostings,
+            @Value("${easepath.jobsearch.local.max-age:6h}") Duration maxAge) {
+        this.jobPostingStore = jobPostingStore;
+        this.maxPostings = Math.max(1, maxPostings);
+        this.maxAge = maxAge;
+        for (Field field : Field.values()) {
+            postingLists.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Rebuild from job_postings after a restart so the index does not start
+     * cold. Only postings still young enough to be served are loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentPostings() {
+        Mono.fromRunnable(() -> {
+            Instant since = Instant.now().minus(maxAge);
+            int loaded = jobPostingStore.forEachUpdatedSince(since, maxPostings, 500, this::addAll);
+            log.info("Local job index loaded {} recent postings", loaded);
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Failed to load local job index: {}", e.getMessage()));
+    }
+
+    /**
+     * Index (or re-index) JSearch-format postings, keyed by job_id.
+     * {@code fetchedAt} is when they came from upstream; postings older than
+     * max-age are not used to answer searches.
+     */
+    public void addAll(Map<String, String> postingsById, Instant fetchedAt) {
+        List<Map<Field, Set<String>>> tokenized = new ArrayList<>(postingsById.size());
+        List<IndexedPosting> parsed = new ArrayList<>(postingsById.size());
+        // Parse and tokenize outside the lock
+        for (Map.Entry<String, String> entry : postingsById.entrySet()) {
+            try {
+                JsonNode job = objectMapper.readTree(entry.getValue());
+                tokenized.add(tokenize(job));
+                parsed.add(new IndexedPosting(entry.getKey(), fetchedAt, parsePostedAt(job),
+                        job.path("job_is_remote").asBoolean(false),
+                        job.path("job_employment_type").asText("").toUpperCase(Locale.ROOT)));
+            } catch (Exception e) {
+                log.debug("Skipping unindexable posting {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < parsed.size(); i++) {
+                add(parsed.get(i), tokenized.get(i));
+            }
+            evictOverflow();
+            if (postings.size() - liveCount > Math.max(1024, liveCount)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best local matches for a search, at most {@code limit}, skipping
+     * postings fetched longer than max-age ago. Returns an empty list if the
+     * search has filters the index cannot evaluate.
+     */
+    public List<String> search(JobSearchKey key, int limit) {
+        queries.incrementAndGet();
+        if (!key.getJobRequirements().isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = queryTerms(key.getQuery());
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        Instant indexedAfter = now.minus(maxAge);
+        Instant postedAfter = postedAfter(key.getDatePosted(), now);
+        Set<String> employmentTypes = key.getEmploymentTypes().isEmpty() ? Set.of()
+                : Set.of(key.getEmploymentTypes().split(","));
+
+        lock.readLock().lock();
+        try {
+            // Rarest term first: it seeds the candidate set, later terms can
+            // only narrow it
+            terms.sort(Comparator.comparingInt(this::documentFrequency));
+
+            Map<Integer, Candidate> candidates = new HashMap<>();
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                int bit = 1 << t;
+                for (Field field : Field.values()) {
+                    IntList list = postingLists.get(field).get(term);
+                    if (list == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < list.size; i++) {
+                        int ordinal = list.values[i];
+                        Candidate candidate = candidates.get(ordinal);
+                        if (candidate == null) {
+                            if (t > 0) {
+                                continue;
+                            }
+                            IndexedPosting posting = postings.get(ordinal);
+                            if (posting == null
+                                    || !matchesFilters(posting, key, indexedAfter, postedAfter, employmentTypes)) {
+                                continue;
+                            }
+                            candidate = new Candidate(posting);
+                            candidates.put(ordinal, candidate);
+                        }
+                        candidate.matched |= bit;
+                        candidate.score += field.weight;
+                        candidate.titleHit |= field == Field.TITLE;
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            int allTerms = (1 << terms.size()) - 1;
+            return candidates.values().stream()
+                    .filter(c -> c.matched == allTerms && c.titleHit)
+                    .sorted(Comparator.comparingDouble((Candidate c) -> c.score).reversed()
+                            .thenComparing(c -> c.posting.postedAt(),
+                                    Comparator.nullsLast(Comparator.reverseOrder())))
+                    .limit(limit)
+                    .map(c -> c.posting.jobId())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count a search that was answered from the index.
+     */
+    public void recordLocalAnswer() {
+        localAnswers.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("postings", liveCount);
+            stats.put("maxPostings", maxPostings);
+            stats.put("deadOrdinals", postings.size() - liveCount);
+            int terms = 0;
+            for (Map<String, IntList> lists : postingLists.values()) {
+                terms += lists.size();
+            }
+            stats.put("terms", terms);
+            stats.put("queries", queries.get());
+            stats.put("localAnswers", localAnswers.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(IndexedPosting posting, Map<Field, Set<String>> fieldTokens) {
+        Integer previous = ordinalByJobId.get(posting.jobId());
+        if (previous != null) {
+            remove(previous);
+        }
+        int ordinal = postings.size();
+        postings.add(posting);
+        ordinalByJobId.put(posting.jobId(), ordinal);
+        liveCount++;
+        fieldTokens.forEach((field, tokens) -> {
+            Map<String, IntList> lists = postingLists.get(field);
+            for (String token : tokens) {
+                lists.computeIfAbsent(token, t -> new IntList()).add(ordinal);
+            }
+        });
+    }
+
+    private void remove(int ordinal) {
+        if (postings.get(ordinal) != null) {
+            postings.set(ordinal, null);
+            liveCount--;
+        }
+    }
+
+    /**
+     * Oldest ordinals were indexed first, so evicting from the front drops the
+     * least recently fetched postings.
+     */
+    private void evictOverflow() {
+        while (liveCount > maxPostings && oldestLive < postings.size()) {
+            IndexedPosting posting = postings.get(oldestLive);
+            if (posting != null) {
+                ordinalByJobId.remove(posting.jobId());
+                remove(oldestLive);
+            }
+            oldestLive++;
+        }
+    }
+
+    /**
+     * Drop dead ordinals and renumber the live ones. Lists stay sorted because
+     * renumbering preserves order.
+     */
+    private void compact() {
+        int[] remap = new int[postings.size()];
+        List<IndexedPosting> live = new ArrayList<>(liveCount);
+        for (int ordinal = 0; ordinal < postings.size(); ordinal++) {
+            IndexedPosting posting = postings.get(ordinal);
+            if (posting == null) {
+                remap[ordinal] = -1;
+            } else {
+                remap[ordinal] = live.size();
+                ordinalByJobId.put(posting.jobId(), live.size());
+                live.add(posting);
+            }
+        }
+        for (Map<String, IntList> lists : postingLists.values()) {
+            lists.values().removeIf(list -> list.retainRemapped(remap) == 0);
+        }
+        postings.clear();
+        postings.addAll(live);
+        oldestLive = 0;
+        log.debug("Compacted local job index to {} postings", liveCount);
+    }
+
+    private int documentFrequency(String term) {
+        int total = 0;
+        for (Map<String, IntList> lists : postingLists.values()) {
+            IntList list = lists.get(term);
+            if (list != null) {
+                total += list.size;
+            }
+        }
+        return total;
+    }
+
+    private static boolean matchesFilters(IndexedPosting posting, JobSearchKey key, Instant indexedAfter,
+            Instant postedAfter, Set<String> employmentTypes) {
+        if (posting.indexedAt().isBefore(indexedAfter)) {
+            return false;
+        }
+        if (key.isRemoteJobsOnly() && !posting.remote()) {
+            return false;
+        }
+        if (!employmentTypes.isEmpty() && !employmentTypes.contains(posting.employmentType())) {
+            return false;
+        }
+        return postedAfter == null || (posting.postedAt() != null && posting.postedAt().isAfter(postedAfter));
+    }
+
+    private static Instant postedAfter(String datePosted, Instant now) {
+        return switch (datePosted) {
+            case "today" -> now.minus(Duration.ofDays(1));
+            case "3days" -> now.minus(Duration.ofDays(3));
+            case "week" -> now.minus(Duration.ofDays(7));
+            case "month" -> now.minus(Duration.ofDays(30));
+            default -> null;
+        };
+    }
+
+    private static Instant parsePostedAt(JsonNode job) {
+        String posted = job.path("job_posted_at_datetime_utc").asText("");
+        if (posted.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(posted);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Map<Field, Set<String>> tokenize(JsonNode job) {
+        Map<Field, Set<String>> tokens = new EnumMap<>(Field.class);
+        tokens.put(Field.TITLE, tokens(job.path("job_title").asText("")));
+        tokens.put(Field.EMPLOYER, tokens(job.path("employer_name").asText("")));
+        tokens.put(Field.LOCATION, tokens(job.path("job_city").asText("") + " " + job.path("job_state").asText("")
+                + " " + job.path("job_country").asText("") + (job.path("job_is_remote").asBoolean() ? " remote" : "")));
+        StringBuilder skills = new StringBuilder();
+        for (JsonNode skill : job.path("job_required_skills")) {
+            skills.append(skill.asText("")).append(' ');
+        }
+        tokens.put(Field.SKILLS, tokens(skills.toString()));
+        tokens.put(Field.DESCRIPTION, tokens(job.path("job_description").asText("")));
+        return tokens;
+    }
+
+    private static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>(tokens(query));
+        return terms.size() > MAX_QUERY_TERMS ? new ArrayList<>(terms.subList(0, MAX_QUERY_TERMS)) : terms;
+    }
+
+    /**
+     * Lower-cased alphanumeric tokens; '+' and '#' are kept so "c++" and "c#"
+     * stay distinct from "c".
+     */
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedPosting(String jobId, Instant indexedAt, Instant postedAt, boolean remote,
+            String employmentType) {
+    }
+
+    private static final class Candidate {
+        final IndexedPosting posting;
+        int matched;
+        float score;
+        boolean titleHit;
+
+        Candidate(IndexedPosting posting) {
+            this.posting = posting;
+        }
+    }
+
+    /**
+     * Growable int array - avoids boxing millions of ordinals.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Rewrite ordinals through {@code remap}, dropping dead ones (-1).
+         * Returns the new size.
+         */
+        int retainRemapped(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[values[i]];
+                if (mapped >= 0) {
+                    values[kept++] = mapped;
+                }
+            }
+            size = kept;
+            if (values.length > 16 && size < values.length / 4) {
+                values = Arrays.copyOf(values, Math.max(4, size * 2));
+            }
+            return size;
+        }
+    }
+}
@@ -4,8 +4,11 @@ import java.util.List;
 import java.util.Map;
 
 import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
+import com.easepath.backend.dto.EssayQuestion;
 import com.easepath.backend.model.UserProfileDocument;
 
+import reactor.core.publisher.Flux;
+
 /**
  * Service interface for OpenAI GPT-3.5-turbo integration.
  * Used for intelligent form field analysis and answer generation.
@@ -32,6 +35,28 @@ public interface OpenAIService {
                         String jobTitle,
                         String company);
 
+        /**
+         * Stream the answer generateAnswer would return, chunk by chunk as the
+         * AI produces it. Cancelling the subscription stops the generation.
+         */
+        Flux<String> streamAnswer(
+                        String question,
+                        UserProfileDocument profile,
+                        String jobTitle,
+                        String company);
+
+        /**
+         * Generate answers for all essay questions of a form in one AI call.
+         * The profile and job context are sent once for the whole form.
+         * Returns answers keyed by question id; a question the AI could not
+         * answer is missing from the map.
+         */
+        Map<String, String> generateAnswers(
+                        List<EssayQuestion> questions,
+                        UserProfileDocument profile,
+                        String jobTitle,
+                        String company);
+
         /**
          * Learn from a user's answer to improve future responses.
          * Stores the pattern for similar questions.
@@ -0,0 +1,86 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.util.TopKSketch;
+
+/**
+ * Tracks which job searches users actually run.
+ *
+ * Every search key (query, filters and result window) is counted in a
+ * bounded heavy-hitters sketch; the cache warmer refreshes the hottest keys
+ * before they go stale. Counts are halved every half-life so a query that
+ * was popular last week stops being warmed once nobody searches for it.
+ */
+@Service
+public class SearchFrequencyTracker {
+
+    // Count-Min dimensions: an estimate overcounts by at most e/width (~0.13%)
+    // of all searches counted, with probability 1 - e^-depth (~98%); 64KB of
+    // long counters
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int SKETCH_DEPTH = 4;
+
+    private final TopKSketch<JobSearchKey> sketch;
+    private final Duration halfLife;
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile Instant lastDecay = Instant.now();
+
+    public SearchFrequencyTracker(
+            @Value("${easepath.jobsearch.popularity.top-k:100}") int topK,
+            @Value("${easepath.jobsearch.popularity.half-life:6h}") Duration halfLife) {
+        this.sketch = new TopKSketch<>(Math.max(1, topK), SKETCH_WIDTH, SKETCH_DEPTH);
+        this.halfLife = halfLife;
+    }
+
+    public void record(JobSearchKey key) {
+        sketch.add(key);
+        recorded.incrementAndGet();
+    }
+
+    /**
+     * Up to {@code limit} of the most searched keys, most frequent first.
+     */
+    public List<TopKSketch.Entry<JobSearchKey>> top(int limit) {
+        List<TopKSketch.Entry<JobSearchKey>> top = sketch.top();
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * Halve the counts once per half-life. Called from the warmer's schedule.
+     */
+    public void decayIfDue() {
+        Instant now = Instant.now();
+        if (!now.isBefore(lastDecay.plus(halfLife))) {
+            sketch.decay();
+            lastDecay = now;
+        }
+    }
+
+    /**
+     * The current top searches for the admin dashboard.
+     */
+    public Map<String, Object> getStats(int limit) {
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (TopKSketch.Entry<JobSearchKey> entry : top(limit)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", entry.item().canonical());
+            item.put("count", entry.count());
+            top.add(item);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.get());
+        stats.put("lastDecay", lastDecay);
+        stats.put("top", top);
+        return stats;
+    }
+}
@@ -0,0 +1,300 @@
+package com.easepath.backend.service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberOutput;
+
+/**
+ * ADAPTER PATTERN - transforms a TheirStack response into JSearch format.
+ *
+ * Streams the TheirStack body token by token with Jackson's JsonParser and
+ * writes the JSearch shape straight to a JsonGenerator. Nothing but the
+ * current job's mapped fields is held in memory - no JsonNode tree of the
+ * input and no ObjectNode tree of the output - which matters because job
+ * descriptions are large.
+ *
+ * Output is byte-for-byte what the previous tree-based adapter produced,
+ * including its asText() conventions (missing -> "", null -> "null" unless a
+ * default applies, containers -> "").
+ */
+public final class TheirStackResponseAdapter {
+
+    public static final String EMPTY_RESPONSE = "{\"status\":\"OK\",\"data\":[]}";
+
+    private final JsonFactory jsonFactory;
+
+    public TheirStackResponseAdapter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @throws IOException if the body is not valid JSON
+     */
+    public String transform(String theirStackResponse) throws IOException {
+        if (theirStackResponse == null) {
+            throw new IOException("TheirStack response body is null");
+        }
+
+        // A later duplicate "data" field replaces an earlier one, as a tree
+        // parse would
+        StringWriter out = null;
+        try (JsonParser parser = jsonFactory.createParser(theirStackResponse)) {
+            JsonToken root = parser.nextToken();
+            if (root == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                        // The output is a subset of the body's fields, so sizing
+                        // the buffer to the body means it never has to grow
+                        out = new StringWriter(theirStackResponse.length());
+                        writeResponse(parser, out);
+                    } else {
+                        if ("data".equals(field)) {
+                            out = null;
+                        }
+                        parser.skipChildren();
+                    }
+                }
+            } else if (root != null) {
+                parser.skipChildren();
+            }
+        }
+        return out != null ? out.toString() : EMPTY_RESPONSE;
+    }
+
+    /**
+     * Writes the whole JSearch response, envelope included, with one
+     * generator. Parser is positioned on the START_ARRAY of "data".
+     */
+    private void writeResponse(JsonParser parser, StringWriter out) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("status", "OK");
+            gen.writeArrayFieldStart("data");
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Unexpected end of TheirStack response");
+                }
+                JobFields job = new JobFields();
+                if (token == JsonToken.START_OBJECT) {
+                    readJob(parser, job);
+                } else {
+                    parser.skipChildren();
+                }
+                writeJob(gen, job);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private void readJob(JsonParser parser, JobFields job) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> job.id = readValue(parser);
+                case "job_title" -> job.jobTitle = readValue(parser);
+                case "company" -> job.company = readValue(parser);
+                case "company_object" -> readCompanyObject(parser, job);
+                case "job_location" -> job.jobLocation = readValue(parser);
+                case "job_country_code" -> job.countryCode = readValue(parser);
+                case "commitment" -> job.commitment = readValue(parser);
+                case "date_posted" -> job.datePosted = readValue(parser);
+                case "description" -> job.description = readValue(parser);
+                case "url" -> job.url = readValue(parser);
+                case "final_url" -> job.finalUrl = readValue(parser);
+                case "technology_slugs" -> readSkills(parser, job);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readCompanyObject(JsonParser parser, JobFields job) throws IOException {
+        job.hasCompanyObject = true;
+        job.companyName = Value.MISSING;
+        job.companyLogo = null;
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("name".equals(field)) {
+                job.companyName = readValue(parser);
+            } else if ("logo".equals(field)) {
+                job.companyLogo = readValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readSkills(JsonParser parser, JobFields job) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            job.skills = null;
+            parser.skipChildren();
+            return;
+        }
+        List<String> skills = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            skills.add(readValue(parser).asText());
+        }
+        job.skills = skills;
+    }
+
+    private void writeJob(JsonGenerator gen, JobFields job) throws IOException {
+        gen.writeStartObject();
+
+        // Map TheirStack fields to JSearch format
+        gen.writeStringField("job_id", job.id.asText());
+        gen.writeStringField("job_title", job.jobTitle.asText());
+
+        // Company info
+        String company = job.company.asText();
+        if (company.isEmpty() && job.hasCompanyObject) {
+            company = job.companyName.asText();
+        }
+        gen.writeStringField("employer_name", company);
+
+        // Company logo
+        if (job.hasCompanyObject && job.companyLogo != null) {
+            gen.writeStringField("employer_logo", job.companyLogo.asText());
+        } else {
+            gen.writeNullField("employer_logo");
+        }
+
+        // Location
+        String jobLocation = job.jobLocation.asText("");
+        String[] locationParts = jobLocation.split(",");
+        gen.writeStringField("job_city", locationParts.length > 0 ? locationParts[0].trim() : "");
+        gen.writeStringField("job_state", locationParts.length > 1 ? locationParts[1].trim() : "");
+        gen.writeStringField("job_country", job.countryCode.asText("US"));
+
+        // Employment type
+        String employmentType = switch (job.commitment.asText("full_time").toLowerCase()) {
+            case "full_time" -> "FULLTIME";
+            case "part_time" -> "PARTTIME";
+            case "internship", "intern" -> "INTERN";
+            case "contract", "contractor" -> "CONTRACTOR";
+            default -> "FULLTIME";
+        };
+        gen.writeStringField("job_employment_type", employmentType);
+
+        // Date posted
+        String datePosted = job.datePosted.asText();
+        gen.writeStringField("job_posted_at_datetime_utc", datePosted.isEmpty() ? "" : datePosted + "T00:00:00.000Z");
+
+        // Description
+        gen.writeStringField("job_description", job.description.asText(""));
+
+        // Apply link
+        String url = job.url.asText();
+        if (url.isEmpty()) {
+            url = job.finalUrl.asText();
+        }
+        gen.writeStringField("job_apply_link", url);
+
+        // Salary
+        gen.writeNullField("job_min_salary");
+        gen.writeNullField("job_max_salary");
+        gen.writeNullField("job_salary_currency");
+        gen.writeNullField("job_salary_period");
+
+        // Remote
+        gen.writeBooleanField("job_is_remote", jobLocation.toLowerCase().contains("remote"));
+
+        // Skills
+        if (job.skills != null) {
+            gen.writeArrayFieldStart("job_required_skills");
+            for (String skill : job.skills) {
+                gen.writeString(skill);
+            }
+            gen.writeEndArray();
+        } else {
+            gen.writeNullField("job_required_skills");
+        }
+
+        // Experience
+        gen.writeObjectFieldStart("job_required_experience");
+        gen.writeBooleanField("no_experience_required", false);
+        gen.writeNullField("required_experience_in_months");
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+
+    /**
+     * Reads the current value and converts it the way JsonNode.asText()
+     * would. Containers are skipped.
+     */
+    private Value readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case VALUE_STRING:
+                return new Value(parser.getText(), false);
+            case VALUE_NUMBER_INT:
+                return new Value(parser.getNumberValue().toString(), false);
+            case VALUE_NUMBER_FLOAT:
+                return new Value(NumberOutput.toString(parser.getDoubleValue()), false);
+            case VALUE_TRUE:
+                return new Value("true", false);
+            case VALUE_FALSE:
+                return new Value("false", false);
+            case VALUE_NULL:
+                return Value.NULL;
+            default:
+                parser.skipChildren();
+                return Value.CONTAINER;
+        }
+    }
+
+    /**
+     * A scalar as JsonNode would render it. {@code useDefault} marks null and
+     * missing values, for which asText(default) returns the default.
+     */
+    private record Value(String text, boolean useDefault) {
+
+        static final Value MISSING = new Value("", true);
+        static final Value NULL = new Value("null", true);
+        static final Value CONTAINER = new Value("", false);
+
+        String asText() {
+            return text;
+        }
+
+        String asText(String defaultValue) {
+            return useDefault ? defaultValue : text;
+        }
+    }
+
+    /**
+     * The fields of one TheirStack job that the JSearch format needs.
+     */
+    private static final class JobFields {
+        Value id = Value.MISSING;
+        Value jobTitle = Value.MISSING;
+        Value company = Value.MISSING;
+        boolean hasCompanyObject;
+        Value companyName = Value.MISSING;
+        Value companyLogo;
+        Value jobLocation = Value.MISSING;
+        Value countryCode = Value.MISSING;
+        Value commitment = Value.MISSING;
+        Value datePosted = Value.MISSING;
+        Value description = Value.MISSING;
+        Value url = Value.MISSING;
+        Value finalUrl = Value.MISSING;
+        List<String> skills;
+    }
+}
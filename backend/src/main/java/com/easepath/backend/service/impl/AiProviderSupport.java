@@ -0,0 +1,61 @@
+package com.easepath.backend.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.easepath.backend.service.ApiBudget;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Response handling shared by the HTTP LLM providers.
+ */
+final class AiProviderSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(AiProviderSupport.class);
+
+    static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private AiProviderSupport() {
+    }
+
+    /**
+     * Error for a failed provider call; a 429 also backs the provider's
+     * budget off for the Retry-After period.
+     */
+    static Mono<? extends Throwable> apiError(ClientResponse response, ApiBudget apiBudget, String provider,
+            String name) {
+        if (response.statusCode().value() == 429) {
+            apiBudget.backOff(provider, apiBudget.retryAfter(response.headers().asHttpHeaders()));
+        }
+        return response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .flatMap(errorBody -> {
+                    log.error("{} API error: status={}, body={}", name, response.statusCode(), errorBody);
+                    return Mono.error(new RuntimeException(
+                            name + " API error " + response.statusCode() + ": " + errorBody));
+                });
+    }
+
+    /**
+     * Parse a response body or stream chunk.
+     */
+    static JsonNode readJson(ObjectMapper objectMapper, String data, String name) {
+        if (data == null) {
+            return objectMapper.missingNode();
+        }
+        try {
+            return objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unparseable " + name + " response: " + e.getMessage(), e);
+        }
+    }
+}
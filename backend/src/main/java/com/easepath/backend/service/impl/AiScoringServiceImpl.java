@@ -10,10 +10,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.easepath.backend.dto.AiScoreResult;
 import com.easepath.backend.dto.JobApplicationRequest;
 import com.easepath.backend.service.AiScoringService;
+import com.easepath.backend.service.ApiBudget;
 
 @Service
 public class AiScoringServiceImpl implements AiScoringService {
@@ -23,13 +25,15 @@ public class AiScoringServiceImpl implements AiScoringService {
     private final WebClient webClient;
     private final String apiKey;
     private final String scoreEndpoint;
+    private final ApiBudget apiBudget;
 
-    public AiScoringServiceImpl(WebClient.Builder webClientBuilder,
+    public AiScoringServiceImpl(WebClient.Builder webClientBuilder, ApiBudget apiBudget,
             @Value("${easepath.ai.api-key:}") String apiKey,
             @Value("${easepath.ai.score-endpoint:https://api.easepath.ai/v1/score}") String scoreEndpoint) {
         this.webClient = webClientBuilder.build();
         this.apiKey = apiKey;
         this.scoreEndpoint = scoreEndpoint;
+        this.apiBudget = apiBudget;
     }
 
     @Override
@@ -38,6 +42,10 @@ public class AiScoringServiceImpl implements AiScoringService {
             return heuristicScore(request, jobSnippet, "AI key not configured; heuristic score applied.");
         }
 
+        if (!apiBudget.tryAcquire(ApiBudget.AI_SCORE)) {
+            return heuristicScore(request, jobSnippet, "AI budget exhausted; heuristic score applied.");
+        }
+
         try {
             AiScoreResponse response = webClient.post()
                     .uri(scoreEndpoint)
@@ -53,6 +61,9 @@ public class AiScoringServiceImpl implements AiScoringService {
                 return new AiScoreResult(response.score(),
                         response.reasoning() != null ? response.reasoning() : "AI service responded successfully.");
             }
+        } catch (WebClientResponseException.TooManyRequests ex) {
+            LOGGER.warn("AI scoring service rate limited us");
+            apiBudget.backOff(ApiBudget.AI_SCORE, apiBudget.retryAfter(ex.getHeaders()));
         } catch (Exception ex) {
             LOGGER.warn("AI scoring service call failed: {}", ex.getMessage());
         }
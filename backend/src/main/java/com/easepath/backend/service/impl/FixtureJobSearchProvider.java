@@ -0,0 +1,132 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.service.JobSearchKey;
+import com.easepath.backend.service.JobSearchProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Offline provider for load tests: generates deterministic JSearch-format
+ * postings from the search key instead of calling the network.
+ *
+ * The same key always yields the same postings (ids, titles, employers), so
+ * caching, de-duplication and the local index behave as they would with real
+ * data. An optional artificial latency stands in for the upstream round trip.
+ * Only created when easepath.jobsearch.fixture.enabled=true; list "fixture"
+ * in easepath.jobsearch.providers to route searches to it.
+ */
+@Service
+@ConditionalOnProperty(name = "easepath.jobsearch.fixture.enabled", havingValue = "true")
+public class FixtureJobSearchProvider implements JobSearchProvider {
+
+    public static final String NAME = "fixture";
+
+    private static final String[] EMPLOYERS = { "Acme Corp", "Globex", "Initech", "Umbrella Labs", "Hooli",
+            "Stark Industries", "Wayne Enterprises", "Cyberdyne", "Soylent", "Tyrell" };
+    private static final String[] CITIES = { "New York", "San Francisco", "Austin", "Seattle", "Chicago",
+            "Boston", "Denver", "Atlanta" };
+    private static final String[] STATES = { "NY", "CA", "TX", "WA", "IL", "MA", "CO", "GA" };
+    private static final String[] LEVELS = { "", "Senior ", "Junior ", "Staff ", "Lead " };
+    private static final String[] EMPLOYMENT_TYPES = { "FULLTIME", "FULLTIME", "CONTRACTOR", "INTERN", "PARTTIME" };
+    private static final String[] SKILLS = { "Java", "Spring", "React", "TypeScript", "Python", "SQL", "AWS",
+            "Docker", "Kubernetes", "MongoDB" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int resultsPerQuery;
+    private final Duration latency;
+
+    public FixtureJobSearchProvider(
+            @Value("${easepath.jobsearch.fixture.results-per-query:100}") int resultsPerQuery,
+            @Value("${easepath.jobsearch.fixture.latency:0ms}") Duration latency) {
+        this.resultsPerQuery = Math.max(0, resultsPerQuery);
+        this.latency = latency;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return latency.plusSeconds(5);
+    }
+
+    @Override
+    public Mono<String> search(JobSearchKey key, int windowSize) {
+        Mono<String> response = Mono.fromCallable(() -> generate(key, windowSize));
+        return latency.isZero() ? response : Mono.delay(latency).then(response);
+    }
+
+    private String generate(JobSearchKey key, int windowSize) {
+        // Seed on everything but the window so windows continue one sequence
+        int seed = key.forWindow(0).hash().hashCode();
+        String title = key.getQuery().isEmpty() ? "Software Engineer" : capitalize(key.getQuery());
+        Instant postedBase = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("status", "OK");
+        ArrayNode data = root.putArray("data");
+        int start = key.getWindow() * windowSize;
+        int end = Math.min(resultsPerQuery, start + windowSize);
+        for (int i = start; i < end; i++) {
+            int n = Math.floorMod(seed + i * 31, 1 << 16);
+            int place = n % CITIES.length;
+            ObjectNode job = data.addObject();
+            job.put("job_id", "fixture-" + Integer.toHexString(seed) + "-" + i);
+            job.put("job_title", LEVELS[n % LEVELS.length] + title);
+            job.put("employer_name", EMPLOYERS[(n / 7) % EMPLOYERS.length]);
+            job.putNull("employer_logo");
+            job.put("job_city", key.isRemoteJobsOnly() ? "" : CITIES[place]);
+            job.put("job_state", key.isRemoteJobsOnly() ? "" : STATES[place]);
+            job.put("job_country", "US");
+            job.put("job_employment_type", EMPLOYMENT_TYPES[(n / 3) % EMPLOYMENT_TYPES.length]);
+            job.put("job_posted_at_datetime_utc", postedBase.minus(i % 7, ChronoUnit.DAYS).toString());
+            job.put("job_description", "Fixture posting " + i + " for \"" + title + "\". "
+                    + "Work with " + SKILLS[n % SKILLS.length] + " and " + SKILLS[(n / 11) % SKILLS.length]
+                    + " on a product team.");
+            job.put("job_apply_link", "https://example.com/jobs/" + i);
+            job.put("job_min_salary", 60000 + (n % 40) * 1000);
+            job.put("job_max_salary", 100000 + (n % 60) * 1000);
+            job.put("job_salary_currency", "USD");
+            job.put("job_salary_period", "YEAR");
+            job.put("job_is_remote", key.isRemoteJobsOnly() || n % 4 == 0);
+            ArrayNode skills = job.putArray("job_required_skills");
+            skills.add(SKILLS[n % SKILLS.length]).add(SKILLS[(n / 11) % SKILLS.length]);
+            ObjectNode experience = job.putObject("job_required_experience");
+            experience.put("no_experience_required", n % 5 == 0);
+            experience.put("required_experience_in_months", (n % 6) * 12);
+        }
+        return root.toString();
+    }
+
+    private static String capitalize(String query) {
+        StringBuilder sb = new StringBuilder(query.length());
+        for (String word : query.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.easepath.backend.service.AiOperation;
+import com.easepath.backend.service.AiProvider;
+import com.easepath.backend.service.AiTokenUsage;
+import com.easepath.backend.service.ApiBudget;
+import com.easepath.backend.util.JsonSchema;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Google Gemini (generateContent) - the primary AI provider.
+ */
+@Service
+public class GeminiProvider implements AiProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiProvider.class);
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiBudget apiBudget;
+    private final AiTokenUsage aiTokenUsage;
+    private final String apiKey;
+    private final String model;
+    private final String endpoint;
+    private final Duration timeout;
+
+    public GeminiProvider(WebClient.Builder webClientBuilder, ApiBudget apiBudget, AiTokenUsage aiTokenUsage,
+            @Value("${gemini.api-key:}") String apiKey,
+            @Value("${gemini.model:gemini-1.5-flash}") String model,
+            @Value("${gemini.endpoint:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}") String endpoint,
+            @Value("${easepath.ai.gemini.timeout:60s}") Duration timeout) {
+        this.webClient = webClientBuilder.build();
+        this.apiBudget = apiBudget;
+        this.aiTokenUsage = aiTokenUsage;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return ApiBudget.GEMINI;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty();
+    }
+
+    @Override
+    public String getModelId() {
+        return "gemini:" + model;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public Mono<String> generate(AiOperation operation, String prompt, JsonSchema schema) {
+        return Mono.defer(() -> {
+            String keyPrefix = apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : "short";
+            log.info("Calling Gemini API - model: {}, key prefix: {}", model, keyPrefix);
+
+            // Gemini uses API key as query parameter
+            return webClient.post()
+                    .uri(endpoint + "?key=" + apiKey)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .bodyValue(requestBody(prompt, schema))
+                    .retrieve()
+                    .onStatus(status -> status.isError(),
+                            response -> AiProviderSupport.apiError(response, apiBudget, ApiBudget.GEMINI, "Gemini"))
+                    .bodyToMono(String.class);
+        }).map(responseBody -> {
+            log.info("Gemini API response received");
+
+            // Parse Gemini response format
+            JsonNode root = AiProviderSupport.readJson(objectMapper, responseBody, "Gemini");
+            recordUsage(operation, prompt, root.path("usageMetadata"));
+            String text = root.path("candidates").path(0)
+                    .path("content").path("parts").path(0).path("text").asText("");
+            log.info("Extracted content length: {} chars", text.length());
+            return text;
+        });
+    }
+
+    /**
+     * streamGenerateContent with alt=sse, one element per chunk of text.
+     */
+    @Override
+    public Flux<String> stream(AiOperation operation, String prompt) {
+        log.info("Streaming from Gemini API - model: {}", model);
+
+        String url = endpoint.replace(":generateContent", ":streamGenerateContent")
+                + "?alt=sse&key=" + apiKey;
+        // Running totals; the last chunk carries the final counts
+        AtomicReference<JsonNode> usage = new AtomicReference<>(objectMapper.missingNode());
+
+        return webClient.post()
+                .uri(url)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody(prompt, null))
+                .retrieve()
+                .onStatus(status -> status.isError(),
+                        response -> AiProviderSupport.apiError(response, apiBudget, ApiBudget.GEMINI, "Gemini"))
+                .bodyToFlux(AiProviderSupport.SSE_EVENT)
+                // Each event is a partial GenerateContentResponse
+                .map(event -> AiProviderSupport.readJson(objectMapper, event.data(), "Gemini"))
+                .doOnNext(chunk -> {
+                    if (chunk.has("usageMetadata")) {
+                        usage.set(chunk.path("usageMetadata"));
+                    }
+                })
+                .map(chunk -> {
+                    StringBuilder text = new StringBuilder();
+                    for (JsonNode part : chunk.path("candidates").path(0).path("content").path("parts")) {
+                        text.append(part.path("text").asText(""));
+                    }
+                    return text.toString();
+                })
+                .filter(text -> !text.isEmpty())
+                .doFinally(signal -> recordUsage(operation, prompt, usage.get()));
+    }
+
+    private Map<String, Object> requestBody(String prompt, JsonSchema schema) {
+        // Gemini request format
+        Map<String, Object> requestBody = new HashMap<>();
+        List<Map<String, Object>> contents = new ArrayList<>();
+        Map<String, Object> content = new HashMap<>();
+        List<Map<String, String>> parts = new ArrayList<>();
+        parts.add(Map.of("text", prompt));
+        content.put("parts", parts);
+        contents.add(content);
+        requestBody.put("contents", contents);
+
+        // Generation config
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.3);
+        generationConfig.put("maxOutputTokens", 8000);
+        if (schema != null) {
+            generationConfig.put("responseMimeType", MediaType.APPLICATION_JSON_VALUE);
+            generationConfig.put("responseSchema", schema.gemini());
+        }
+        requestBody.put("generationConfig", generationConfig);
+        return requestBody;
+    }
+
+    /**
+     * Record the token counts of a response (usageMetadata).
+     */
+    private void recordUsage(AiOperation operation, String prompt, JsonNode usage) {
+        long promptTokens = usage.path("promptTokenCount").asLong(-1);
+        // Thinking models bill their thoughts as output tokens
+        long completionTokens = usage.has("candidatesTokenCount")
+                ? usage.path("candidatesTokenCount").asLong() + usage.path("thoughtsTokenCount").asLong(0)
+                : -1;
+        aiTokenUsage.record(operation, prompt, promptTokens, completionTokens);
+    }
+}
@@ -0,0 +1,93 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.easepath.backend.service.ApiBudget;
+import com.easepath.backend.service.JobSearchKey;
+import com.easepath.backend.service.JobSearchProvider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * JSearch (RapidAPI) - primary job search API. Already returns the JSearch
+ * format, so responses are passed through untouched.
+ */
+@Service
+public class JSearchProvider implements JobSearchProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JSearchProvider.class);
+
+    // JSearch returns 10 results per page
+    private static final int PAGE_RESULTS = 10;
+
+    private final WebClient jsearchClient;
+    private final String rapidApiKey;
+    private final String rapidApiHost;
+    private final Duration timeout;
+
+    public JSearchProvider(WebClient.Builder webClientBuilder,
+            @Value("${rapidapi.key:}") String rapidApiKey,
+            @Value("${rapidapi.host:jsearch.p.rapidapi.com}") String rapidApiHost,
+            @Value("${easepath.jobsearch.jsearch.timeout:8s}") Duration timeout) {
+        this.jsearchClient = webClientBuilder.clone().baseUrl("https://jsearch.p.rapidapi.com").build();
+        this.rapidApiKey = rapidApiKey;
+        this.rapidApiHost = rapidApiHost;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return ApiBudget.JSEARCH;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return rapidApiKey != null && !rapidApiKey.isEmpty();
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * One call fetches the whole result window: the window's pages are
+     * requested together with num_pages.
+     */
+    @Override
+    public Mono<String> search(JobSearchKey key, int windowSize) {
+        int windowPages = Math.max(1, windowSize / PAGE_RESULTS);
+
+        return jsearchClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/search")
+                            .queryParam("query", key.getQuery())
+                            .queryParam("page", key.getWindow() * windowPages + 1)
+                            .queryParam("num_pages", windowPages)
+                            .queryParam("date_posted", key.getDatePosted());
+
+                    if (key.isRemoteJobsOnly()) {
+                        uriBuilder.queryParam("remote_jobs_only", "true");
+                    }
+                    if (!key.getEmploymentTypes().isEmpty()) {
+                        uriBuilder.queryParam("employment_types", key.getEmploymentTypes());
+                    }
+                    if (!key.getJobRequirements().isEmpty()) {
+                        uriBuilder.queryParam("job_requirements", key.getJobRequirements());
+                    }
+
+                    return uriBuilder.build();
+                })
+                .header("X-RapidAPI-Key", rapidApiKey)
+                .header("X-RapidAPI-Host", rapidApiHost)
+                .retrieve()
+                .bodyToMono(String.class)
+                .doOnNext(response -> log.info(" JSearch returned results"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.easepath.backend.service.AiOperation;
+import com.easepath.backend.service.AiProvider;
+import com.easepath.backend.service.AiTokenUsage;
+import com.easepath.backend.service.ApiBudget;
+import com.easepath.backend.util.JsonSchema;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * OpenAI chat completions - the fallback AI provider.
+ */
+@Service
+public class OpenAIProvider implements AiProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAIProvider.class);
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiBudget apiBudget;
+    private final AiTokenUsage aiTokenUsage;
+    private final String apiKey;
+    private final String model;
+    private final String endpoint;
+    private final boolean jsonSchema;
+    private final Duration timeout;
+
+    public OpenAIProvider(WebClient.Builder webClientBuilder, ApiBudget apiBudget, AiTokenUsage aiTokenUsage,
+            @Value("${openai.api-key:}") String apiKey,
+            @Value("${openai.model:gpt-3.5-turbo}") String model,
+            @Value("${openai.endpoint:https://api.openai.com/v1/chat/completions}") String endpoint,
+            // Strict json_schema output needs gpt-4o-mini or newer; older models
+            // get plain JSON mode and the schema is only enforced locally
+            @Value("${openai.json-schema:false}") boolean jsonSchema,
+            @Value("${easepath.ai.openai.timeout:60s}") Duration timeout) {
+        this.webClient = webClientBuilder.build();
+        this.apiBudget = apiBudget;
+        this.aiTokenUsage = aiTokenUsage;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.endpoint = endpoint;
+        this.jsonSchema = jsonSchema;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return ApiBudget.OPENAI;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty() && !apiKey.equals("YOUR_API_KEY");
+    }
+
+    @Override
+    public String getModelId() {
+        return "openai:" + model;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public Mono<String> generate(AiOperation operation, String prompt, JsonSchema schema) {
+        return Mono.defer(() -> {
+            String keyPrefix = apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : "short";
+            log.info("Calling OpenAI API - endpoint: {}, model: {}, key prefix: {}", endpoint, model, keyPrefix);
+
+            return webClient.post()
+                    .uri(endpoint)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .bodyValue(requestBody(prompt, schema))
+                    .retrieve()
+                    .onStatus(status -> status.isError(),
+                            response -> AiProviderSupport.apiError(response, apiBudget, ApiBudget.OPENAI, "OpenAI"))
+                    .bodyToMono(String.class);
+        }).map(responseBody -> {
+            log.info("OpenAI API response received");
+
+            JsonNode root = AiProviderSupport.readJson(objectMapper, responseBody, "OpenAI");
+            recordUsage(operation, prompt, root.path("usage"));
+            String content = root.path("choices").path(0).path("message").path("content").asText("");
+            log.info("Extracted content length: {} chars", content.length());
+            return content;
+        });
+    }
+
+    /**
+     * Chat completion with stream=true, one element per content delta.
+     */
+    @Override
+    public Flux<String> stream(AiOperation operation, String prompt) {
+        log.info("Streaming from OpenAI API - model: {}", model);
+
+        Map<String, Object> requestBody = requestBody(prompt, null);
+        requestBody.put("stream", true);
+        // Adds a last chunk with the usage and no choices
+        requestBody.put("stream_options", Map.of("include_usage", true));
+        AtomicReference<JsonNode> usage = new AtomicReference<>(objectMapper.missingNode());
+
+        return webClient.post()
+                .uri(endpoint)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.isError(),
+                        response -> AiProviderSupport.apiError(response, apiBudget, ApiBudget.OPENAI, "OpenAI"))
+                .bodyToFlux(AiProviderSupport.SSE_EVENT)
+                .map(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .map(data -> AiProviderSupport.readJson(objectMapper, data, "OpenAI"))
+                .doOnNext(chunk -> {
+                    if (chunk.path("usage").isObject()) {
+                        usage.set(chunk.path("usage"));
+                    }
+                })
+                .map(chunk -> chunk.path("choices").path(0).path("delta").path("content").asText(""))
+                .filter(text -> !text.isEmpty())
+                .doFinally(signal -> recordUsage(operation, prompt, usage.get()));
+    }
+
+    private Map<String, Object> requestBody(String prompt, JsonSchema schema) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "user", "content", prompt));
+        requestBody.put("messages", messages);
+        requestBody.put("temperature", 0.3);
+        requestBody.put("max_tokens", 1000);
+        if (schema != null && jsonSchema) {
+            requestBody.put("response_format", Map.of("type", "json_schema",
+                    "json_schema", Map.of("name", schema.name(), "strict", true, "schema", schema.openAI())));
+        } else if (schema != null) {
+            requestBody.put("response_format", Map.of("type", "json_object"));
+        }
+        return requestBody;
+    }
+
+    /**
+     * Record the token counts of a response (usage).
+     */
+    private void recordUsage(AiOperation operation, String prompt, JsonNode usage) {
+        aiTokenUsage.record(operation, prompt, usage.path("prompt_tokens").asLong(-1),
+                usage.path("completion_tokens").asLong(-1));
+    }
+}
@@ -1,71 +1,149 @@
 package com.easepath.backend.service.impl;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
+import com.easepath.backend.dto.EssayQuestion;
+import com.easepath.backend.dto.ParsedResume;
+import com.easepath.backend.dto.ResumeScore;
 import com.easepath.backend.model.UserProfileDocument;
+import com.easepath.backend.service.AiGateway;
+import com.easepath.backend.service.AiOperation;
+import com.easepath.backend.service.AiProviderRouter;
+import com.easepath.backend.service.AiResponseCache;
 import com.easepath.backend.service.OpenAIService;
+import com.easepath.backend.util.JsonRepair;
+import com.easepath.backend.util.JsonSchema;
+import com.easepath.backend.util.PromptBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
- * OpenAI GPT-3.5-turbo implementation for intelligent form analysis.
+ * AI features for form analysis: field mapping, essay answers, resume
+ * scoring and parsing.
+ *
+ * Despite the name, no provider is hard-wired. Every completion goes through
+ * AiProviderRouter, which picks the provider (Gemini, OpenAI, ... in the
+ * order of easepath.ai.providers), fails over and hedges. Each call:
+ * - is answered from AiResponseCache when the same prompt was seen before
+ * - otherwise holds an AiGateway permit for its operation while it runs
+ *
+ * Field mapping and resume prompts are built within a token budget
+ * (PromptBuilder). Resume scoring and parsing declare a JsonSchema for the
+ * reply, and JSON replies are extracted with JsonRepair.
+ *
+ * Essays come in three shapes: one answer (generateAnswer), one answer
+ * streamed as it is written (streamAnswer, sharing the cache entry), and a
+ * whole form in one batch call (generateAnswers) whose missing answers are
+ * retried in parallel until the batch deadline. When no provider is
+ * configured or a call fails, field mapping and resume scoring fall back to
+ * heuristics; essays and resume parsing come back empty.
  */
 @Service
 public class OpenAIServiceImpl implements OpenAIService {
 
     private static final Logger log = LoggerFactory.getLogger(OpenAIServiceImpl.class);
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    // Profile attributes that go into the field mapping prompt only when a
+    // form field (id, name, label, placeholder or type) mentions them
+    private static final Map<String, Pattern> PROFILE_FIELD_HINTS = Map.ofEntries(
+            Map.entry("linkedInUrl", fieldHint("linkedin")),
+            Map.entry("githubUrl", fieldHint("github")),
+            Map.entry("address", fieldHint("address|street")),
+            Map.entry("city", fieldHint("city|town|location")),
+            Map.entry("state", fieldHint("state|province|region|location")),
+            Map.entry("zipCode", fieldHint("zip|postal")),
+            Map.entry("country", fieldHint("country|nation|location")),
+            Map.entry("isUsCitizen", fieldHint("citizen")),
+            Map.entry("requiresSponsorship", fieldHint("sponsor|visa")),
+            Map.entry("workAuthorization", fieldHint("authori[sz]|eligib|legally|permit|visa")),
+            Map.entry("willingToRelocate", fieldHint("relocat")),
+            Map.entry("desiredSalary", fieldHint("salary|compensation|pay|expect")),
+            Map.entry("yearsOfExperience", fieldHint("experience|years")),
+            Map.entry("highestDegree", fieldHint("degree|education")),
+            Map.entry("university", fieldHint("universit|school|college|institution|education")),
+            Map.entry("major", fieldHint("major|discipline|field of study|concentration")),
+            Map.entry("graduationYear", fieldHint("graduat")),
+            Map.entry("veteranStatus", fieldHint("veteran|military")),
+            Map.entry("disabilityStatus", fieldHint("disab")),
+            Map.entry("gender", fieldHint("gender|sex|pronoun")),
+            Map.entry("ethnicity", fieldHint("ethnic|race|hispanic|latin")),
+            Map.entry("availableStartDate", fieldHint("start|availab|notice")));
+
+    private static final int MAX_FIELD_ATTRIBUTE_LENGTH = 200;
+
+    // Resume lines that carry nothing for scoring or parsing
+    private static final Pattern RESUME_BOILERPLATE = Pattern.compile(
+            "(?i)(page \\d+( of \\d+)?|-? ?\\d{1,2} ?-?|references (are )?available (up)?on request\\.?"
+                    + "|curriculum vitae|resum[eé])");
+
+    // Declared response schemas; replies are parsed straight into these types
+    private static final JsonSchema RESUME_SCORE_SCHEMA = JsonSchema.of(ResumeScore.class);
+    private static final JsonSchema PARSED_RESUME_SCHEMA = JsonSchema.of(ParsedResume.class);
 
-    // Gemini configuration (primary)
-    @Value("${gemini.api-key:}")
-    private String geminiApiKey;
+    private final ObjectMapper objectMapper;
+    private final AiResponseCache aiResponseCache;
+    private final AiGateway aiGateway;
+    private final AiProviderRouter aiProviderRouter;
 
-    @Value("${gemini.model:gemini-1.5-flash}")
-    private String geminiModel;
+    // Prompt size budgets in estimated tokens (PromptBuilder)
+    @Value("${easepath.ai.field-mapping.prompt-token-budget:2000}")
+    private int fieldMappingTokenBudget;
 
-    @Value("${gemini.endpoint:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}")
-    private String geminiEndpoint;
+    @Value("${easepath.ai.resume-score.prompt-token-budget:1000}")
+    private int resumeScoreTokenBudget;
 
-    // OpenAI configuration (*Down for Now*)
-    @Value("${openai.api-key:}")
-    private String openaiApiKey;
+    @Value("${easepath.ai.resume-parse.prompt-token-budget:2000}")
+    private int resumeParseTokenBudget;
 
-    @Value("${openai.model:gpt-3.5-turbo}")
-    private String openaiModel;
+    // Essay batches: questions the batch reply missed are retried in
+    // parallel, and whatever is not answered by the deadline is left to the
+    // extension, which stops waiting at 45s
+    @Value("${easepath.ai.essay.batch-deadline:35s}")
+    private Duration essayBatchDeadline;
 
-    @Value("${openai.endpoint:https://api.openai.com/v1/chat/completions}")
-    private String openaiEndpoint;
+    @Value("${easepath.ai.essay.fallback-concurrency:3}")
+    private int essayFallbackConcurrency;
 
-    public OpenAIServiceImpl(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public OpenAIServiceImpl(AiResponseCache aiResponseCache, AiGateway aiGateway,
+            AiProviderRouter aiProviderRouter) {
         this.objectMapper = new ObjectMapper();
+        this.aiResponseCache = aiResponseCache;
+        this.aiGateway = aiGateway;
+        this.aiProviderRouter = aiProviderRouter;
     }
 
     @Override
     public boolean isAvailable() {
-        return isGeminiAvailable() || isOpenAIAvailable();
+        return aiProviderRouter.isAvailable();
     }
 
-    private boolean isGeminiAvailable() {
-        return geminiApiKey != null && !geminiApiKey.isEmpty();
+    private static Pattern fieldHint(String regex) {
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
     }
 
-    private boolean isOpenAIAvailable() {
-        return openaiApiKey != null && !openaiApiKey.isEmpty() && !openaiApiKey.equals("YOUR_API_KEY");
+    /**
+     * Configured models in the order callAI tries them.
+     */
+    private List<String> candidateModels() {
+        return aiProviderRouter.candidateModels();
     }
 
     @Override
@@ -86,10 +164,15 @@ public class OpenAIServiceImpl implements OpenAIService {
             String prompt = buildMappingPrompt(fields, profile);
 
             // Call OpenAI API
-            String response = callAI(prompt);
+            String response = callAI(AiOperation.FIELD_MAPPING, prompt);
 
             // Parse the response
-            mapping = parseFieldMappingResponse(response, fields, profile);
+            mapping = parseFieldMappingResponse(response);
+            if (mapping == null) {
+                // Don't serve the unparseable answer again from the cache
+                aiResponseCache.evict(candidateModels(), prompt);
+                return fallbackMapping(fields, profile);
+            }
 
             log.info("OpenAI mapped {} fields for platform {}", mapping.size(), platformName);
 
@@ -109,40 +192,205 @@ public class OpenAIServiceImpl implements OpenAIService {
         }
 
         try {
-            String prompt = String.format("""
-                    You are helping a job applicant answer application questions.
+            return callAI(AiOperation.ESSAY, buildEssayPrompt(question, profile, jobTitle, company));
+        } catch (Exception e) {
+            log.error("Failed to generate answer: {}", e.getMessage());
+            return null;
+        }
+    }
 
-                    Applicant Profile:
-                    - Name: %s %s
-                    - Experience: %s years
-                    - Desired Role: %s
-                    - Education: %s in %s from %s
+    /**
+     * Streams the same answer generateAnswer returns, so both share cache
+     * entries: a cached answer is emitted as one chunk, otherwise the
+     * provider's streaming API is used and the full answer is cached once the
+     * stream completes. Cancelling the subscription closes the upstream
+     * connection, which stops the generation; a cancelled answer is not cached.
+     * The gateway permit is held until the stream ends or is cancelled.
+     */
+    @Override
+    public Flux<String> streamAnswer(String question, UserProfileDocument profile,
+            String jobTitle, String company) {
+        String prompt = buildEssayPrompt(question, profile, jobTitle, company);
+        return Flux.defer(() -> {
+            String cached = aiResponseCache.get(AiOperation.ESSAY, candidateModels(), prompt);
+            if (cached != null) {
+                return Flux.just(cached);
+            }
+            return Flux.using(() -> aiGateway.acquire(AiOperation.ESSAY),
+                    permit -> cacheWhenComplete(aiProviderRouter.stream(AiOperation.ESSAY, prompt), prompt),
+                    AiGateway.Permit::close);
+        })
+                // The cache lookup and waiting for a gateway slot both block
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<String> cacheWhenComplete(Flux<AiProviderRouter.Reply> chunks, String prompt) {
+        StringBuilder answer = new StringBuilder();
+        AtomicReference<String> model = new AtomicReference<>();
+        return chunks
+                .doOnNext(chunk -> {
+                    answer.append(chunk.text());
+                    model.set(chunk.modelId());
+                })
+                .map(AiProviderRouter.Reply::text)
+                .doOnComplete(() -> {
+                    if (answer.length() > 0) {
+                        // Called on the HTTP client's event loop; the Mongo write blocks
+                        Schedulers.boundedElastic().schedule(() -> aiResponseCache.put(
+                                AiOperation.ESSAY, model.get(), prompt, answer.toString()));
+                    }
+                });
+    }
+
+    private String buildEssayPrompt(String question, UserProfileDocument profile,
+            String jobTitle, String company) {
+        return String.format("""
+                You are helping a job applicant answer application questions.
+
+                Applicant Profile:
+                - Name: %s %s
+                - Experience: %s years
+                - Desired Role: %s
+                - Education: %s in %s from %s
+
+                Job Details:
+                - Position: %s
+                - Company: %s
+
+                Question: %s
+
+                Write a professional, concise answer (2-3 sentences) that:
+                1. Is specific and authentic
+                2. Highlights relevant experience
+                3. Shows enthusiasm for the role
+
+                Answer:""",
+                profile.getFirstName(), profile.getLastName(),
+                profile.getYearsOfExperience(),
+                profile.getDesiredJobTitle(),
+                profile.getHighestDegree(), profile.getMajor(), profile.getUniversity(),
+                jobTitle != null ? jobTitle : "the position",
+                company != null ? company : "the company",
+                question);
+    }
 
-                    Job Details:
-                    - Position: %s
-                    - Company: %s
+    /**
+     * One structured prompt for the whole form: profile and job context once,
+     * then every question with its id and length limit, answered as a JSON
+     * object keyed by id. Questions missing from the reply are retried one
+     * per call, a few at a time, until the batch deadline; answers still
+     * missing then are left out.
+     */
+    @Override
+    public Map<String, String> generateAnswers(List<EssayQuestion> questions, UserProfileDocument profile,
+            String jobTitle, String company) {
+        Map<String, String> answers = new LinkedHashMap<>();
+        if (!isAvailable() || questions.isEmpty()) {
+            return answers;
+        }
+        long deadline = System.nanoTime() + essayBatchDeadline.toNanos();
 
-                    Question: %s
+        String prompt = buildEssayBatchPrompt(questions, profile, jobTitle, company);
+        try {
+            String response = callAI(AiOperation.ESSAY, prompt);
+            JsonNode parsed = objectMapper.readTree(extractJson(response));
+            JsonNode byId = parsed.has("answers") ? parsed.path("answers") : parsed;
+            for (EssayQuestion question : questions) {
+                String answer = getTextOrNull(byId, question.id());
+                if (answer != null && !answer.isBlank()) {
+                    answers.put(question.id(), answer.trim());
+                }
+            }
+            log.info("Generated {}/{} essay answers in one AI call", answers.size(), questions.size());
+        } catch (Exception e) {
+            log.error("Batch essay generation failed: {}", e.getMessage());
+            aiResponseCache.evict(candidateModels(), prompt);
+        }
+
+        List<EssayQuestion> missing = questions.stream()
+                .filter(question -> !answers.containsKey(question.id()))
+                .toList();
+        Duration remaining = Duration.ofNanos(deadline - System.nanoTime());
+        if (!missing.isEmpty() && remaining.isPositive()) {
+            // Calls still running at the deadline are cancelled, which
+            // interrupts their thread and aborts the upstream request
+            Flux.fromIterable(missing)
+                    .flatMap(question -> Mono.fromCallable(
+                            () -> generateAnswer(question.question(), profile, jobTitle, company))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .filter(answer -> !answer.isBlank())
+                            .map(answer -> Map.entry(question.id(), answer)), essayFallbackConcurrency)
+                    .take(remaining)
+                    .doOnNext(answer -> answers.put(answer.getKey(), answer.getValue()))
+                    .blockLast();
+        }
+        if (answers.size() < questions.size()) {
+            log.warn("Answered {}/{} essay questions by the batch deadline", answers.size(), questions.size());
+        }
+        return answers;
+    }
 
-                    Write a professional, concise answer (2-3 sentences) that:
-                    1. Is specific and authentic
-                    2. Highlights relevant experience
-                    3. Shows enthusiasm for the role
+    private String buildEssayBatchPrompt(List<EssayQuestion> questions, UserProfileDocument profile,
+            String jobTitle, String company) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("You are helping a job applicant answer the free-text questions of one application form.\n\n");
+
+        sb.append("Applicant Profile:\n");
+        sb.append("- Name: ").append(profile.getFirstName()).append(" ").append(profile.getLastName()).append("\n");
+        sb.append("- Experience: ").append(profile.getYearsOfExperience()).append(" years\n");
+        sb.append("- Desired Role: ").append(profile.getDesiredJobTitle()).append("\n");
+        sb.append("- Education: ").append(profile.getHighestDegree()).append(" in ").append(profile.getMajor())
+                .append(" from ").append(profile.getUniversity()).append("\n\n");
+
+        sb.append("Job Details:\n");
+        sb.append("- Position: ").append(jobTitle != null ? jobTitle : "the position").append("\n");
+        sb.append("- Company: ").append(company != null ? company : "the company").append("\n\n");
+
+        sb.append("Questions:\n");
+        for (EssayQuestion question : questions) {
+            sb.append("- id=\"").append(question.id()).append("\"");
+            if (question.maxLength() > 0) {
+                sb.append(" (at most ").append(question.maxLength()).append(" characters)");
+            }
+            sb.append(": ").append(question.question()).append("\n");
+        }
 
-                    Answer:""",
-                    profile.getFirstName(), profile.getLastName(),
-                    profile.getYearsOfExperience(),
-                    profile.getDesiredJobTitle(),
-                    profile.getHighestDegree(), profile.getMajor(), profile.getUniversity(),
-                    jobTitle != null ? jobTitle : "the position",
-                    company != null ? company : "the company",
-                    question);
+        sb.append("\nFor each question write a professional, concise answer (2-3 sentences) that:\n");
+        sb.append("1. Is specific and authentic\n");
+        sb.append("2. Highlights relevant experience\n");
+        sb.append("3. Shows enthusiasm for the role\n");
+        sb.append("Do not repeat the same sentences across answers.\n");
 
-            return callAI(prompt);
+        sb.append("\nRESPOND WITH JSON ONLY, no markdown:");
+        sb.append("\n{\"answers\": {\"<question id>\": \"answer\", ...}}");
+        return sb.toString();
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate answer: {}", e.getMessage());
-            return null;
+    /**
+     * Strip markdown fences and any text around the first JSON object, and
+     * close it if the reply was cut off.
+     */
+    private String extractJson(String response) {
+        if (response == null) {
+            throw new IllegalArgumentException("Empty response from AI");
+        }
+        return JsonRepair.extractObject(response);
+    }
+
+    /**
+     * Parse a structured reply straight into {@code type}. Replies are
+     * schema-constrained, so this is normally a single pass; one that comes
+     * back fenced, wrapped in text or cut off at the output limit is
+     * repaired locally instead of failing the call.
+     */
+    private <T> T readReply(AiOperation operation, String response, Class<T> type) throws JsonProcessingException {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            String repaired = extractJson(response);
+            log.info("Repaired malformed {} reply ({} -> {} chars): {}", operation.key(), response.length(),
+                    repaired.length(), e.getOriginalMessage());
+            return objectMapper.readValue(repaired, type);
         }
     }
 
@@ -158,180 +406,143 @@ public class OpenAIServiceImpl implements OpenAIService {
      * Build a prompt for GPT to analyze form fields and map to profile data.
      */
     private String buildMappingPrompt(List<FormFieldInfo> fields, UserProfileDocument profile) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder formText = new StringBuilder();
+        for (FormFieldInfo f : fields) {
+            formText.append(f.getId()).append(' ').append(f.getName()).append(' ').append(f.getLabel())
+                    .append(' ').append(f.getPlaceholder()).append(' ').append(f.getType()).append('\n');
+        }
+
+        PromptBuilder prompt = new PromptBuilder(fieldMappingTokenBudget);
+        prompt.add("You are a form-filling assistant. Map these form fields to the user's data.\n\n");
+
+        // Empty attributes and ones no field on this form asks about only
+        // cost tokens; contact details are on nearly every form
+        prompt.add("USER DATA:\n");
+        Map<String, Object> userData = new LinkedHashMap<>();
+        userData.put("firstName", profile.getFirstName());
+        userData.put("lastName", profile.getLastName());
+        userData.put("email", profile.getEmail());
+        userData.put("phone", profile.getPhone());
+        userData.put("linkedInUrl", profile.getLinkedInUrl());
+        userData.put("githubUrl", profile.getGithubUrl());
+        userData.put("address", profile.getAddress());
+        userData.put("city", profile.getCity());
+        userData.put("state", profile.getState());
+        userData.put("zipCode", profile.getZipCode());
+        userData.put("country", profile.getCountry());
+        userData.put("isUsCitizen", profile.isUsCitizen() ? "Yes" : "No");
+        userData.put("requiresSponsorship", profile.isRequiresSponsorship() ? "Yes" : "No");
+        userData.put("workAuthorization", profile.getWorkAuthorization());
+        userData.put("willingToRelocate", profile.isWillingToRelocate() ? "Yes" : "No");
+        userData.put("desiredSalary", profile.getDesiredSalary());
+        userData.put("yearsOfExperience", profile.getYearsOfExperience());
+        userData.put("highestDegree", profile.getHighestDegree());
+        userData.put("university", profile.getUniversity());
+        userData.put("major", profile.getMajor());
+        userData.put("graduationYear", profile.getGraduationYear());
+        userData.put("veteranStatus", profile.getVeteranStatus());
+        userData.put("disabilityStatus", profile.getDisabilityStatus());
+        userData.put("gender", profile.getGender());
+        userData.put("ethnicity", profile.getEthnicity());
+        userData.put("availableStartDate", profile.getAvailableStartDate());
+        userData.forEach((name, value) -> {
+            if (value == null || value.toString().isBlank()) {
+                return;
+            }
+            String line = name + ": " + value + "\n";
+            Pattern hint = PROFILE_FIELD_HINTS.get(name);
+            if (hint == null) {
+                prompt.add(line);
+            } else if (hint.matcher(formText).find()) {
+                prompt.addOptional(line, 1);
+            }
+        });
 
-        sb.append("You are a form-filling assistant. Map these form fields to the user's data.\n\n");
-
-        sb.append("USER DATA:\n");
-        sb.append("firstName: ").append(profile.getFirstName()).append("\n");
-        sb.append("lastName: ").append(profile.getLastName()).append("\n");
-        sb.append("email: ").append(profile.getEmail()).append("\n");
-        sb.append("phone: ").append(profile.getPhone()).append("\n");
-        sb.append("linkedInUrl: ").append(profile.getLinkedInUrl()).append("\n");
-        sb.append("githubUrl: ").append(profile.getGithubUrl()).append("\n");
-        sb.append("address: ").append(profile.getAddress()).append("\n");
-        sb.append("city: ").append(profile.getCity()).append("\n");
-        sb.append("state: ").append(profile.getState()).append("\n");
-        sb.append("zipCode: ").append(profile.getZipCode()).append("\n");
-        sb.append("country: ").append(profile.getCountry()).append("\n");
-        sb.append("isUsCitizen: ").append(profile.isUsCitizen() ? "Yes" : "No").append("\n");
-        sb.append("requiresSponsorship: ").append(profile.isRequiresSponsorship() ? "Yes" : "No").append("\n");
-        sb.append("workAuthorization: ").append(profile.getWorkAuthorization()).append("\n");
-        sb.append("willingToRelocate: ").append(profile.isWillingToRelocate() ? "Yes" : "No").append("\n");
-        sb.append("desiredSalary: ").append(profile.getDesiredSalary()).append("\n");
-        sb.append("yearsOfExperience: ").append(profile.getYearsOfExperience()).append("\n");
-        sb.append("highestDegree: ").append(profile.getHighestDegree()).append("\n");
-        sb.append("university: ").append(profile.getUniversity()).append("\n");
-        sb.append("major: ").append(profile.getMajor()).append("\n");
-        sb.append("graduationYear: ").append(profile.getGraduationYear()).append("\n");
-        sb.append("veteranStatus: ").append(profile.getVeteranStatus()).append("\n");
-        sb.append("disabilityStatus: ").append(profile.getDisabilityStatus()).append("\n");
-        sb.append("gender: ").append(profile.getGender()).append("\n");
-        sb.append("ethnicity: ").append(profile.getEthnicity()).append("\n");
-        sb.append("availableStartDate: ").append(profile.getAvailableStartDate()).append("\n");
-
-        sb.append("\nFORM FIELDS:\n");
+        prompt.add("\nFORM FIELDS:\n");
         for (int i = 0; i < fields.size(); i++) {
             FormFieldInfo f = fields.get(i);
-            sb.append(String.format("%d. id='%s', name='%s', label='%s', placeholder='%s', type='%s'\n",
-                    i + 1, f.getId(), f.getName(), f.getLabel(), f.getPlaceholder(), f.getType()));
+            StringBuilder line = new StringBuilder().append(i + 1).append('.');
+            appendFieldAttribute(line, "id", f.getId());
+            appendFieldAttribute(line, "name", f.getName());
+            appendFieldAttribute(line, "label", f.getLabel());
+            appendFieldAttribute(line, "placeholder", f.getPlaceholder());
+            appendFieldAttribute(line, "type", f.getType());
+            prompt.add(line.append('\n').toString());
         }
 
-        sb.append("\nRESPOND WITH JSON ONLY - map field id/name to the value from user data.");
-        sb.append("\nFormat: {\"fieldIdOrName\": \"value\", ...}");
-        sb.append("\nOnly include fields you can confidently fill. Skip unknown fields.");
+        prompt.add("\nRESPOND WITH JSON ONLY - map field id/name to the value from user data."
+                + "\nFormat: {\"fieldIdOrName\": \"value\", ...}"
+                + "\nOnly include fields you can confidently fill. Skip unknown fields.");
 
-        return sb.toString();
+        return build(AiOperation.FIELD_MAPPING, prompt);
     }
 
-    /**
-     * Call AI API - prefers Gemini, falls back to OpenAI.
-     */
-    private String callAI(String prompt) {
-        if (isGeminiAvailable()) {
-            return callGemini(prompt);
-        } else if (isOpenAIAvailable()) {
-            return callOpenAI(prompt);
-        } else {
-            throw new RuntimeException("No AI API configured (neither Gemini nor OpenAI)");
+    private static void appendFieldAttribute(StringBuilder line, String name, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        // Some labels carry a whole paragraph of help text
+        String text = value.length() > MAX_FIELD_ATTRIBUTE_LENGTH
+                ? value.substring(0, MAX_FIELD_ATTRIBUTE_LENGTH) + "..."
+                : value;
+        if (line.charAt(line.length() - 1) != '.') {
+            line.append(',');
         }
+        line.append(' ').append(name).append("='").append(text.replace('\n', ' ')).append('\'');
     }
 
     /**
-     * Call Gemini API.
+     * Build a prompt, logging when it had to be shrunk to fit its budget.
      */
-    private String callGemini(String prompt) {
-        String keyPrefix = geminiApiKey.length() > 10 ? geminiApiKey.substring(0, 10) + "..." : "short";
-        log.info("Calling Gemini API - model: {}, key prefix: {}", geminiModel, keyPrefix);
-
-        // Gemini request format
-        Map<String, Object> requestBody = new HashMap<>();
-        List<Map<String, Object>> contents = new ArrayList<>();
-        Map<String, Object> content = new HashMap<>();
-        List<Map<String, String>> parts = new ArrayList<>();
-        parts.add(Map.of("text", prompt));
-        content.put("parts", parts);
-        contents.add(content);
-        requestBody.put("contents", contents);
-
-        // Generation config
-        Map<String, Object> generationConfig = new HashMap<>();
-        generationConfig.put("temperature", 0.3);
-        generationConfig.put("maxOutputTokens", 8000);
-        requestBody.put("generationConfig", generationConfig);
-
-        try {
-            // Gemini uses API key as query parameter
-            String url = geminiEndpoint + "?key=" + geminiApiKey;
-
-            String responseBody = webClient.post()
-                    .uri(url)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.isError(), response -> {
-                        return response.bodyToMono(String.class)
-                                .flatMap(errorBody -> {
-                                    log.error("Gemini API error: status={}, body={}",
-                                            response.statusCode(), errorBody);
-                                    return reactor.core.publisher.Mono.error(
-                                            new RuntimeException(
-                                                    "Gemini API error " + response.statusCode() + ": " + errorBody));
-                                });
-                    })
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("Gemini API response received");
-
-            // Parse Gemini response format
-            JsonNode root = objectMapper.readTree(responseBody);
-            String text = root.path("candidates").get(0)
-                    .path("content").path("parts").get(0).path("text").asText();
-            log.info("Extracted content length: {} chars", text != null ? text.length() : 0);
-            return text;
-
-        } catch (Exception e) {
-            log.error("Gemini API call failed: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            throw new RuntimeException("Gemini API call failed: " + e.getMessage(), e);
+    private String build(AiOperation operation, PromptBuilder prompt) {
+        String text = prompt.build();
+        if (prompt.droppedParts() > 0 || prompt.cutChars() > 0) {
+            log.info("Fitted {} prompt to ~{} tokens - dropped {} optional parts, cut {} chars",
+                    operation.key(), prompt.estimatedTokens(), prompt.droppedParts(), prompt.cutChars());
         }
+        return text;
     }
 
     /**
-     * Call OpenAI chat completions API (fallback).
+     * Call AI API through the provider router (AiProviderRouter): Gemini
+     * first, OpenAI when Gemini fails, is slow for a hedged operation, or is
+     * skipped for an open circuit or an exhausted API budget. If no provider
+     * answers the call fails and callers fall back to their heuristics.
+     *
+     * Responses are cached by model and prompt hash (AiResponseCache), so the
+     * same prompt is only sent once per cache TTL. A cached answer from either
+     * configured model is used, preferring the one that would be called.
+     *
+     * Upstream calls go through the AiGateway, which limits concurrency per
+     * workload class and sheds calls it can't start in time.
      */
-    private String callOpenAI(String prompt) {
-        String keyPrefix = openaiApiKey.length() > 10 ? openaiApiKey.substring(0, 10) + "..." : "short";
-        log.info("Calling OpenAI API - endpoint: {}, model: {}, key prefix: {}", openaiEndpoint, openaiModel,
-                keyPrefix);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", openaiModel);
+    private String callAI(AiOperation operation, String prompt) {
+        return callAI(operation, prompt, null);
+    }
 
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "user", "content", prompt));
-        requestBody.put("messages", messages);
-        requestBody.put("temperature", 0.3);
-        requestBody.put("max_tokens", 1000);
+    /**
+     * Call AI API asking for JSON output that matches {@code schema}.
+     */
+    private String callAI(AiOperation operation, String prompt, JsonSchema schema) {
+        String cached = aiResponseCache.get(operation, candidateModels(), prompt);
+        if (cached != null) {
+            return cached;
+        }
 
+        AiGateway.Permit permit = aiGateway.acquire(operation);
         try {
-            String responseBody = webClient.post()
-                    .uri(openaiEndpoint)
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + openaiApiKey)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.isError(), response -> {
-                        return response.bodyToMono(String.class)
-                                .flatMap(errorBody -> {
-                                    log.error("OpenAI API error response: status={}, body={}",
-                                            response.statusCode(), errorBody);
-                                    return reactor.core.publisher.Mono.error(
-                                            new RuntimeException(
-                                                    "OpenAI API error " + response.statusCode() + ": " + errorBody));
-                                });
-                    })
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("OpenAI API response received");
-
-            JsonNode root = objectMapper.readTree(responseBody);
-            String content = root.path("choices").get(0).path("message").path("content").asText();
-            log.info("Extracted content length: {} chars", content != null ? content.length() : 0);
-            return content;
-
-        } catch (Exception e) {
-            log.error("OpenAI API call failed: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            throw new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+            AiProviderRouter.Reply reply = aiProviderRouter.generate(operation, prompt, schema).block();
+            aiResponseCache.put(operation, reply.modelId(), prompt, reply.text());
+            return reply.text();
+        } finally {
+            permit.close();
         }
     }
 
     /**
-     * Parse the GPT response into field mappings.
+     * Parse the GPT response into field mappings, or null if it isn't JSON.
      */
-    private Map<String, String> parseFieldMappingResponse(
-            String response, List<FormFieldInfo> fields, UserProfileDocument profile) {
+    private Map<String, String> parseFieldMappingResponse(String response) {
 
         Map<String, String> result = new HashMap<>();
 
@@ -353,7 +564,7 @@ public class OpenAIServiceImpl implements OpenAIService {
 
         } catch (Exception e) {
             log.warn("Could not parse GPT response as JSON, using fallback");
-            return fallbackMapping(fields, profile);
+            return null;
         }
 
         return result;
@@ -480,8 +691,7 @@ public class OpenAIServiceImpl implements OpenAIService {
     public Map<String, Object> scoreResume(String resumeText, String fileName) {
         Map<String, Object> result = new HashMap<>();
 
-        log.info("scoreResume called - Gemini available: {}, OpenAI available: {}",
-                isGeminiAvailable(), isOpenAIAvailable());
+        log.info("scoreResume called - AI providers: {}", candidateModels());
 
         if (!isAvailable()) {
             log.warn("No AI API configured - returning fallback resume score");
@@ -500,10 +710,14 @@ public class OpenAIServiceImpl implements OpenAIService {
             return result;
         }
 
+        String prompt = null;
         try {
             log.info("Calling OpenAI API for resume scoring...");
-            String prompt = String.format(
-                    """
+            // Collapsed whitespace and no boilerplate lines leave room for more
+            // of the resume itself
+            String resume = PromptBuilder.compact(resumeText, RESUME_BOILERPLATE);
+            prompt = build(AiOperation.RESUME_SCORE, new PromptBuilder(resumeScoreTokenBudget)
+                    .add("""
                             You are a professional resume reviewer and ATS (Applicant Tracking System) expert.
 
                             Analyze this resume and provide scores in these categories:
@@ -514,17 +728,15 @@ public class OpenAIServiceImpl implements OpenAIService {
                             Resume filename: %s
 
                             Resume content:
-                            %s
+                            """.formatted(fileName != null ? fileName : "resume"))
+                    .addFitted(resume.isEmpty() ? "No content\n" : resume)
+                    .add("""
 
                             Respond ONLY with valid JSON in this exact format (no markdown, no extra text):
                             {"overall": 78, "profile": 85, "keywords": 65, "ats": 84, "message": "Brief one-line feedback"}
-                            """,
-                    fileName != null ? fileName : "resume",
-                    resumeText != null && resumeText.length() > 3000
-                            ? resumeText.substring(0, 3000) + "..."
-                            : (resumeText != null ? resumeText : "No content"));
+                            """));
 
-            String response = callAI(prompt);
+            String response = callAI(AiOperation.RESUME_SCORE, prompt, RESUME_SCORE_SCHEMA);
             log.info("Raw OpenAI response for resume score: '{}'", response);
 
             if (response == null || response.isEmpty()) {
@@ -532,45 +744,26 @@ public class OpenAIServiceImpl implements OpenAIService {
                 throw new RuntimeException("Empty response from OpenAI");
             }
 
-            // Parse the JSON response
-            String jsonStr = response.trim();
-
-            // Handle markdown code blocks
-            if (jsonStr.startsWith("```")) {
-                jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-            }
-
-            // Extract JSON if there's extra text before/after
-            int jsonStart = jsonStr.indexOf('{');
-            int jsonEnd = jsonStr.lastIndexOf('}');
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                jsonStr = jsonStr.substring(jsonStart, jsonEnd + 1);
-            }
-
-            log.info("Cleaned JSON string: '{}'", jsonStr);
-
-            JsonNode scoreNode = objectMapper.readTree(jsonStr);
-
-            int overall = scoreNode.path("overall").asInt(-1);
-            int profile = scoreNode.path("profile").asInt(-1);
-            int keywords = scoreNode.path("keywords").asInt(-1);
-            int ats = scoreNode.path("ats").asInt(-1);
-            String message = scoreNode.path("message").asText("");
-
+            ResumeScore raw = readReply(AiOperation.RESUME_SCORE, response, ResumeScore.class);
             log.info("Parsed scores - overall: {}, profile: {}, keywords: {}, ats: {}",
-                    overall, profile, keywords, ats);
+                    raw.overall(), raw.profile(), raw.keywords(), raw.ats());
 
-            // Validate scores are in range 0-100
-            result.put("overall", overall >= 0 && overall <= 100 ? overall : 70);
-            result.put("profile", profile >= 0 && profile <= 100 ? profile : 70);
-            result.put("keywords", keywords >= 0 && keywords <= 100 ? keywords : 60);
-            result.put("ats", ats >= 0 && ats <= 100 ? ats : 80);
-            result.put("message", message.isEmpty() ? "Resume analyzed successfully." : message);
+            // Missing or out of range scores get defaults
+            ResumeScore score = raw.validated();
+            result.put("overall", score.overall());
+            result.put("profile", score.profile());
+            result.put("keywords", score.keywords());
+            result.put("ats", score.ats());
+            result.put("message", score.message());
 
             log.info("Final resume score: overall={}", result.get("overall"));
 
         } catch (Exception e) {
             log.error("Failed to score resume with OpenAI: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+            if (prompt != null) {
+                // Don't serve an answer that failed to parse again from the cache
+                aiResponseCache.evict(candidateModels(), prompt);
+            }
 
             // Return default scores on error with user-friendly message
             result.put("overall", 70);
@@ -602,8 +795,7 @@ public class OpenAIServiceImpl implements OpenAIService {
     public Map<String, Object> parseResume(String resumeText) {
         Map<String, Object> result = new HashMap<>();
 
-        log.info("parseResume called - Gemini available: {}, OpenAI available: {}", isGeminiAvailable(),
-                isOpenAIAvailable());
+        log.info("parseResume called - AI providers: {}", candidateModels());
 
         if (!isAvailable()) {
             log.warn("No AI API configured - cannot parse resume");
@@ -616,54 +808,57 @@ public class OpenAIServiceImpl implements OpenAIService {
             return result;
         }
 
+        String prompt = null;
         try {
-            String prompt = String.format("""
-                    You are a resume parser. Extract structured data from this resume text.
-
-                    Resume content:
-                    %s
-
-                    Extract and return ONLY valid JSON with these fields (use null for missing data):
-                    {
-                        "firstName": "string",
-                        "lastName": "string",
-                        "phone": "string (format: xxx-xxx-xxxx)",
-                        "email": "string",
-                        "linkedInUrl": "string or null",
-                        "githubUrl": "string or null",
-                        "portfolioUrl": "string or null",
-                        "city": "string or null",
-                        "state": "string (2-letter code if US) or null",
-                        "country": "string or null",
-                        "highestDegree": "string (Bachelor's, Master's, PhD, etc.) or null",
-                        "university": "string or null",
-                        "major": "string or null",
-                        "educationStartDate": "string (MM/YYYY format) or null",
-                        "educationEndDate": "string (MM/YYYY format) or null",
-                        "desiredJobTitle": "string (infer from most recent job title) or null",
-                        "yearsOfExperience": "string (e.g., '3-5') or null",
-                        "workExperience": [
+            prompt = build(AiOperation.RESUME_PARSE, new PromptBuilder(resumeParseTokenBudget)
+                    .add("""
+                            You are a resume parser. Extract structured data from this resume text.
+
+                            Resume content:
+                            """)
+                    .addFitted(PromptBuilder.compact(resumeText, RESUME_BOILERPLATE))
+                    .add("""
+
+                            Extract and return ONLY valid JSON with these fields (use null for missing data):
                             {
-                                "company": "string",
-                                "jobTitle": "string",
-                                "startDate": "YYYY-MM",
-                                "endDate": "YYYY-MM or null if current",
-                                "isCurrent": boolean,
-                                "location": "string or null",
-                                "description": "string (brief summary)"
+                                "firstName": "string",
+                                "lastName": "string",
+                                "phone": "string (format: xxx-xxx-xxxx)",
+                                "email": "string",
+                                "linkedInUrl": "string or null",
+                                "githubUrl": "string or null",
+                                "portfolioUrl": "string or null",
+                                "city": "string or null",
+                                "state": "string (2-letter code if US) or null",
+                                "country": "string or null",
+                                "highestDegree": "string (Bachelor's, Master's, PhD, etc.) or null",
+                                "university": "string or null",
+                                "major": "string or null",
+                                "educationStartDate": "string (MM/YYYY format) or null",
+                                "educationEndDate": "string (MM/YYYY format) or null",
+                                "desiredJobTitle": "string (infer from most recent job title) or null",
+                                "yearsOfExperience": "string (e.g., '3-5') or null",
+                                "workExperience": [
+                                    {
+                                        "company": "string",
+                                        "jobTitle": "string",
+                                        "startDate": "YYYY-MM",
+                                        "endDate": "YYYY-MM or null if current",
+                                        "isCurrent": boolean,
+                                        "location": "string or null",
+                                        "description": "string (brief summary)"
+                                    }
+                                ]
                             }
-                        ]
-                    }
 
-                    Important:
-                    - Extract ONLY what is clearly stated in the resume
-                    - For workExperience, include up to 5 most recent positions
-                    - Phone should be formatted as xxx-xxx-xxxx
-                    - Return ONLY the JSON, no markdown or extra text
-                    """,
-                    resumeText.length() > 6000 ? resumeText.substring(0, 6000) + "..." : resumeText);
+                            Important:
+                            - Extract ONLY what is clearly stated in the resume
+                            - For workExperience, include up to 5 most recent positions
+                            - Phone should be formatted as xxx-xxx-xxxx
+                            - Return ONLY the JSON, no markdown or extra text
+                            """));
 
-            String response = callAI(prompt);
+            String response = callAI(AiOperation.RESUME_PARSE, prompt, PARSED_RESUME_SCHEMA);
             log.info("Raw OpenAI response for resume parse: '{}'",
                     response != null && response.length() > 200 ? response.substring(0, 200) + "..." : response);
 
@@ -671,52 +866,38 @@ public class OpenAIServiceImpl implements OpenAIService {
                 throw new RuntimeException("Empty response from OpenAI");
             }
 
-            // Clean and parse JSON response
-            String jsonStr = response.trim();
-            if (jsonStr.startsWith("```")) {
-                jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-            }
-            int jsonStart = jsonStr.indexOf('{');
-            int jsonEnd = jsonStr.lastIndexOf('}');
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                jsonStr = jsonStr.substring(jsonStart, jsonEnd + 1);
-            }
-
-            JsonNode parsed = objectMapper.readTree(jsonStr);
-
-            // Extract all fields
-            result.put("firstName", getTextOrNull(parsed, "firstName"));
-            result.put("lastName", getTextOrNull(parsed, "lastName"));
-            result.put("phone", getTextOrNull(parsed, "phone"));
-            result.put("email", getTextOrNull(parsed, "email"));
-            result.put("linkedInUrl", getTextOrNull(parsed, "linkedInUrl"));
-            result.put("githubUrl", getTextOrNull(parsed, "githubUrl"));
-            result.put("portfolioUrl", getTextOrNull(parsed, "portfolioUrl"));
-            result.put("city", getTextOrNull(parsed, "city"));
-            result.put("state", getTextOrNull(parsed, "state"));
-            result.put("country", getTextOrNull(parsed, "country"));
-            result.put("highestDegree", getTextOrNull(parsed, "highestDegree"));
-            result.put("university", getTextOrNull(parsed, "university"));
-            result.put("major", getTextOrNull(parsed, "major"));
-            result.put("educationStartDate", getTextOrNull(parsed, "educationStartDate"));
-            result.put("educationEndDate", getTextOrNull(parsed, "educationEndDate"));
-            result.put("desiredJobTitle", getTextOrNull(parsed, "desiredJobTitle"));
-            result.put("yearsOfExperience", getTextOrNull(parsed, "yearsOfExperience"));
-
-            // Parse work experience array
-            JsonNode workExpNode = parsed.path("workExperience");
-            if (workExpNode.isArray()) {
+            ParsedResume parsed = readReply(AiOperation.RESUME_PARSE, response, ParsedResume.class).validated();
+
+            result.put("firstName", parsed.firstName());
+            result.put("lastName", parsed.lastName());
+            result.put("phone", parsed.phone());
+            result.put("email", parsed.email());
+            result.put("linkedInUrl", parsed.linkedInUrl());
+            result.put("githubUrl", parsed.githubUrl());
+            result.put("portfolioUrl", parsed.portfolioUrl());
+            result.put("city", parsed.city());
+            result.put("state", parsed.state());
+            result.put("country", parsed.country());
+            result.put("highestDegree", parsed.highestDegree());
+            result.put("university", parsed.university());
+            result.put("major", parsed.major());
+            result.put("educationStartDate", parsed.educationStartDate());
+            result.put("educationEndDate", parsed.educationEndDate());
+            result.put("desiredJobTitle", parsed.desiredJobTitle());
+            result.put("yearsOfExperience", parsed.yearsOfExperience());
+
+            if (parsed.workExperience() != null) {
                 List<Map<String, Object>> workExperience = new ArrayList<>();
-                for (JsonNode jobNode : workExpNode) {
-                    Map<String, Object> job = new HashMap<>();
-                    job.put("company", getTextOrNull(jobNode, "company"));
-                    job.put("jobTitle", getTextOrNull(jobNode, "jobTitle"));
-                    job.put("startDate", getTextOrNull(jobNode, "startDate"));
-                    job.put("endDate", getTextOrNull(jobNode, "endDate"));
-                    job.put("isCurrent", jobNode.path("isCurrent").asBoolean(false));
-                    job.put("location", getTextOrNull(jobNode, "location"));
-                    job.put("description", getTextOrNull(jobNode, "description"));
-                    workExperience.add(job);
+                for (ParsedResume.WorkExperience job : parsed.workExperience()) {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("company", job.company());
+                    entry.put("jobTitle", job.jobTitle());
+                    entry.put("startDate", job.startDate());
+                    entry.put("endDate", job.endDate());
+                    entry.put("isCurrent", job.isCurrent());
+                    entry.put("location", job.location());
+                    entry.put("description", job.description());
+                    workExperience.add(entry);
                 }
                 result.put("workExperience", workExperience);
             }
@@ -726,6 +907,9 @@ public class OpenAIServiceImpl implements OpenAIService {
 
         } catch (Exception e) {
             log.error("Failed to parse resume: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+            if (prompt != null) {
+                aiResponseCache.evict(candidateModels(), prompt);
+            }
             result.put("error", "Failed to parse resume: " + e.getMessage());
         }
 
@@ -0,0 +1,84 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.service.AiOperation;
+import com.easepath.backend.service.AiProvider;
+import com.easepath.backend.util.JsonSchema;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Offline AI provider for load tests and failover drills: answers every call
+ * with a canned reply after an artificial latency instead of calling a model.
+ *
+ * Structured calls get an empty JSON object, which the callers' local
+ * validation turns into defaults; field mapping gets no mappings, so the
+ * heuristic matcher fills the form; essays get a fixed answer. A failure
+ * rate makes that share of calls fail, to watch the router fail over. Only
+ * created when easepath.ai.stub.enabled=true; list "stub" in
+ * easepath.ai.providers to route calls to it.
+ */
+@Service
+@ConditionalOnProperty(name = "easepath.ai.stub.enabled", havingValue = "true")
+public class StubAiProvider implements AiProvider {
+
+    public static final String NAME = "stub";
+
+    private static final String ESSAY_ANSWER = "I am excited about this role because it builds directly on my "
+            + "recent experience, and I would bring the same focus on quality and collaboration to your team.";
+
+    private final Duration latency;
+    private final double failureRate;
+
+    public StubAiProvider(
+            @Value("${easepath.ai.stub.latency:200ms}") Duration latency,
+            @Value("${easepath.ai.stub.failure-rate:0}") double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public String getModelId() {
+        return "stub:canned";
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return latency.plusSeconds(5);
+    }
+
+    @Override
+    public Mono<String> generate(AiOperation operation, String prompt, JsonSchema schema) {
+        Mono<String> reply = Mono.fromCallable(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                throw new RuntimeException("Stub AI provider failure");
+            }
+            return schema != null || operation != AiOperation.ESSAY ? "{}" : ESSAY_ANSWER;
+        });
+        return latency.isZero() ? reply : Mono.delay(latency).then(reply);
+    }
+
+    @Override
+    public Flux<String> stream(AiOperation operation, String prompt) {
+        // One chunk per word, like a model streaming tokens
+        return generate(operation, prompt, null)
+                .flatMapMany(answer -> Flux.fromArray(answer.split("(?<= )")));
+    }
+}
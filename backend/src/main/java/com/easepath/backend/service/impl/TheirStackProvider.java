@@ -0,0 +1,163 @@
+package com.easepath.backend.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.easepath.backend.service.ApiBudget;
+import com.easepath.backend.service.JobSearchKey;
+import com.easepath.backend.service.JobSearchProvider;
+import com.easepath.backend.service.TheirStackResponseAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * TheirStack - fallback job search API. Responses are adapted to the JSearch
+ * format by TheirStackResponseAdapter.
+ */
+@Service
+public class TheirStackProvider implements JobSearchProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(TheirStackProvider.class);
+
+    private final WebClient theirStackClient;
+    private final String theirStackApiKey;
+    private final Duration timeout;
+
+    // Streams TheirStack JSON into JSearch JSON without building a tree
+    private final TheirStackResponseAdapter theirStackAdapter;
+
+    public TheirStackProvider(WebClient.Builder webClientBuilder,
+            @Value("${theirstack.api-key:}") String theirStackApiKey,
+            @Value("${easepath.jobsearch.theirstack.timeout:10s}") Duration timeout) {
+        this.theirStackClient = webClientBuilder.clone().baseUrl("https://api.theirstack.com").build();
+        this.theirStackApiKey = theirStackApiKey;
+        this.timeout = timeout;
+        this.theirStackAdapter = new TheirStackResponseAdapter(new ObjectMapper().getFactory());
+    }
+
+    @Override
+    public String getName() {
+        return ApiBudget.THEIRSTACK;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return theirStackApiKey != null && !theirStackApiKey.isEmpty();
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public Mono<String> search(JobSearchKey key, int windowSize) {
+
+        Map<String, Object> requestBody = buildTheirStackRequest(key.getQuery(), key.getDatePosted(),
+                String.valueOf(key.isRemoteJobsOnly()), key.getEmploymentTypes(), key.getWindow(), windowSize);
+
+        log.info("Sending request to TheirStack: {}", requestBody);
+
+        return theirStackClient.post()
+                .uri("/v1/jobs/search")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + theirStackApiKey)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                // Transform TheirStack response to match JSearch format
+                .map(this::transformTheirStackResponse)
+                .doOnNext(response -> log.info(" TheirStack returned results"));
+    }
+
+    private Map<String, Object> buildTheirStackRequest(String query, String datePosted, String remoteJobsOnly,
+            String employmentTypes, int page, int limit) {
+        Map<String, Object> request = new HashMap<>();
+
+        // Pagination - one result window per call. Credits are charged per
+        // job returned, so a window of easepath.jobsearch.window-pages pages
+        // costs that many times a single page
+        request.put("page", page);
+        request.put("limit", limit);
+        request.put("blur_company_data", false);
+
+        // Parse query for location
+        String jobTitle = query;
+        String location = null;
+
+        if (query != null && query.toLowerCase().contains(" in ")) {
+            int inIndex = query.toLowerCase().lastIndexOf(" in ");
+            jobTitle = query.substring(0, inIndex).trim();
+            location = query.substring(inIndex + 4).trim();
+        }
+
+        // Job title search
+        if (jobTitle != null && !jobTitle.isEmpty()) {
+            List<String> titlePatterns = new ArrayList<>();
+            titlePatterns.add(jobTitle);
+            request.put("job_title_pattern_or", titlePatterns);
+        }
+
+        // Date posted filter
+        if (datePosted != null && !datePosted.isEmpty() && !datePosted.equals("all")) {
+            int maxAgeDays = switch (datePosted) {
+                case "today" -> 1;
+                case "3days" -> 3;
+                case "week" -> 7;
+                case "month" -> 30;
+                default -> 30;
+            };
+            request.put("posted_at_max_age_days", maxAgeDays);
+        } else {
+            request.put("posted_at_max_age_days", 30);
+        }
+
+        // Location filter
+        List<String> locationPatterns = new ArrayList<>();
+        if ("true".equalsIgnoreCase(remoteJobsOnly)) {
+            locationPatterns.add("remote");
+        }
+        if (location != null && !location.isEmpty()) {
+            locationPatterns.add(location);
+        }
+        if (!locationPatterns.isEmpty()) {
+            request.put("job_location_pattern_or", locationPatterns);
+        }
+
+        // Country filter - default to US
+        List<String> countryCodes = new ArrayList<>();
+        countryCodes.add("US");
+        request.put("job_country_code_or", countryCodes);
+
+        // Order by date posted
+        List<Map<String, Object>> orderBy = new ArrayList<>();
+        Map<String, Object> order = new HashMap<>();
+        order.put("field", "date_posted");
+        order.put("desc", true);
+        orderBy.add(order);
+        request.put("order_by", orderBy);
+
+        return request;
+    }
+
+    private String transformTheirStackResponse(String theirStackResponse) {
+        try {
+            return theirStackAdapter.transform(theirStackResponse);
+        } catch (Exception e) {
+            log.error("Error transforming TheirStack response", e);
+            return TheirStackResponseAdapter.EMPTY_RESPONSE;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.easepath.backend.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small in-process LRU cache with a hard size bound and per-entry expiry.
+ *
+ * Each entry carries its own expiry instant so the in-memory copy never
+ * outlives the record it mirrors (e.g. a Mongo document with a TTL index).
+ * Access order is LRU; when the cache is full the least recently used entry
+ * is evicted. All operations are synchronized - the critical sections are a
+ * couple of hash map operations, so a single lock is cheaper than striping.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedTtlCache(int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    public BoundedTtlCache(int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        // accessOrder=true turns the LinkedHashMap into an LRU list
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value();
+    }
+
+    /**
+     * Stores a value until the given instant. Values that are already expired
+     * are ignored.
+     */
+    public synchronized void put(K key, V value, Instant expireAt) {
+        if (value == null || expireAt == null || !expireAt.isAfter(clock.instant())) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, expireAt));
+        evictIfNeeded();
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), maxEntries, hits.get(), misses.get(), evictions.get(),
+                expirations.get());
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        // Drop expired entries first, then fall back to LRU order
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext() && entries.size() > maxEntries) {
+            if (isExpired(it.next().getValue())) {
+                it.remove();
+                expirations.incrementAndGet();
+            }
+        }
+        it = entries.entrySet().iterator();
+        while (it.hasNext() && entries.size() > maxEntries) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return !entry.expireAt().isAfter(clock.instant());
+    }
+
+    private record Entry<V>(V value, Instant expireAt) {
+    }
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    public record Stats(int size, int maxEntries, long hits, long misses, long evictions, long expirations) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
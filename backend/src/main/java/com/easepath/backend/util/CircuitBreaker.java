@@ -0,0 +1,211 @@
+package com.easepath.backend.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker for a single upstream dependency.
+ *
+ * STATES:
+ * - CLOSED: calls flow; outcomes of the last {@code windowSize} calls are
+ *   recorded. Once at least {@code minCalls} are recorded and either the
+ *   failure rate or the slow-call rate crosses its threshold, the breaker
+ *   opens.
+ * - OPEN: calls are rejected outright (the caller skips the dependency)
+ *   until {@code openDuration} has passed.
+ * - HALF_OPEN: up to {@code halfOpenCalls} trial calls are let through. Any
+ *   failure re-opens the breaker; if all trials succeed it closes again.
+ *
+ * Callers must report every permitted call exactly once via
+ * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final Duration slowCallThreshold;
+    private final double slowCallRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    // Ring buffers of the last windowSize outcomes
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private Instant openUntil;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold,
+            Duration slowCallThreshold, double slowCallRateThreshold, Duration openDuration, int halfOpenCalls) {
+        this(name, windowSize, minCalls, failureRateThreshold, slowCallThreshold, slowCallRateThreshold,
+                openDuration, halfOpenCalls, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold,
+            Duration slowCallThreshold, double slowCallRateThreshold, Duration openDuration, int halfOpenCalls,
+            Clock clock) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = slowCallThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.failed = new boolean[this.windowSize];
+        this.slow = new boolean[this.windowSize];
+    }
+
+    /**
+     * Ask for permission to call the dependency. Returns false while open.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openUntil)) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits <= 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(Duration latency) {
+        boolean isSlow = latency.compareTo(slowCallThreshold) >= 0;
+        if (state == State.HALF_OPEN) {
+            // A slow trial is not evidence of recovery
+            if (isSlow) {
+                open(openDuration);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false, isSlow);
+    }
+
+    public synchronized void onFailure(Duration latency) {
+        if (state == State.HALF_OPEN) {
+            open(openDuration);
+            return;
+        }
+        record(true, latency.compareTo(slowCallThreshold) >= 0);
+    }
+
+    /**
+     * The permitted call ended without a usable outcome (e.g. it was
+     * cancelled). Gives back a half-open trial permit.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * Open immediately for at least the given duration, e.g. when the upstream
+     * tells us to back off.
+     */
+    public synchronized void tripFor(Duration duration) {
+        Duration effective = duration.compareTo(openDuration) > 0 ? duration : openDuration;
+        open(effective);
+    }
+
+    public synchronized Snapshot snapshot() {
+        State current = state;
+        if (current == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            // Would go half-open on the next call
+            current = State.HALF_OPEN;
+        }
+        return new Snapshot(name, current, recorded, rate(failures), rate(slowCalls),
+                current == State.OPEN ? openUntil : null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (recorded == windowSize) {
+            // Overwrite the oldest outcome
+            if (failed[next]) {
+                failures--;
+            }
+            if (slow[next]) {
+                slowCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        if (isFailure) {
+            failures++;
+        }
+        if (isSlow) {
+            slowCalls++;
+        }
+        next = (next + 1) % windowSize;
+
+        if (state == State.CLOSED && recorded >= minCalls
+                && (rate(failures) >= failureRateThreshold || rate(slowCalls) >= slowCallRateThreshold)) {
+            open(openDuration);
+        }
+    }
+
+    private void open(Duration duration) {
+        transitionTo(State.OPEN);
+        openUntil = clock.instant().plus(duration);
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        if (newState == State.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        } else if (newState == State.CLOSED) {
+            resetWindow();
+        }
+    }
+
+    private void resetWindow() {
+        Arrays.fill(failed, false);
+        Arrays.fill(slow, false);
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private double rate(int count) {
+        return recorded == 0 ? 0.0 : (double) count / recorded;
+    }
+
+    /**
+     * Point-in-time view for health endpoints.
+     */
+    public record Snapshot(String name, State state, int bufferedCalls, double failureRate, double slowCallRate,
+            Instant openUntil) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.easepath.backend.util;
+
+/**
+ * Strong entity tags derived from a content hash, for conditional GETs.
+ *
+ * The gzip-coded representation gets its own tag ("&lt;hash&gt;-gzip"), as
+ * a strong validator must differ per content-coding, but both codings of the
+ * same content match each other in If-None-Match: either stored copy is still
+ * valid, so a 304 is correct.
+ */
+public final class ETags {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private ETags() {
+    }
+
+    /**
+     * The quoted ETag header value for content with the given hash.
+     */
+    public static String strong(String contentHash, boolean gzip) {
+        return "\"" + contentHash + (gzip ? GZIP_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * True if an If-None-Match header value names this content, i.e. the
+     * client's copy is current and a 304 can be sent. Uses the weak comparison
+     * If-None-Match calls for, so W/ tags match too.
+     */
+    public static boolean matches(String ifNoneMatch, String contentHash) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || contentHash == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String opaque = tag.trim();
+            if (opaque.startsWith("W/")) {
+                opaque = opaque.substring(2);
+            }
+            if (opaque.length() >= 2 && opaque.startsWith("\"") && opaque.endsWith("\"")) {
+                opaque = opaque.substring(1, opaque.length() - 1);
+            }
+            if (opaque.endsWith(GZIP_SUFFIX)) {
+                opaque = opaque.substring(0, opaque.length() - GZIP_SUFFIX.length());
+            }
+            if (opaque.equals(contentHash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
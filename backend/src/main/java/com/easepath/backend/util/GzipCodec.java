@@ -0,0 +1,61 @@
+package com.easepath.backend.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip helpers for payloads we store compressed.
+ *
+ * The output is a standard gzip stream, so stored bytes can be sent to an
+ * HTTP client as-is with {@code Content-Encoding: gzip}.
+ */
+public final class GzipCodec {
+
+    private GzipCodec() {
+    }
+
+    public static byte[] compress(byte[] raw) {
+        // JSON with long descriptions typically shrinks 4-8x
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("gzip compression failed", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param originalSize uncompressed size in bytes if known (sizes the
+     *                     buffer), otherwise 0
+     */
+    public static String decompress(byte[] gzipped, int originalSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, originalSize));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            gzip.transferTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("gzip decompression failed", e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * SHA-256 of the bytes, base64url without padding.
+     */
+    public static String contentHash(byte[] raw) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(raw);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sha);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.easepath.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Recovers the JSON object from an LLM reply.
+ *
+ * Replies are usually clean, but a model may still wrap the object in a
+ * markdown fence or prose, and one that hits its output token limit stops
+ * mid-value. Both are repaired here instead of failing the call: text
+ * around the first top-level object is dropped, and a truncated object is
+ * cut back to its last complete member and closed.
+ */
+public final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    /**
+     * The first JSON object in {@code reply}, closed if it was cut off.
+     *
+     * @throws IllegalArgumentException if the reply has no object at all
+     */
+    public static String extractObject(String reply) {
+        int start = reply != null ? reply.indexOf('{') : -1;
+        if (start < 0) {
+            throw new IllegalArgumentException("No JSON object in AI response");
+        }
+
+        Deque<Character> open = new ArrayDeque<>();
+        // Where the text can be cut while staying valid, and what is still
+        // open at that point
+        int safeEnd = start;
+        String safeClosers = "";
+        boolean inString = false;
+        boolean stringIsValue = false;
+        boolean escaped = false;
+
+        for (int i = start; i < reply.length(); i++) {
+            char c = reply.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (stringIsValue) {
+                        safeEnd = i + 1;
+                        safeClosers = closers(open);
+                    }
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    // A value or array item can end the text; an object key can't
+                    stringIsValue = open.peek() == ']' || previousToken(reply, start, i) == ':';
+                }
+                case '{', '[' -> {
+                    open.push(c == '{' ? '}' : ']');
+                    safeEnd = i + 1;
+                    safeClosers = closers(open);
+                }
+                case '}', ']' -> {
+                    if (open.isEmpty() || open.pop() != c) {
+                        throw new IllegalArgumentException("Unbalanced JSON in AI response");
+                    }
+                    if (open.isEmpty()) {
+                        return reply.substring(start, i + 1);
+                    }
+                    safeEnd = i + 1;
+                    safeClosers = closers(open);
+                }
+                case ',' -> {
+                    // Everything before the comma is a complete member
+                    safeEnd = i;
+                    safeClosers = closers(open);
+                }
+                default -> {
+                }
+            }
+        }
+
+        // Truncated: keep the complete members and close what is still open
+        return reply.substring(start, safeEnd) + safeClosers;
+    }
+
+    private static char previousToken(String text, int from, int before) {
+        for (int i = before - 1; i >= from; i--) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return text.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    private static String closers(Deque<Character> open) {
+        StringBuilder closers = new StringBuilder(open.size());
+        for (char closer : open) {
+            closers.append(closer);
+        }
+        return closers.toString();
+    }
+}
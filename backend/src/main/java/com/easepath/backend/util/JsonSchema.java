@@ -0,0 +1,114 @@
+package com.easepath.backend.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response schema for an LLM call that returns a record, in the dialect of
+ * each provider: Gemini's responseSchema (OpenAPI subset) and OpenAI's
+ * strict json_schema response format.
+ *
+ * The schema is derived from the record's components, so it can't drift
+ * from the type the reply is parsed into. Strings and boxed types are
+ * nullable (the model reports missing data as null), primitives are not,
+ * and a List of records becomes an array of objects. Ranges and formats are
+ * left to the prompt and to local validation.
+ */
+public final class JsonSchema {
+
+    private final String name;
+    private final Map<String, Object> gemini;
+    private final Map<String, Object> openAI;
+
+    private JsonSchema(String name, Map<String, Object> gemini, Map<String, Object> openAI) {
+        this.name = name;
+        this.gemini = gemini;
+        this.openAI = openAI;
+    }
+
+    public static JsonSchema of(Class<? extends Record> type) {
+        return new JsonSchema(type.getSimpleName(), object(type, true), object(type, false));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * generationConfig.responseSchema for Gemini.
+     */
+    public Map<String, Object> gemini() {
+        return gemini;
+    }
+
+    /**
+     * response_format.json_schema.schema for OpenAI (strict mode).
+     */
+    public Map<String, Object> openAI() {
+        return openAI;
+    }
+
+    private static Map<String, Object> object(Class<?> type, boolean gemini) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            properties.put(component.getName(), property(component.getGenericType(), gemini));
+            names.add(component.getName());
+        }
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", gemini ? "OBJECT" : "object");
+        schema.put("properties", properties);
+        // Strict mode wants every property listed; nullability is in the type
+        schema.put("required", names);
+        if (gemini) {
+            // Without an ordering Gemini emits properties alphabetically
+            schema.put("propertyOrdering", names);
+        } else {
+            schema.put("additionalProperties", false);
+        }
+        return schema;
+    }
+
+    private static Map<String, Object> property(Type type, boolean gemini) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            Map<String, Object> array = new LinkedHashMap<>();
+            array.put("type", gemini ? "ARRAY" : "array");
+            array.put("items", property(parameterized.getActualTypeArguments()[0], gemini));
+            return array;
+        }
+        Class<?> raw = (Class<?>) type;
+        if (raw.isRecord()) {
+            return object(raw, gemini);
+        }
+
+        String scalar;
+        if (raw == String.class) {
+            scalar = "string";
+        } else if (raw == int.class || raw == Integer.class || raw == long.class || raw == Long.class) {
+            scalar = "integer";
+        } else if (raw == double.class || raw == Double.class) {
+            scalar = "number";
+        } else if (raw == boolean.class || raw == Boolean.class) {
+            scalar = "boolean";
+        } else {
+            throw new IllegalArgumentException("No JSON schema type for " + raw.getName());
+        }
+
+        Map<String, Object> property = new LinkedHashMap<>();
+        boolean nullable = !raw.isPrimitive();
+        if (gemini) {
+            property.put("type", scalar.toUpperCase());
+            if (nullable) {
+                property.put("nullable", true);
+            }
+        } else {
+            property.put("type", nullable ? List.of(scalar, "null") : scalar);
+        }
+        return property;
+    }
+}
@@ -0,0 +1,51 @@
+package com.easepath.backend.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Rolling window of the most recent call latencies.
+ *
+ * Keeps the last {@code windowSize} samples in a ring buffer and answers
+ * percentile queries over them. Used to derive adaptive budgets (e.g. "hedge
+ * once the primary is slower than its usual p90") without a metrics library.
+ */
+public class LatencyTracker {
+
+    private final long[] samplesMillis;
+    private final int minSamples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize, int minSamples) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.samplesMillis = new long[windowSize];
+        this.minSamples = Math.max(1, minSamples);
+    }
+
+    public synchronized void record(Duration latency) {
+        samplesMillis[next] = latency.toMillis();
+        next = (next + 1) % samplesMillis.length;
+        count = Math.min(count + 1, samplesMillis.length);
+    }
+
+    /**
+     * Returns the given percentile (0.0 - 1.0) of the recorded latencies, or
+     * null if fewer than {@code minSamples} calls have been recorded.
+     */
+    public synchronized Duration percentile(double percentile) {
+        if (count < minSamples) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(samplesMillis, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.max(0.0, Math.min(1.0, percentile)) * count) - 1;
+        return Duration.ofMillis(sorted[Math.max(0, index)]);
+    }
+
+    public synchronized int sampleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,270 @@
+package com.easepath.backend.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Assembles an LLM prompt that fits a token budget.
+ *
+ * A prompt is a sequence of parts: fixed parts (instructions, the data the
+ * answer depends on) are always kept, optional parts are dropped lowest
+ * priority first while the prompt is over budget, and one fitted part (e.g.
+ * resume text) is cut to whatever room is left. Parts keep their order.
+ *
+ * Tokens are estimated locally rather than with a tokenizer round trip:
+ * roughly one per short word, more for long words and digit runs, one per
+ * symbol and per line break. That is close enough to budget against; the
+ * providers' real counts are recorded per call (AiTokenUsage).
+ */
+public class PromptBuilder {
+
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("\\h+");
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R");
+
+    // Shorter lines (a skill, a job title) can repeat legitimately; longer
+    // repeats are page headers/footers or copy-paste duplicates
+    private static final int MIN_DEDUPE_LENGTH = 40;
+
+    private static final String CUT_MARKER = "\n...";
+
+    private final int budget;
+    private final List<Part> parts = new ArrayList<>();
+    private boolean hasFitted;
+
+    private int estimatedTokens;
+    private int droppedParts;
+    private int cutChars;
+
+    /**
+     * @param budget maximum estimated tokens; 0 or less for no limit
+     */
+    public PromptBuilder(int budget) {
+        this.budget = budget > 0 ? budget : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Add text that is always kept.
+     */
+    public PromptBuilder add(String text) {
+        parts.add(new Part(text, Kind.FIXED, 0));
+        return this;
+    }
+
+    /**
+     * Add text that is dropped if the prompt is over budget. Lower priority
+     * goes first; among equal priorities, the part added last.
+     */
+    public PromptBuilder addOptional(String text, int priority) {
+        parts.add(new Part(text, Kind.OPTIONAL, priority));
+        return this;
+    }
+
+    /**
+     * Add the text that is cut (at a line boundary) to the room left once
+     * everything else is placed. At most one per prompt.
+     */
+    public PromptBuilder addFitted(String text) {
+        if (hasFitted) {
+            throw new IllegalStateException("Only one fitted part per prompt");
+        }
+        hasFitted = true;
+        parts.add(new Part(text, Kind.FITTED, 0));
+        return this;
+    }
+
+    public String build() {
+        List<Part> kept = new ArrayList<>(parts);
+        droppedParts = 0;
+        cutChars = 0;
+        int total = 0;
+        for (Part part : kept) {
+            total += part.tokens;
+        }
+
+        while (total > budget) {
+            Part victim = null;
+            for (Part part : kept) {
+                if (part.kind == Kind.OPTIONAL && (victim == null || part.priority <= victim.priority)) {
+                    victim = part;
+                }
+            }
+            if (victim == null) {
+                break;
+            }
+            kept.remove(victim);
+            total -= victim.tokens;
+            droppedParts++;
+        }
+
+        StringBuilder prompt = new StringBuilder();
+        for (Part part : kept) {
+            String text = part.text;
+            if (part.kind == Kind.FITTED && total > budget) {
+                int room = Math.max(0, budget - (total - part.tokens));
+                text = cut(text, room);
+                cutChars = part.text.length() - text.length();
+                total += estimateTokens(text) - part.tokens;
+            }
+            prompt.append(text);
+        }
+        estimatedTokens = total;
+        return prompt.toString();
+    }
+
+    /**
+     * Estimated tokens of the last built prompt.
+     */
+    public int estimatedTokens() {
+        return estimatedTokens;
+    }
+
+    /**
+     * Optional parts left out of the last built prompt.
+     */
+    public int droppedParts() {
+        return droppedParts;
+    }
+
+    /**
+     * Chars cut from the fitted part of the last built prompt.
+     */
+    public int cutChars() {
+        return cutChars;
+    }
+
+    /**
+     * Estimated token count of {@code text}.
+     */
+    public static int estimateTokens(CharSequence text) {
+        int[] tokens = new int[1];
+        scan(text, Integer.MAX_VALUE, tokens);
+        return tokens[0];
+    }
+
+    /**
+     * Tidy extracted text before it goes into a prompt: collapses runs of
+     * spaces and blank lines, drops lines matching {@code dropLines}
+     * (boilerplate such as page numbers), and drops repeats of long lines.
+     */
+    public static String compact(String text, Pattern dropLines) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        Set<String> seen = new HashSet<>();
+        boolean blank = false;
+        for (String raw : LINE_BREAK.split(text)) {
+            String line = HORIZONTAL_SPACE.matcher(raw).replaceAll(" ").trim();
+            if (line.isEmpty()) {
+                blank = out.length() > 0;
+                continue;
+            }
+            if (dropLines != null && dropLines.matcher(line).matches()) {
+                continue;
+            }
+            if (line.length() >= MIN_DEDUPE_LENGTH && !seen.add(line)) {
+                continue;
+            }
+            if (blank) {
+                out.append('\n');
+                blank = false;
+            }
+            out.append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * The longest prefix of {@code text} within {@code maxTokens}, ending at a
+     * line break if one is in the second half, else at a space.
+     */
+    private static String cut(String text, int maxTokens) {
+        int markerTokens = estimateTokens(CUT_MARKER);
+        if (maxTokens <= markerTokens) {
+            return "";
+        }
+        int end = scan(text, maxTokens - markerTokens, new int[1]);
+        int lineEnd = text.lastIndexOf('\n', end - 1);
+        if (lineEnd >= end / 2) {
+            end = lineEnd;
+        } else {
+            int space = text.lastIndexOf(' ', end - 1);
+            if (space > 0) {
+                end = space;
+            }
+        }
+        return text.substring(0, end).stripTrailing() + CUT_MARKER;
+    }
+
+    /**
+     * Count tokens up to {@code limit}.
+     *
+     * @param tokensOut receives the tokens counted
+     * @return the end of the longest prefix within the limit
+     */
+    private static int scan(CharSequence text, int limit, int[] tokensOut) {
+        int tokens = 0;
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            int start = i;
+            char c = text.charAt(i);
+            int pieceTokens;
+            if (c == '\n' || c == '\r') {
+                while (i < n && (text.charAt(i) == '\n' || text.charAt(i) == '\r')) {
+                    i++;
+                }
+                pieceTokens = 1;
+            } else if (Character.isWhitespace(c)) {
+                // Spaces are folded into the following word
+                i++;
+                pieceTokens = 0;
+            } else if (Character.isIdeographic(c)) {
+                i++;
+                pieceTokens = 1;
+            } else if (Character.isLetter(c)) {
+                while (i < n && Character.isLetter(text.charAt(i)) && !Character.isIdeographic(text.charAt(i))) {
+                    i++;
+                }
+                pieceTokens = 1 + (i - start - 1) / 6;
+            } else if (Character.isDigit(c)) {
+                while (i < n && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                pieceTokens = (i - start + 2) / 3;
+            } else {
+                i++;
+                pieceTokens = 1;
+            }
+            if (tokens + pieceTokens > limit) {
+                tokensOut[0] = tokens;
+                return start;
+            }
+            tokens += pieceTokens;
+        }
+        tokensOut[0] = tokens;
+        return n;
+    }
+
+    private enum Kind {
+        FIXED, OPTIONAL, FITTED
+    }
+
+    private static final class Part {
+
+        private final String text;
+        private final Kind kind;
+        private final int priority;
+        private final int tokens;
+
+        Part(String text, Kind kind, int priority) {
+            this.text = text != null ? text : "";
+            this.kind = kind;
+            this.priority = priority;
+            this.tokens = estimateTokens(this.text);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.easepath.backend.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Circuit breakers, API budget and latency for a set of named upstream
+ * providers, shared by the job search providers and the AI providers.
+ *
+ * {@link #guard} wraps one provider call: it is rejected outright while the
+ * provider's breaker is open or its budget is spent, and otherwise its
+ * outcome and latency are fed back into the breaker and the provider's
+ * LatencyTracker. {@link #hedgeDelay} turns those latencies into the delay
+ * after which {@link #hedged} fires the fallbacks.
+ */
+public class ProviderGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderGuard.class);
+
+    // Latencies kept per key for the hedge delay
+    private static final int LATENCY_SAMPLES = 200;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final Function<String, CircuitBreaker> breakerFactory;
+    private final Predicate<String> budget;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+
+    /**
+     * @param breakerFactory creates the breaker for a provider name on first
+     *                       use
+     * @param budget         takes one call from a provider's API budget,
+     *                       false if it is spent
+     */
+    public ProviderGuard(Function<String, CircuitBreaker> breakerFactory, Predicate<String> budget) {
+        this.breakerFactory = breakerFactory;
+        this.budget = budget;
+    }
+
+    public CircuitBreaker breaker(String provider) {
+        return circuitBreakers.computeIfAbsent(provider, breakerFactory);
+    }
+
+    /**
+     * Recent latencies under {@code key} - the provider name, or a finer key
+     * such as provider and operation.
+     */
+    public LatencyTracker latency(String key) {
+        return latencyTrackers.computeIfAbsent(key, k -> new LatencyTracker(LATENCY_SAMPLES, MIN_LATENCY_SAMPLES));
+    }
+
+    /**
+     * One call to {@code provider}, failing with CircuitOpenException or
+     * BudgetExhaustedException instead of subscribing to {@code call} when
+     * it may not run. The budget is only charged for calls the breaker lets
+     * through.
+     *
+     * The time of every call that ran is recorded under {@code latencyKey},
+     * however it ended: a timeout or failure at its full time, a cancelled
+     * call (a hedge loser) at the time it had run so far. Sampling successes
+     * only would drop exactly the slow tail and drag the hedge delay down.
+     */
+    public <T> Flux<T> guard(String provider, String latencyKey, Flux<T> call) {
+        return Flux.defer(() -> {
+            CircuitBreaker breaker = breaker(provider);
+            if (!breaker.tryAcquire()) {
+                return Flux.error(new CircuitOpenException(provider));
+            }
+            if (!budget.test(provider)) {
+                breaker.onIgnored();
+                return Flux.error(new BudgetExhaustedException(provider));
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> breaker.onSuccess(Duration.ofNanos(System.nanoTime() - start)))
+                    .doOnError(e -> breaker.onFailure(Duration.ofNanos(System.nanoTime() - start)))
+                    .doOnCancel(breaker::onIgnored)
+                    .doFinally(signal -> latency(latencyKey).record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    public <T> Mono<T> guard(String provider, String latencyKey, Mono<T> call) {
+        return guard(provider, latencyKey, call.flux()).singleOrEmpty();
+    }
+
+    /**
+     * Hedge once the provider is slower than its recent {@code percentile}
+     * latency under {@code latencyKey}. Until enough samples exist, use
+     * {@code defaultDelay}; never less than {@code minDelay}.
+     */
+    public Duration hedgeDelay(String latencyKey, double percentile, Duration defaultDelay, Duration minDelay) {
+        Duration observed = latency(latencyKey).percentile(percentile);
+        Duration delay = observed != null ? observed : defaultDelay;
+        return delay.compareTo(minDelay) < 0 ? minDelay : delay;
+    }
+
+    /**
+     * HEDGED REQUEST: start {@code fallbacks} after {@code hedgeDelay}, or
+     * immediately if {@code primaryCall} completes empty (failed) first. The
+     * first value wins and the other side is cancelled; empty if both sides
+     * came back empty.
+     *
+     * @param onHedge called if the fallbacks start because the delay passed
+     *                with the primary still running (not on plain failover)
+     */
+    public static <T> Mono<T> hedged(Mono<T> primaryCall, Mono<T> fallbacks, Duration hedgeDelay,
+            Runnable onHedge) {
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+        Mono<T> primary = primaryCall.switchIfEmpty(Mono.defer(() -> {
+            primaryFailed.tryEmitEmpty();
+            return Mono.empty();
+        }));
+        Mono<T> secondary = Mono.firstWithSignal(Mono.delay(hedgeDelay).map(tick -> true),
+                primaryFailed.asMono().thenReturn(false))
+                .doOnNext(isHedge -> {
+                    if (isHedge) {
+                        onHedge.run();
+                    }
+                })
+                .then(fallbacks);
+
+        return Mono.firstWithValue(primary, secondary)
+                // Both sides came back empty - every provider failed
+                .onErrorResume(NoSuchElementException.class, e -> Mono.empty());
+    }
+
+    /**
+     * The providers named in {@code order} (case-insensitive, duplicates
+     * dropped), in that order. Unknown names are logged and ignored.
+     *
+     * @param property the setting {@code order} comes from, for the logs
+     */
+    public static <P> List<P> prioritize(List<P> available, Function<P, String> nameOf, List<String> order,
+            String property) {
+        Map<String, P> byName = new LinkedHashMap<>();
+        for (P provider : available) {
+            byName.put(nameOf.apply(provider), provider);
+        }
+
+        List<P> ordered = new ArrayList<>();
+        for (String name : order) {
+            P provider = byName.get(name.trim().toLowerCase(Locale.ROOT));
+            if (provider == null) {
+                log.warn(" Unknown provider '{}' in {}, ignoring", name, property);
+            } else if (!ordered.contains(provider)) {
+                ordered.add(provider);
+            }
+        }
+        log.info(" {} in priority order: {}", property, ordered.stream().map(nameOf).toList());
+        return Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Signals that a provider was skipped because its circuit is open.
+     */
+    public static class CircuitOpenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String provider) {
+            super(provider + " circuit is open");
+        }
+    }
+
+    /**
+     * Signals that a provider was skipped because it is over its API budget.
+     */
+    public static class BudgetExhaustedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public BudgetExhaustedException(String provider) {
+            super(provider + " API budget exhausted");
+        }
+    }
+}
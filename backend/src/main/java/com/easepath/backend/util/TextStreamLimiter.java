@@ -0,0 +1,93 @@
+package com.easepath.backend.util;
+
+/**
+ * Enforces a length limit on text that is streamed to a client piece by
+ * piece, cutting it the same way a complete answer would be cut: at the last
+ * space before the limit (or hard at the limit if that would lose more than
+ * half), followed by "...".
+ *
+ * Text is only released up to the last space seen so far, because anything
+ * already sent can't be taken back if the limit later falls inside that
+ * word. Not thread-safe; use one instance per stream.
+ */
+public final class TextStreamLimiter {
+
+    private static final String ELLIPSIS = "...";
+
+    private final int maxLength;
+    private final StringBuilder pending = new StringBuilder();
+    private int released;
+    private int sent;
+    private boolean truncated;
+
+    /**
+     * @param maxLength maximum answer length in chars; 0 or less for no limit
+     */
+    public TextStreamLimiter(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Add the next chunk of the answer.
+     *
+     * @return the text that can be sent now, possibly empty
+     */
+    public String accept(String chunk) {
+        if (truncated) {
+            return "";
+        }
+        pending.append(chunk);
+        if (maxLength > 0 && released + pending.length() > maxLength) {
+            return truncate();
+        }
+        int boundary = pending.lastIndexOf(" ");
+        while (boundary > 0 && pending.charAt(boundary - 1) == ' ') {
+            boundary--;
+        }
+        return boundary > 0 ? release(boundary) : "";
+    }
+
+    /**
+     * The rest of the answer once the stream has ended.
+     */
+    public String finish() {
+        return truncated ? "" : release(pending.length());
+    }
+
+    /**
+     * True once the limit was reached; the caller should stop the stream.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Chars handed out so far, including the ellipsis.
+     */
+    public int length() {
+        return sent;
+    }
+
+    private String truncate() {
+        // Released text always ends before a space, so the cut is in pending
+        int space = pending.lastIndexOf(" ", maxLength - released);
+        int cutAt = space >= 0 ? released + space : -1;
+        if (cutAt == -1 || cutAt < maxLength / 2) {
+            cutAt = maxLength;
+        }
+        String cut = release(cutAt - released);
+        String tail = cut.stripTrailing() + ELLIPSIS;
+        sent += tail.length() - cut.length();
+        truncated = true;
+        pending.setLength(0);
+        return tail;
+    }
+
+    private String release(int chars) {
+        String text = pending.substring(0, chars);
+        pending.delete(0, chars);
+        released += chars;
+        sent += chars;
+        return text;
+    }
+}
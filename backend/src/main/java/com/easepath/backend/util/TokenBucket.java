@@ -0,0 +1,77 @@
+package com.easepath.backend.util;
+
+import java.time.Clock;
+
+/**
+ * Token bucket rate limiter.
+ *
+ * Holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Each call takes one token; when the bucket is
+ * empty the call is refused rather than queued, so callers can fall back
+ * immediately. The capacity is the burst a caller may spend after being idle.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Clock clock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, Clock.systemUTC());
+    }
+
+    public TokenBucket(double capacity, double refillPerSecond, Clock clock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos();
+    }
+
+    /**
+     * Take one token if available.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Empty the bucket, e.g. when the upstream says we are over its limit.
+     */
+    public synchronized void drain() {
+        refill();
+        tokens = 0;
+    }
+
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    private void refill() {
+        long now = nowNanos();
+        if (now > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+
+    private long nowNanos() {
+        return clock.millis() * 1_000_000L;
+    }
+}
@@ -0,0 +1,119 @@
+package com.easepath.backend.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded heavy-hitters tracker: a Count-Min sketch for frequency estimates
+ * plus the {@code k} items with the highest estimates.
+ *
+ * Memory is fixed (width x depth counters plus k candidates) no matter how
+ * many distinct items are seen, so it can count every search without
+ * growing. Estimates never undercount; with conservative update they
+ * overcount by at most a small fraction of the total. {@link #decay()} halves
+ * all counts so old popularity fades and the top-K follows current demand.
+ */
+public class TopKSketch<T> {
+
+    private final int k;
+    private final int width;
+    private final long[][] counters;
+    private final long[] seeds;
+    private final Map<T, Long> candidates;
+
+    public TopKSketch(int k, int width, int depth) {
+        if (k <= 0 || width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("k, width and depth must be positive");
+        }
+        this.k = k;
+        this.width = width;
+        this.counters = new long[depth][width];
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = 0x9E3779B97F4A7C15L * (i + 1);
+        }
+        this.candidates = new HashMap<>(k * 2);
+    }
+
+    /**
+     * Count one occurrence of {@code item}.
+     *
+     * @return the item's estimated count after this occurrence
+     */
+    public synchronized long add(T item) {
+        int hash = item.hashCode();
+        int[] columns = new int[counters.length];
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            columns[row] = column(hash, row);
+            min = Math.min(min, counters[row][columns[row]]);
+        }
+        // Conservative update: only raise the counters that are at the
+        // minimum - the others already overcount
+        long estimate = min + 1;
+        for (int row = 0; row < counters.length; row++) {
+            if (counters[row][columns[row]] < estimate) {
+                counters[row][columns[row]] = estimate;
+            }
+        }
+
+        if (candidates.containsKey(item) || candidates.size() < k) {
+            candidates.put(item, estimate);
+        } else {
+            Map.Entry<T, Long> weakest = null;
+            for (Map.Entry<T, Long> candidate : candidates.entrySet()) {
+                if (weakest == null || candidate.getValue() < weakest.getValue()) {
+                    weakest = candidate;
+                }
+            }
+            if (weakest != null && estimate > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(item, estimate);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * The tracked items, most frequent first.
+     */
+    public synchronized List<Entry<T>> top() {
+        List<Entry<T>> top = new ArrayList<>(candidates.size());
+        candidates.forEach((item, count) -> top.add(new Entry<>(item, count)));
+        top.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return top;
+    }
+
+    /**
+     * Halve every count. Items whose count drops to zero leave the top-K.
+     */
+    public synchronized void decay() {
+        for (long[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        Iterator<Map.Entry<T, Long>> it = candidates.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<T, Long> candidate = it.next();
+            long halved = candidate.getValue() >>> 1;
+            if (halved == 0) {
+                it.remove();
+            } else {
+                candidate.setValue(halved);
+            }
+        }
+    }
+
+    private int column(int hash, int row) {
+        long mixed = (hash ^ seeds[row]) * 0xC2B2AE3D27D4EB4FL;
+        mixed ^= mixed >>> 31;
+        return (int) Math.floorMod(mixed, (long) width);
+    }
+
+    public record Entry<T>(T item, long count) {
+    }
+}
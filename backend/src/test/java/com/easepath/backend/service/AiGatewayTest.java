@@ -0,0 +1,159 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+class AiGatewayTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sharedLimitCapsCallsInFlightAcrossClasses() {
+        AiGateway gateway = new AiGateway(environment()
+                .withProperty("easepath.ai.gateway.interactive.max-wait", "50ms"), 2);
+
+        AiGateway.Permit first = gateway.acquire(AiOperation.RESUME_SCORE);
+        AiGateway.Permit second = gateway.acquire(AiOperation.ESSAY);
+
+        assertThatThrownBy(() -> gateway.acquire(AiOperation.FIELD_MAPPING))
+                .isInstanceOf(AiGateway.OverloadedException.class)
+                .hasMessageContaining("interactive").hasMessageContaining("queue wait expired");
+        assertThat(classMetrics(gateway, "interactive")).containsEntry("shedDeadline", 1L).containsEntry("queued", 0);
+
+        first.close();
+        second.close();
+        assertThat(gateway.getMetrics()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void fullQueueIsShedImmediately() {
+        AiGateway gateway = new AiGateway(environment()
+                .withProperty("easepath.ai.gateway.background.max-concurrent", "1")
+                .withProperty("easepath.ai.gateway.background.max-queue", "0")
+                .withProperty("easepath.ai.gateway.background.max-wait", "10s"), 6);
+
+        AiGateway.Permit permit = gateway.acquire(AiOperation.RESUME_PARSE);
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.acquire(AiOperation.RESUME_SCORE))
+                .isInstanceOf(AiGateway.OverloadedException.class)
+                .hasMessageContaining("queue full");
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        permit.close();
+
+        assertThat(classMetrics(gateway, "background")).containsEntry("shedQueueFull", 1L);
+    }
+
+    @Test
+    void busyBackgroundClassDoesNotBlockInteractiveCalls() {
+        AiGateway gateway = new AiGateway(environment()
+                .withProperty("easepath.ai.gateway.background.max-concurrent", "1")
+                .withProperty("easepath.ai.gateway.background.max-wait", "50ms"), 6);
+
+        AiGateway.Permit background = gateway.acquire(AiOperation.RESUME_SCORE);
+        assertThatThrownBy(() -> gateway.acquire(AiOperation.RESUME_PARSE))
+                .isInstanceOf(AiGateway.OverloadedException.class);
+        AiGateway.Permit interactive = gateway.acquire(AiOperation.FIELD_MAPPING);
+
+        assertThat(gateway.getMetrics()).containsEntry("inFlight", 2);
+        interactive.close();
+        background.close();
+    }
+
+    @Test
+    void freedSlotGoesToQueuedInteractiveCallsFirst() throws Exception {
+        AiGateway gateway = new AiGateway(environment(), 1);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+
+        AiGateway.Permit holder = gateway.acquire(AiOperation.RESUME_SCORE);
+        Future<?> background = executor.submit(() -> call(gateway, AiOperation.RESUME_PARSE, admitted));
+        awaitQueued(gateway, "background", 1);
+        Future<?> interactive = executor.submit(() -> call(gateway, AiOperation.ESSAY, admitted));
+        awaitQueued(gateway, "interactive", 1);
+
+        holder.close();
+        background.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+
+        assertThat(admitted).containsExactly("essay", "resume-parse");
+    }
+
+    @Test
+    void callsOfOneClassAreAdmittedInArrivalOrder() throws Exception {
+        AiGateway gateway = new AiGateway(environment(), 1);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+
+        AiGateway.Permit holder = gateway.acquire(AiOperation.ESSAY);
+        Future<?> first = executor.submit(() -> call(gateway, AiOperation.FIELD_MAPPING, admitted));
+        awaitQueued(gateway, "interactive", 1);
+        Future<?> second = executor.submit(() -> call(gateway, AiOperation.ESSAY, admitted));
+        awaitQueued(gateway, "interactive", 2);
+
+        holder.close();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(admitted).containsExactly("field-mapping", "essay");
+        assertThat(classMetrics(gateway, "interactive")).containsEntry("admitted", 3L).containsEntry("shedDeadline", 0L);
+    }
+
+    @Test
+    void closingAPermitTwiceReleasesOneSlot() {
+        AiGateway gateway = new AiGateway(environment(), 2);
+
+        AiGateway.Permit permit = gateway.acquire(AiOperation.ESSAY);
+        AiGateway.Permit other = gateway.acquire(AiOperation.ESSAY);
+        permit.close();
+        permit.close();
+
+        assertThat(gateway.getMetrics()).containsEntry("inFlight", 1);
+        other.close();
+    }
+
+    // Boot's environment converts "50ms" to a Duration; a bare MockEnvironment
+    // cannot until it gets the same conversion service
+    private static MockEnvironment environment() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        return environment;
+    }
+
+    private static void call(AiGateway gateway, AiOperation operation, List<String> admitted) {
+        AiGateway.Permit permit = gateway.acquire(operation);
+        try {
+            admitted.add(operation.key());
+        } finally {
+            permit.close();
+        }
+    }
+
+    private static void awaitQueued(AiGateway gateway, String workload, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Integer.valueOf(queued).equals(classMetrics(gateway, workload).get("queued"))) {
+            assertThat(System.nanoTime()).as("%s calls queued", workload).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> classMetrics(AiGateway gateway, String workload) {
+        return (Map<String, Object>) ((Map<String, Object>) gateway.getMetrics().get("classes")).get(workload);
+    }
+}
@@ -0,0 +1,83 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class ApiBudgetTest {
+
+    private static ApiBudget budget(MockEnvironment env) {
+        return new ApiBudget(env, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void zeroRateMeansNoRateLimit() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("easepath.budget.jsearch.rate-per-minute", "0")
+                .withProperty("easepath.budget.jsearch.burst", "1");
+        ApiBudget budget = budget(env);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(budget.tryAcquire("jsearch")).isTrue();
+        }
+        assertThat(metrics(budget, "jsearch")).containsEntry("availableTokens", null);
+    }
+
+    @Test
+    void negativeRateIsTreatedAsNoRateLimit() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("easepath.budget.jsearch.rate-per-minute", "-5");
+
+        assertThat(budget(env).tryAcquire("jsearch")).isTrue();
+    }
+
+    @Test
+    void burstIsEnforcedWhenRateIsSet() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("easepath.budget.jsearch.rate-per-minute", "1")
+                .withProperty("easepath.budget.jsearch.burst", "2");
+        ApiBudget budget = budget(env);
+
+        assertThat(budget.tryAcquire("jsearch")).isTrue();
+        assertThat(budget.tryAcquire("jsearch")).isTrue();
+        assertThat(budget.tryAcquire("jsearch")).isFalse();
+    }
+
+    @Test
+    void dailyLimitCapsCallsAndZeroMeansNone() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("easepath.budget.jsearch.rate-per-minute", "0")
+                .withProperty("easepath.budget.jsearch.daily-limit", "3")
+                .withProperty("easepath.budget.theirstack.rate-per-minute", "0")
+                .withProperty("easepath.budget.theirstack.daily-limit", "0");
+        ApiBudget budget = budget(env);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(budget.tryAcquire("jsearch")).isTrue();
+        }
+        assertThat(budget.tryAcquire("jsearch")).isFalse();
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryAcquire("theirstack")).isTrue();
+        }
+    }
+
+    @Test
+    void backOffRefusesCallsEvenWithoutRateLimit() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("easepath.budget.jsearch.rate-per-minute", "0");
+        ApiBudget budget = budget(env);
+
+        budget.backOff("jsearch", Duration.ofMinutes(5));
+
+        assertThat(budget.tryAcquire("jsearch")).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> metrics(ApiBudget budget, String provider) {
+        return (Map<String, Object>) budget.getMetrics().get(provider);
+    }
+}
@@ -0,0 +1,99 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Mono;
+
+class CacheWarmerServiceTest {
+
+    private JobSearchService jobSearchService;
+    private ApiBudget apiBudget;
+    private SearchFrequencyTracker searchFrequency;
+    private CacheWarmerService warmer;
+
+    @BeforeEach
+    void setUp() {
+        jobSearchService = mock(JobSearchService.class);
+        apiBudget = mock(ApiBudget.class);
+        searchFrequency = new SearchFrequencyTracker(100, Duration.ofHours(6));
+        warmer = new CacheWarmerService(jobSearchService, searchFrequency, apiBudget, mock(TaskScheduler.class));
+        ReflectionTestUtils.setField(warmer, "enabled", true);
+        ReflectionTestUtils.setField(warmer, "hotKeys", 50);
+        ReflectionTestUtils.setField(warmer, "minSearches", 2L);
+        ReflectionTestUtils.setField(warmer, "refreshAhead", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(warmer, "maxRefreshesPerRun", 10);
+        ReflectionTestUtils.setField(warmer, "refreshConcurrency", 3);
+
+        when(jobSearchService.cachedFreshUntil(any())).thenReturn(Mono.empty());
+        when(apiBudget.tryAcquire(anyString())).thenReturn(true);
+    }
+
+    private void searched(String query, int times) {
+        JobSearchKey key = JobSearchKey.of(query, "all", null, null, null);
+        for (int i = 0; i < times; i++) {
+            searchFrequency.record(key);
+        }
+    }
+
+    @Test
+    void refreshHotKeysReturnsWithoutWaitingAndBoundsConcurrency() {
+        for (int i = 0; i < 8; i++) {
+            searched("query " + i, 5);
+        }
+        AtomicInteger started = new AtomicInteger();
+        when(jobSearchService.refreshAhead(any(), any())).thenAnswer(invocation -> Mono.<Boolean>never()
+                .doOnSubscribe(s -> started.incrementAndGet()));
+
+        // Every fetch hangs; the scheduler thread must still get control back
+        warmer.refreshHotKeys();
+        assertThat(started).hasValue(3);
+
+        // The run still in progress makes the next tick a no-op
+        warmer.refreshHotKeys();
+        assertThat(started).hasValue(3);
+    }
+
+    @Test
+    void refreshesOnlyStaleHotKeysUpToThePerRunCap() {
+        searched("cold", 1);
+        for (int i = 0; i < 12; i++) {
+            searched("hot " + i, 5);
+        }
+        JobSearchKey fresh = JobSearchKey.of("hot 0", "all", null, null, null);
+        when(jobSearchService.cachedFreshUntil(fresh)).thenReturn(Mono.just(Instant.now().plus(Duration.ofHours(2))));
+        when(jobSearchService.refreshAhead(any(), any())).thenReturn(Mono.just(true));
+
+        List<CacheWarmerService.Outcome> outcomes = warmer.refreshRun().collectList().block();
+
+        assertThat(outcomes).hasSize(10).containsOnly(CacheWarmerService.Outcome.REFRESHED);
+    }
+
+    @Test
+    void stopsStartingFetchesOnceTheWarmerBudgetIsUsedUp() {
+        for (int i = 0; i < 6; i++) {
+            searched("hot " + i, 5);
+        }
+        ReflectionTestUtils.setField(warmer, "refreshConcurrency", 1);
+        when(apiBudget.tryAcquire(ApiBudget.CACHE_WARMER)).thenReturn(true, true, false);
+        when(jobSearchService.refreshAhead(any(), any())).thenReturn(Mono.just(true));
+
+        List<CacheWarmerService.Outcome> outcomes = warmer.refreshRun().collectList().block();
+
+        assertThat(outcomes).containsExactly(CacheWarmerService.Outcome.REFRESHED,
+                CacheWarmerService.Outcome.REFRESHED, CacheWarmerService.Outcome.OVER_BUDGET);
+    }
+}
@@ -0,0 +1,50 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JobSearchCursorTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 10, 130, Integer.MAX_VALUE })
+    void roundTrips(int offset) {
+        String cursor = JobSearchCursor.encode(offset);
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(JobSearchCursor.decode(cursor)).isEqualTo(offset);
+        assertThat(JobSearchCursor.decode(" " + cursor + " ")).isEqualTo(offset);
+    }
+
+    @Test
+    void nullOrBlankIsTheFirstPage() {
+        assertThat(JobSearchCursor.decode(null)).isZero();
+        assertThat(JobSearchCursor.decode("")).isZero();
+        assertThat(JobSearchCursor.decode("  ")).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "10", "o:", "o:abc", "x:10", "o:99999999999", "o:-10" })
+    void rejectsMalformedOffsets(String decoded) {
+        String cursor = encodeRaw(decoded);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> JobSearchCursor.decode(cursor))
+                .withMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatIllegalArgumentException().isThrownBy(() -> JobSearchCursor.decode("not base64!"))
+                .withMessage("Invalid cursor");
+    }
+
+    private static String encodeRaw(String decoded) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
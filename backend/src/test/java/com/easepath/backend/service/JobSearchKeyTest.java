@@ -0,0 +1,69 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class JobSearchKeyTest {
+
+    @Test
+    void cosmeticDifferencesNormalizeToTheSameKey() {
+        JobSearchKey a = JobSearchKey.of("  Software   Engineer ", null, null, "fulltime, parttime", "No_Degree");
+        JobSearchKey b = JobSearchKey.of("software engineer", "ALL", "false", "PARTTIME,FULLTIME,fulltime",
+                " no_degree ,");
+
+        assertThat(a).isEqualTo(b).hasSameHashCodeAs(b);
+        assertThat(a.hash()).isEqualTo(b.hash());
+        assertThat(a.canonical()).isEqualTo("jobs|v3|software engineer|w0|all|false|FULLTIME,PARTTIME|no_degree");
+    }
+
+    @Test
+    void nullAndBlankParametersGetDefaults() {
+        JobSearchKey key = JobSearchKey.of(null, " ", null, "", null);
+
+        assertThat(key.getQuery()).isEmpty();
+        assertThat(key.getDatePosted()).isEqualTo("all");
+        assertThat(key.isRemoteJobsOnly()).isFalse();
+        assertThat(key.getEmploymentTypes()).isEmpty();
+        assertThat(key.getJobRequirements()).isEmpty();
+    }
+
+    @Test
+    void remoteOnlyIsTrueOnlyForTrue() {
+        assertThat(JobSearchKey.of("q", null, " TRUE ", null, null).isRemoteJobsOnly()).isTrue();
+        assertThat(JobSearchKey.of("q", null, "yes", null, null).isRemoteJobsOnly()).isFalse();
+        assertThat(JobSearchKey.of("q", null, "1", null, null).isRemoteJobsOnly()).isFalse();
+    }
+
+    @Test
+    void differentParametersGiveDifferentKeys() {
+        JobSearchKey base = JobSearchKey.of("nurse", "all", null, null, null);
+
+        assertThat(JobSearchKey.of("nurse", "week", null, null, null)).isNotEqualTo(base);
+        assertThat(JobSearchKey.of("nurse", "all", "true", null, null)).isNotEqualTo(base);
+        assertThat(JobSearchKey.of("nurse", "all", null, "INTERN", null)).isNotEqualTo(base);
+        assertThat(JobSearchKey.of("nurses", "all", null, null, null).hash()).isNotEqualTo(base.hash());
+    }
+
+    @Test
+    void windowsAreSeparateKeysOfTheSameSearch() {
+        JobSearchKey first = JobSearchKey.of("data analyst", null, null, null, null);
+        JobSearchKey second = first.forWindow(1);
+
+        assertThat(first.getWindow()).isZero();
+        assertThat(first.forWindow(0)).isSameAs(first);
+        assertThat(second.getWindow()).isEqualTo(1);
+        assertThat(second).isNotEqualTo(first);
+        assertThat(second.getQuery()).isEqualTo(first.getQuery());
+        assertThat(second.forWindow(0)).isEqualTo(first);
+        assertThat(first.forWindow(-3).getWindow()).isZero();
+    }
+
+    @Test
+    void hashIsFixedLengthWhateverTheQueryLength() {
+        assertThat(JobSearchKey.of("a", null, null, null, null).hash()).hasSize(22);
+        assertThat(JobSearchKey.of("x".repeat(5_000), null, null, null, null).hash())
+                .hasSize(22)
+                .matches("[A-Za-z0-9_-]+");
+    }
+}
@@ -0,0 +1,150 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.easepath.backend.dto.JobSearchResult;
+import com.easepath.backend.service.JobPostingStore.StoredPosting;
+import com.easepath.backend.util.GzipCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JobSearchWindowTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    @Test
+    void sliceCarriesTheEnvelopeAndThePage() throws Exception {
+        JobSearchWindow window = window(30, true);
+
+        JsonNode page = parse(window.slice(0, 10, 10, NO_LIMIT));
+
+        assertThat(page.get("status").asText()).isEqualTo("OK");
+        assertThat(page.get("page_size").asInt()).isEqualTo(10);
+        assertThat(ids(page)).containsExactlyElementsOf(range(10, 20));
+        assertThat(nextOffset(page)).isEqualTo(20);
+    }
+
+    @Test
+    void cursorsWalkTheWindowWithoutGapsOrRepeats() throws Exception {
+        JobSearchWindow window = window(30, true);
+        List<String> seen = new ArrayList<>();
+
+        Integer offset = 0;
+        while (offset != null && offset < 30) {
+            JsonNode page = parse(window.slice(0, offset, 7, NO_LIMIT));
+            seen.addAll(ids(page));
+            offset = nextOffset(page);
+        }
+
+        assertThat(seen).containsExactlyElementsOf(range(0, 30));
+        // A full window points past itself, at the next upstream window
+        assertThat(offset).isEqualTo(30);
+    }
+
+    @Test
+    void pageNeverCrossesIntoTheNextWindow() throws Exception {
+        JobSearchWindow window = window(30, true);
+
+        JsonNode page = parse(window.slice(30, 55, 10, NO_LIMIT));
+
+        assertThat(ids(page)).containsExactlyElementsOf(range(25, 30));
+        assertThat(nextOffset(page)).isEqualTo(60);
+    }
+
+    @Test
+    void shortWindowEndsTheResults() throws Exception {
+        JobSearchWindow window = window(12, false);
+
+        JsonNode last = parse(window.slice(0, 10, 10, NO_LIMIT));
+
+        assertThat(ids(last)).containsExactly("job-10", "job-11");
+        assertThat(last.get("next_cursor").isNull()).isTrue();
+    }
+
+    @Test
+    void askingPastTheEndOfAFullWindowGivesNoCursor() throws Exception {
+        // A local answer is marked full; asked past its end it must not hand
+        // back a cursor to the same offset
+        JobSearchWindow window = window(5, true);
+
+        JsonNode page = parse(window.slice(0, 5, 10, NO_LIMIT));
+
+        assertThat(ids(page)).isEmpty();
+        assertThat(page.get("next_cursor").isNull()).isTrue();
+    }
+
+    @Test
+    void noCursorAtOrPastMaxOffset() throws Exception {
+        JobSearchWindow window = window(30, true);
+
+        assertThat(nextOffset(parse(window.slice(0, 10, 10, 30)))).isEqualTo(20);
+        assertThat(parse(window.slice(0, 20, 10, 30)).get("next_cursor").isNull()).isTrue();
+        assertThat(parse(window.slice(0, 0, 10, 5)).get("next_cursor").isNull()).isTrue();
+    }
+
+    @Test
+    void slicesAreMemoized() {
+        JobSearchWindow window = window(30, true);
+
+        JobSearchResult first = window.slice(0, 10, 10, NO_LIMIT);
+
+        assertThat(window.slice(0, 10, 10, NO_LIMIT)).isSameAs(first);
+        assertThat(window.slice(0, 10, 5, NO_LIMIT)).isNotSameAs(first);
+    }
+
+    @Test
+    void emptyEnvelopeStillProducesValidJson() throws Exception {
+        JobSearchWindow window = new JobSearchWindow(null, "{}", range(0, 3), postings(range(0, 3)), false);
+
+        JsonNode page = parse(window.slice(0, 0, 10, NO_LIMIT));
+
+        assertThat(page.get("page_size").asInt()).isEqualTo(10);
+        assertThat(ids(page)).containsExactlyElementsOf(range(0, 3));
+    }
+
+    private static JobSearchWindow window(int size, boolean full) {
+        List<String> ids = range(0, size);
+        return new JobSearchWindow(null, "{\"status\":\"OK\"}", ids, postings(ids), full);
+    }
+
+    private static Map<String, StoredPosting> postings(List<String> ids) {
+        Map<String, StoredPosting> postings = new HashMap<>();
+        for (String id : ids) {
+            byte[] raw = ("{\"job_id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            postings.put(id, new StoredPosting(GzipCodec.compress(raw), raw.length));
+        }
+        return postings;
+    }
+
+    private static List<String> range(int from, int to) {
+        List<String> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ids.add("job-" + i);
+        }
+        return ids;
+    }
+
+    private static JsonNode parse(JobSearchResult result) throws Exception {
+        return MAPPER.readTree(result.getJson());
+    }
+
+    private static List<String> ids(JsonNode page) {
+        List<String> ids = new ArrayList<>();
+        page.get("data").forEach(job -> ids.add(job.get("job_id").asText()));
+        return ids;
+    }
+
+    private static Integer nextOffset(JsonNode page) {
+        JsonNode cursor = page.get("next_cursor");
+        return cursor.isNull() ? null : JobSearchCursor.decode(cursor.asText());
+    }
+}
@@ -0,0 +1,103 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Build and query latency of LocalJobIndex at 100k postings.
+ *
+ * Not part of the regular test run (the name doesn't match surefire's
+ * includes); run it on its own with
+ * {@code mvn test -Dtest=LocalJobIndexBenchmark}.
+ */
+class LocalJobIndexBenchmark {
+
+    private static final int POSTINGS = 100_000;
+    private static final int BATCH = 1_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1_000;
+
+    private static final String[] LEVELS = { "Junior", "Senior", "Staff", "Lead", "Principal", "" };
+    private static final String[] ROLES = { "Software Engineer", "Data Scientist", "Product Manager",
+            "Frontend Developer", "Backend Developer", "DevOps Engineer", "Data Analyst", "Registered Nurse",
+            "Machine Learning Engineer", "QA Engineer", "Site Reliability Engineer", "Designer" };
+    private static final String[] SKILLS = { "java", "python", "kotlin", "react", "typescript", "sql", "aws",
+            "kubernetes", "spark", "go", "rust", "c++", "terraform", "figma", "excel" };
+    private static final String[] CITIES = { "Austin", "Seattle", "New York", "Chicago", "Denver", "Boston",
+            "San Francisco", "Atlanta" };
+    private static final String[] TYPES = { "FULLTIME", "PARTTIME", "CONTRACTOR", "INTERN" };
+
+    @Test
+    void search100kPostings() {
+        Random random = new Random(42);
+        LocalJobIndex index = new LocalJobIndex(null, POSTINGS, Duration.ofHours(6));
+        Instant now = Instant.now();
+
+        long buildStart = System.nanoTime();
+        for (int start = 0; start < POSTINGS; start += BATCH) {
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (int i = start; i < start + BATCH; i++) {
+                batch.put("job" + i, posting(random, now));
+            }
+            index.addAll(batch, now);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+        assertThat(index.getStats()).containsEntry("postings", POSTINGS);
+        System.out.printf("Indexed %d postings in %d ms; %s%n", POSTINGS, buildMillis, index.getStats());
+
+        Map<String, JobSearchKey> queries = new LinkedHashMap<>();
+        queries.put("common term", JobSearchKey.of("engineer", "all", null, null, null));
+        queries.put("two terms", JobSearchKey.of("software engineer", "all", null, null, null));
+        queries.put("role + city", JobSearchKey.of("senior data scientist in seattle", "all", null, null, null));
+        queries.put("rare term", JobSearchKey.of("rust designer", "all", null, null, null));
+        queries.put("filtered", JobSearchKey.of("backend developer", "week", "true", "FULLTIME", null));
+        queries.put("no match", JobSearchKey.of("astronaut", "all", null, null, null));
+
+        for (Map.Entry<String, JobSearchKey> query : queries.entrySet()) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                index.search(query.getValue(), 30);
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            int results = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                List<String> found = index.search(query.getValue(), 30);
+                nanos[i] = System.nanoTime() - start;
+                results = found.size();
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-12s %2d results  p50 %7.3f ms  p99 %7.3f ms  max %7.3f ms%n", query.getKey(),
+                    results, nanos[MEASURED_ROUNDS / 2] / 1e6, nanos[MEASURED_ROUNDS * 99 / 100] / 1e6,
+                    nanos[MEASURED_ROUNDS - 1] / 1e6);
+        }
+    }
+
+    private static String posting(Random random, Instant now) {
+        String title = (LEVELS[random.nextInt(LEVELS.length)] + " " + ROLES[random.nextInt(ROLES.length)]).trim();
+        StringBuilder skills = new StringBuilder();
+        for (int s = 0; s < 4; s++) {
+            if (s > 0) {
+                skills.append(',');
+            }
+            skills.append('"').append(SKILLS[random.nextInt(SKILLS.length)]).append('"');
+        }
+        return "{\"job_title\":\"" + title + "\",\"employer_name\":\"Company " + random.nextInt(5_000)
+                + "\",\"job_city\":\"" + CITIES[random.nextInt(CITIES.length)] + "\",\"job_state\":\"US\""
+                + ",\"job_is_remote\":" + random.nextBoolean()
+                + ",\"job_employment_type\":\"" + TYPES[random.nextInt(TYPES.length)] + "\""
+                + ",\"job_required_skills\":[" + skills + "]"
+                + ",\"job_posted_at_datetime_utc\":\"" + now.minusSeconds(random.nextInt(30 * 86_400)) + "\""
+                + ",\"job_description\":\"We are hiring a " + title + " to work with "
+                + SKILLS[random.nextInt(SKILLS.length)] + " and " + SKILLS[random.nextInt(SKILLS.length)]
+                + " on our platform team.\"}";
+    }
+}
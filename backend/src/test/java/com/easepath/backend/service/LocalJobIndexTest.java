@@ -0,0 +1,170 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class LocalJobIndexTest {
+
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+
+    private static LocalJobIndex index(int maxPostings) {
+        return new LocalJobIndex(null, maxPostings, MAX_AGE);
+    }
+
+    private static String posting(String title, String employer, String city, boolean remote, String type,
+            String description, Instant postedAt) {
+        return "{\"job_title\":\"" + title + "\",\"employer_name\":\"" + employer + "\",\"job_city\":\"" + city
+                + "\",\"job_is_remote\":" + remote + ",\"job_employment_type\":\"" + type
+                + "\",\"job_description\":\"" + description + "\""
+                + (postedAt != null ? ",\"job_posted_at_datetime_utc\":\"" + postedAt + "\"" : "") + "}";
+    }
+
+    private static String posting(String title, String description) {
+        return posting(title, "Acme", "Austin", false, "FULLTIME", description, null);
+    }
+
+    private static JobSearchKey key(String query) {
+        return JobSearchKey.of(query, "all", null, null, null);
+    }
+
+    @Test
+    void everyQueryTermMustMatchAndOneInTheTitle() {
+        LocalJobIndex index = index(100);
+        index.addAll(Map.of(
+                "both", posting("Java Developer", "backend services"),
+                "titleOnly", posting("Java Engineer", "frontend work"),
+                "descriptionOnly", posting("Engineer", "java and developer tooling")), Instant.now());
+
+        assertThat(index.search(key("java developer"), 10)).containsExactly("both");
+        // Both terms appear, but neither in the title
+        assertThat(index.search(key("tooling developer"), 10)).isEmpty();
+    }
+
+    @Test
+    void stopWordsAreIgnoredAndSymbolsKeptDistinct() {
+        LocalJobIndex index = index(100);
+        index.addAll(Map.of(
+                "cpp", posting("C++ Developer", ""),
+                "csharp", posting("C# Developer", ""),
+                "c", posting("C Developer", "")), Instant.now());
+
+        assertThat(index.search(key("jobs for c++ developer in"), 10)).containsExactly("cpp");
+        assertThat(index.search(key("c#"), 10)).containsExactly("csharp");
+        assertThat(index.search(key("the and of"), 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByFieldWeightThenNewestPosting() {
+        LocalJobIndex index = index(100);
+        Instant now = Instant.now();
+        Map<String, String> postings = new LinkedHashMap<>();
+        postings.put("older", posting("Python Engineer", "Acme", "Austin", false, "FULLTIME", "", now.minusSeconds(7200)));
+        postings.put("newer", posting("Python Engineer", "Acme", "Austin", false, "FULLTIME", "", now.minusSeconds(60)));
+        postings.put("alsoInDescription", posting("Python Engineer", "Acme", "Austin", false, "FULLTIME",
+                "python everywhere", now.minusSeconds(99999)));
+        index.addAll(postings, now);
+
+        assertThat(index.search(key("python"), 10)).containsExactly("alsoInDescription", "newer", "older");
+        assertThat(index.search(key("python"), 2)).containsExactly("alsoInDescription", "newer");
+    }
+
+    @Test
+    void termBitmaskHandlesMoreTermsThanFitInAnInt() {
+        LocalJobIndex index = index(100);
+        String title = IntStream.range(0, 40).mapToObj(i -> "w" + i).collect(Collectors.joining(" "));
+        index.addAll(Map.of("long", posting(title, "")), Instant.now());
+
+        // Only the first 31 terms are used; the 32nd bit would overflow
+        assertThat(index.search(key(title), 10)).containsExactly("long");
+        assertThat(index.search(key(title + " missing"), 10)).containsExactly("long");
+    }
+
+    @Test
+    void termMatchedTwiceDoesNotStandInForAMissingTerm() {
+        LocalJobIndex index = index(100);
+        index.addAll(Map.of("java", posting("Java Java Engineer", "java java")), Instant.now());
+
+        assertThat(index.search(key("java kotlin"), 10)).isEmpty();
+    }
+
+    @Test
+    void appliesRemoteEmploymentTypeAndDateFilters() {
+        LocalJobIndex index = index(100);
+        Instant now = Instant.now();
+        index.addAll(Map.of(
+                "remoteFull", posting("Data Analyst", "Acme", "Austin", true, "FULLTIME", "", now.minusSeconds(3600)),
+                "onsitePart", posting("Data Analyst", "Acme", "Austin", false, "PARTTIME", "", now.minusSeconds(3600)),
+                "oldPost", posting("Data Analyst", "Acme", "Austin", true, "FULLTIME", "",
+                        now.minus(Duration.ofDays(10)))), now);
+
+        assertThat(index.search(JobSearchKey.of("data analyst", "all", "true", null, null), 10))
+                .containsExactlyInAnyOrder("remoteFull", "oldPost");
+        assertThat(index.search(JobSearchKey.of("data analyst", "all", null, "parttime", null), 10))
+                .containsExactly("onsitePart");
+        assertThat(index.search(JobSearchKey.of("data analyst", "week", null, null, null), 10))
+                .containsExactlyInAnyOrder("remoteFull", "onsitePart");
+        // Requirements can't be evaluated locally
+        assertThat(index.search(JobSearchKey.of("data analyst", "all", null, null, "no_degree"), 10)).isEmpty();
+    }
+
+    @Test
+    void skipsPostingsFetchedLongerThanMaxAgeAgo() {
+        LocalJobIndex index = index(100);
+        index.addAll(Map.of("stale", posting("Nurse", "")), Instant.now().minus(MAX_AGE).minusSeconds(1));
+        index.addAll(Map.of("fresh", posting("Nurse", "")), Instant.now());
+
+        assertThat(index.search(key("nurse"), 10)).containsExactly("fresh");
+    }
+
+    @Test
+    void reindexingAPostingReplacesItsTerms() {
+        LocalJobIndex index = index(100);
+        index.addAll(Map.of("job", posting("Java Developer", "")), Instant.now());
+        index.addAll(Map.of("job", posting("Rust Developer", "")), Instant.now());
+
+        assertThat(index.search(key("java"), 10)).isEmpty();
+        assertThat(index.search(key("rust"), 10)).containsExactly("job");
+        assertThat(index.getStats()).containsEntry("postings", 1).containsEntry("deadOrdinals", 1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyFetchedPostingsBeyondTheCap() {
+        LocalJobIndex index = index(3);
+        for (int i = 0; i < 5; i++) {
+            index.addAll(Map.of("job" + i, posting("Welder", "")), Instant.now());
+        }
+
+        assertThat(index.search(key("welder"), 10)).containsExactlyInAnyOrder("job2", "job3", "job4");
+        assertThat(index.getStats()).containsEntry("postings", 3);
+    }
+
+    @Test
+    void compactsOnceDeadOrdinalsOutnumberLiveOnes() {
+        LocalJobIndex index = index(100);
+        Map<String, String> batch = new LinkedHashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            batch.put("job" + i, posting(i % 2 == 0 ? "Even Cook" : "Odd Cook", ""));
+        }
+        index.addAll(batch, Instant.now());
+
+        // 1100 evicted ordinals > max(1024, 100 live) - compacted and renumbered
+        assertThat(index.getStats()).containsEntry("postings", 100).containsEntry("deadOrdinals", 0);
+        List<String> even = index.search(key("even cook"), 100);
+        assertThat(even).hasSize(50).allMatch(id -> Integer.parseInt(id.substring(3)) >= 1100
+                && Integer.parseInt(id.substring(3)) % 2 == 0);
+
+        // Still consistent for re-indexing after renumbering
+        index.addAll(Map.of("job1100", posting("Baker", "")), Instant.now());
+        assertThat(index.search(key("baker"), 10)).containsExactly("job1100");
+        assertThat(index.search(key("even cook"), 100)).hasSize(49).doesNotContain("job1100");
+    }
+}
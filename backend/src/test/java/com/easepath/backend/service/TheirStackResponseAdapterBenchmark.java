@@ -0,0 +1,102 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Allocation and latency of TheirStackResponseAdapter against the
+ * tree-based transform it replaced (TreeTheirStackAdapter).
+ *
+ * Not part of the regular test run (the name doesn't match surefire's
+ * includes); run it on its own with
+ * {@code mvn test -Dtest=TheirStackResponseAdapterBenchmark}.
+ */
+class TheirStackResponseAdapterBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 2_000;
+
+    private final TheirStackResponseAdapter adapter = new TheirStackResponseAdapter(new ObjectMapper().getFactory());
+    private final TreeTheirStackAdapter reference = new TreeTheirStackAdapter();
+
+    @Test
+    void compareWithTreeBasedTransform() {
+        for (int jobs : new int[] { 10, 30 }) {
+            String body = body(jobs, 3_000);
+            assertThat(adapt(body)).isEqualTo(reference.transform(body));
+            System.out.printf("%d jobs, %d KB body%n", jobs, body.length() / 1024);
+            measure("  tree     ", reference::transform, body);
+            measure("  streaming", this::adapt, body);
+        }
+    }
+
+    private String adapt(String body) {
+        try {
+            return adapter.transform(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void measure(String name, UnaryOperator<String> transform, String body) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += transform.apply(body).length();
+        }
+
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += transform.apply(body).length();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocatedPerCall = (threads.getThreadAllocatedBytes(thread) - allocatedBefore) / MEASURED_ROUNDS;
+
+        Arrays.sort(nanos);
+        System.out.printf("%s  %5d KB allocated/call  p50 %6.3f ms  p99 %6.3f ms  (%d)%n", name,
+                allocatedPerCall / 1024, nanos[MEASURED_ROUNDS / 2] / 1e6, nanos[MEASURED_ROUNDS * 99 / 100] / 1e6,
+                sink % 10);
+    }
+
+    /**
+     * A TheirStack-shaped body with the fields the adapter skips as well as
+     * the ones it maps.
+     */
+    private static String body(int jobs, int descriptionLength) {
+        String description = "Lorem ipsum dolor sit amet, \\\"quoted\\\" text. ".repeat(descriptionLength / 45);
+        StringBuilder body = new StringBuilder("{\"metadata\":{\"total_results\":1234,\"truncated_results\":0},"
+                + "\"data\":[");
+        for (int i = 0; i < jobs; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(1_000_000 + i)
+                    .append(",\"job_title\":\"Senior Software Engineer ").append(i)
+                    .append("\",\"url\":\"https://jobs.example.com/").append(i)
+                    .append("\",\"final_url\":null,\"date_posted\":\"2024-05-01\",\"has_blurred_data\":false,")
+                    .append("\"company\":\"Company ").append(i)
+                    .append("\",\"company_object\":{\"name\":\"Company ").append(i)
+                    .append("\",\"domain\":\"example.com\",\"industry\":\"software\",\"employee_count\":250,")
+                    .append("\"logo\":\"https://logo.example.com/").append(i)
+                    .append(".png\",\"technology_slugs\":[\"aws\",\"react\",\"postgres\"],\"funding_stage\":\"B\"},")
+                    .append("\"job_location\":\"Austin, TX\",\"job_country_code\":\"US\",\"remote\":false,")
+                    .append("\"commitment\":\"full_time\",\"salary_string\":\"$150k-$180k\",\"min_annual_salary\":150000,")
+                    .append("\"hiring_team\":[{\"name\":\"Recruiter\",\"role\":\"talent\"}],")
+                    .append("\"technology_slugs\":[\"java\",\"spring\",\"kubernetes\",\"kafka\"],")
+                    .append("\"description\":\"").append(description).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.easepath.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The streaming adapter must produce exactly what the tree-based transform
+ * it replaced did, for well-formed and odd bodies alike.
+ */
+class TheirStackResponseAdapterTest {
+
+    private static final String JOB = "{\"id\":\"a1\",\"job_title\":\"Java Developer\",\"company\":\"Acme\","
+            + "\"job_location\":\"Austin, TX\",\"job_country_code\":\"US\",\"commitment\":\"part_time\","
+            + "\"date_posted\":\"2024-05-01\",\"description\":\"Build \\\"things\\\" \\u00e9\\n\","
+            + "\"url\":\"https://example.com/a1\",\"technology_slugs\":[\"java\",\"spring\"]}";
+
+    private final TheirStackResponseAdapter adapter = new TheirStackResponseAdapter(new ObjectMapper().getFactory());
+    private final TreeTheirStackAdapter reference = new TreeTheirStackAdapter();
+
+    /**
+     * What TheirStackProvider serves: an unreadable body becomes the empty
+     * response.
+     */
+    private String adapt(String body) {
+        try {
+            return adapter.transform(body);
+        } catch (Exception e) {
+            return TheirStackResponseAdapter.EMPTY_RESPONSE;
+        }
+    }
+
+    private void assertSameAsReference(String body) {
+        assertThat(adapt(body)).isEqualTo(reference.transform(body));
+    }
+
+    @Test
+    void mapsAJobToTheJSearchShape() {
+        String result = adapt("{\"data\":[" + JOB + "],\"metadata\":{\"total_results\":1}}");
+
+        assertThat(result).startsWith("{\"status\":\"OK\",\"data\":[{\"job_id\":\"a1\"")
+                .contains("\"employer_name\":\"Acme\"", "\"job_city\":\"Austin\"", "\"job_state\":\"TX\"",
+                        "\"job_employment_type\":\"PARTTIME\"",
+                        "\"job_posted_at_datetime_utc\":\"2024-05-01T00:00:00.000Z\"",
+                        "\"job_required_skills\":[\"java\",\"spring\"]");
+        assertSameAsReference("{\"data\":[" + JOB + "],\"metadata\":{\"total_results\":1}}");
+    }
+
+    @Test
+    void nullBodyIsTheEmptyResponse() {
+        assertThat(adapt(null)).isEqualTo(TheirStackResponseAdapter.EMPTY_RESPONSE);
+        assertSameAsReference(null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "   ", "{", "{\"data\":[", "{\"data\":[{\"id\":}]}", "not json" })
+    void unreadableBodiesAreTheEmptyResponse(String body) {
+        assertThat(adapt(body)).isEqualTo(TheirStackResponseAdapter.EMPTY_RESPONSE);
+        assertSameAsReference(body);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "{}", "{\"metadata\":{\"total_results\":0}}", "{\"data\":null}",
+            "{\"data\":{\"id\":1}}", "{\"data\":\"jobs\"}", "{\"data\":5}", "{\"data\":true}", "[1,2]", "\"data\"",
+            "42", "null" })
+    void missingOrNonArrayDataIsTheEmptyResponse(String body) {
+        assertThat(adapt(body)).isEqualTo(TheirStackResponseAdapter.EMPTY_RESPONSE);
+        assertSameAsReference(body);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"data\":[{\"id\":\"first\"}],\"data\":[{\"id\":\"second\"}]}",
+            "{\"data\":[{\"id\":\"first\"}],\"data\":null}",
+            "{\"data\":null,\"data\":[{\"id\":\"second\"}]}",
+            "{\"data\":[{\"id\":\"first\"}],\"data\":{\"id\":\"x\"}}",
+            "{\"data\":[{\"id\":\"a\",\"id\":\"b\",\"company_object\":{\"logo\":\"l\"},\"company_object\":{\"name\":\"n\"}}]}",
+            "{\"data\":[{\"technology_slugs\":[\"a\"],\"technology_slugs\":null}]}" })
+    void duplicateFieldsResolveToTheLastOne(String body) {
+        assertSameAsReference(body);
+    }
+
+    @Test
+    void unknownFieldsAreSkippedWhateverTheirShape() {
+        assertSameAsReference("{\"meta\":{\"a\":[1,{\"b\":null}]},\"data\":[{\"extra\":{\"x\":[[],{}]},"
+                + "\"id\":7,\"more\":[1,2,3],\"job_title\":\"T\",\"nested\":{\"id\":\"not me\"}}],\"tail\":[{}]}");
+    }
+
+    @Test
+    void oddFieldTypesRenderLikeJsonNodeAsText() {
+        assertSameAsReference("{\"data\":["
+                + "{\"id\":12345678901234567890,\"job_title\":1.5,\"company\":null,"
+                + "\"company_object\":{\"name\":true,\"logo\":null},\"job_location\":null,"
+                + "\"job_country_code\":null,\"commitment\":null,\"date_posted\":null,\"description\":null,"
+                + "\"url\":null,\"final_url\":\"https://f\",\"technology_slugs\":[1,null,true,{\"a\":1},\"x\"]},"
+                + "{\"company\":\"\",\"company_object\":[\"not\",\"an\",\"object\"],\"job_location\":[\"remote\"],"
+                + "\"commitment\":\"INTERN\",\"technology_slugs\":\"java\"},"
+                + "{\"company_object\":{},\"job_location\":\"Remote\",\"commitment\":\"weird\",\"url\":\"\"},"
+                + "1,\"str\",null,[],{}]}");
+    }
+
+    @Test
+    void matchesTheReferenceOnRandomJobs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<String> jobs = new ArrayList<>();
+            for (int j = random.nextInt(5); j >= 0; j--) {
+                jobs.add(randomJob(random));
+            }
+            String body = "{\"data\":[" + String.join(",", jobs) + "]}";
+            assertSameAsReference(body);
+        }
+    }
+
+    private static final String[] FIELDS = { "id", "job_title", "company", "company_object", "job_location",
+            "job_country_code", "commitment", "date_posted", "description", "url", "final_url", "technology_slugs",
+            "unknown" };
+
+    private static String randomJob(Random random) {
+        StringBuilder job = new StringBuilder("{");
+        boolean first = true;
+        for (String field : FIELDS) {
+            // Missing about a third of the time, occasionally twice
+            int copies = random.nextInt(3) == 0 ? 0 : random.nextInt(8) == 0 ? 2 : 1;
+            for (int c = 0; c < copies; c++) {
+                if (!first) {
+                    job.append(',');
+                }
+                first = false;
+                job.append('"').append(field).append("\":").append(randomValue(random, field));
+            }
+        }
+        return job.append('}').toString();
+    }
+
+    private static String randomValue(Random random, String field) {
+        return switch (random.nextInt(9)) {
+            case 0 -> "null";
+            case 1 -> String.valueOf(random.nextInt(1000));
+            case 2 -> String.valueOf(random.nextDouble());
+            case 3 -> String.valueOf(random.nextBoolean());
+            case 4 -> "[\"java\",1,null]";
+            case 5 -> "{\"name\":\"Obj Co\",\"logo\":\"https://logo\",\"x\":[1]}";
+            case 6 -> "\"\"";
+            case 7 -> switch (field) {
+                case "commitment" -> "\"" + new String[] { "full_time", "part_time", "internship", "Contract",
+                        "intern", "other" }[random.nextInt(6)] + "\"";
+                case "job_location" -> "\"" + new String[] { "Austin, TX", "Remote", "Berlin", "a,b,c", " , " }
+                        [random.nextInt(5)] + "\"";
+                default -> "\"text \\\"quoted\\\" \\u00fc " + random.nextInt(100) + "\"";
+            };
+            default -> "{}";
+        };
+    }
+}
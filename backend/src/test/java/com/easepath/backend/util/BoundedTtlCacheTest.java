@@ -0,0 +1,108 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private Instant in(Duration duration) {
+        return clock.instant().plus(duration);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, clock);
+        cache.put("a", "A", in(Duration.ofHours(1)));
+        cache.put("b", "B", in(Duration.ofHours(1)));
+
+        // Touching "a" makes "b" the least recently used
+        assertThat(cache.get("a")).isEqualTo("A");
+        cache.put("c", "C", in(Duration.ofHours(1)));
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntriesAreMissesAndRemoved() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("a", "A", in(Duration.ofMinutes(5)));
+
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(cache.get("a")).isEqualTo("A");
+
+        // Expiry is inclusive: at the instant itself the entry is gone
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+
+        BoundedTtlCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.expirations()).isEqualTo(1);
+        assertThat(stats.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void dropsExpiredEntriesBeforeEvictingLiveOnes() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, clock);
+        cache.put("short", "S", in(Duration.ofMinutes(1)));
+        cache.put("long", "L", in(Duration.ofHours(1)));
+        clock.advance(Duration.ofMinutes(2));
+
+        cache.put("new", "N", in(Duration.ofHours(1)));
+
+        assertThat(cache.get("long")).isEqualTo("L");
+        assertThat(cache.get("new")).isEqualTo("N");
+        assertThat(cache.stats().evictions()).isZero();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresValuesThatAreAlreadyExpiredOrNull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("past", "P", in(Duration.ofSeconds(-1)));
+        cache.put("now", "N", clock.instant());
+        cache.put("null", null, in(Duration.ofHours(1)));
+        cache.put("noExpiry", "X", null);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void putReplacesValueAndExpiry() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("a", "old", in(Duration.ofMinutes(1)));
+        cache.put("a", "new", in(Duration.ofHours(1)));
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.get("a")).isEqualTo("new");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAndClear() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("a", "A", in(Duration.ofHours(1)));
+        cache.put("b", "B", in(Duration.ofHours(1)));
+
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsANonPositiveBound() {
+        assertThatThrownBy(() -> new BoundedTtlCache<String, String>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
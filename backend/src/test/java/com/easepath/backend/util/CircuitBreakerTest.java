@@ -0,0 +1,177 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final Duration FAST = Duration.ofMillis(100);
+    private static final Duration SLOW = Duration.ofSeconds(10);
+    private static final Duration OPEN_FOR = Duration.ofSeconds(60);
+
+    private final MutableClock clock = new MutableClock();
+
+    // window 4, min 2 calls, 50% failures or 75% slow calls open it, 2 trials
+    private final CircuitBreaker breaker = new CircuitBreaker("jsearch", 4, 2, 0.5, Duration.ofSeconds(5), 0.75,
+            OPEN_FOR, 2, clock);
+
+    private void fail() {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure(FAST);
+    }
+
+    private void succeed(Duration latency) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(latency);
+    }
+
+    private void open() {
+        fail();
+        fail();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void waitOut() {
+        clock.advance(OPEN_FOR);
+    }
+
+    @Test
+    void staysClosedUntilMinCallsAreRecorded() {
+        fail();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail();
+        CircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(snapshot.failureRate()).isEqualTo(1.0);
+        assertThat(snapshot.openUntil()).isEqualTo(clock.instant().plus(OPEN_FOR));
+    }
+
+    @Test
+    void opensOnSlowCallsEvenWhenTheySucceed() {
+        succeed(SLOW);
+        succeed(FAST);
+        succeed(SLOW);
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        succeed(SLOW);
+
+        // 3 of 4 slow
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.snapshot().failureRate()).isZero();
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        succeed(FAST);
+        succeed(FAST);
+        succeed(FAST);
+        fail();
+        assertThat(breaker.snapshot().failureRate()).isEqualTo(0.25);
+        for (int i = 0; i < 4; i++) {
+            succeed(FAST);
+        }
+
+        // The failure was overwritten by the eighth call
+        assertThat(breaker.snapshot().failureRate()).isZero();
+        assertThat(breaker.snapshot().bufferedCalls()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsCallsWhileOpen() {
+        open();
+        clock.advance(OPEN_FOR.minusSeconds(1));
+
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheTrialCallsThrough() {
+        open();
+        waitOut();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpenClosesAfterEveryTrialSucceedsWithAFreshWindow() {
+        open();
+        waitOut();
+
+        succeed(FAST);
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        succeed(FAST);
+
+        CircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(snapshot.bufferedCalls()).isZero();
+        assertThat(snapshot.failureRate()).isZero();
+    }
+
+    @Test
+    void halfOpenReopensOnAFailedTrial() {
+        open();
+        waitOut();
+
+        fail();
+
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpenReopensOnASlowTrial() {
+        open();
+        waitOut();
+
+        succeed(SLOW);
+
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void anIgnoredTrialGivesItsPermitBack() {
+        open();
+        waitOut();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onIgnored();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void ignoredCallsNeverHandOutMorePermitsThanTrialsLeft() {
+        open();
+        waitOut();
+        succeed(FAST);
+
+        breaker.onIgnored();
+        breaker.onIgnored();
+
+        // One success so far - only one more trial is needed
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tripForHoldsOpenForAtLeastTheOpenDuration() {
+        breaker.tripFor(Duration.ofMinutes(5));
+        clock.advance(OPEN_FOR);
+        assertThat(breaker.tryAcquire()).isFalse();
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        CircuitBreaker other = new CircuitBreaker("other", 4, 2, 0.5, Duration.ofSeconds(5), 0.75, OPEN_FOR, 1,
+                clock);
+        other.tripFor(Duration.ofSeconds(1));
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(other.tryAcquire()).isFalse();
+    }
+}
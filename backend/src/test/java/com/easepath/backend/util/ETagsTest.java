@@ -0,0 +1,49 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ETagsTest {
+
+    private static final String HASH = "3f2a9c";
+
+    @Test
+    void strongTagsAreQuotedAndDifferPerCoding() {
+        assertThat(ETags.strong(HASH, false)).isEqualTo("\"3f2a9c\"");
+        assertThat(ETags.strong(HASH, true)).isEqualTo("\"3f2a9c-gzip\"");
+    }
+
+    @Test
+    void eitherCodingMatchesTheContent() {
+        assertThat(ETags.matches(ETags.strong(HASH, false), HASH)).isTrue();
+        assertThat(ETags.matches(ETags.strong(HASH, true), HASH)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "W/\"3f2a9c\"",
+            "W/\"3f2a9c-gzip\"",
+            "\"aaaa\", \"3f2a9c\"",
+            "\"aaaa\",W/\"3f2a9c-gzip\" , \"bbbb\"",
+            " * ",
+            "3f2a9c" })
+    void matchesWeakTagsListsAndWildcard(String ifNoneMatch) {
+        assertThat(ETags.matches(ifNoneMatch, HASH)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "\"aaaa\"", "\"aaaa\", W/\"bbbb\"", "\"3f2a9c0\"", "\"3f2a9c-br\"", "\"\"", "\"" })
+    void doesNotMatchOtherContent(String ifNoneMatch) {
+        assertThat(ETags.matches(ifNoneMatch, HASH)).isFalse();
+    }
+
+    @Test
+    void missingHeaderOrHashNeverMatches() {
+        assertThat(ETags.matches(null, HASH)).isFalse();
+        assertThat(ETags.matches("  ", HASH)).isFalse();
+        assertThat(ETags.matches("*", null)).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JsonRepairTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String ANSWER = """
+            {"score": 82, "summary": "Strong \\"backend\\" fit, {braces} and [brackets]",
+             "skills": ["Java", "Spring", {"name": "Mongo", "years": 3}],
+             "gaps": [], "meta": {"model": "x", "remote": true, "salary": null}}""";
+
+    @Test
+    void completeObjectIsReturnedUnchanged() {
+        assertThat(JsonRepair.extractObject(ANSWER)).isEqualTo(ANSWER);
+    }
+
+    @Test
+    void textAroundTheObjectIsDropped() {
+        String reply = "Here is the result:\n```json\n" + ANSWER + "\n```\nLet me know {if} you need more.";
+
+        assertThat(JsonRepair.extractObject(reply)).isEqualTo(ANSWER);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "{\"a\": 1, \"b\": \"tw        | {\"a\": 1}",
+            "{\"a\": 1, \"b\"             | {\"a\": 1}",
+            "{\"a\": \"x\", \"b\": 12      | {\"a\": \"x\"}",
+            "{\"a\": \"x\"                | {\"a\": \"x\"}",
+            "{\"a\": [\"x\", \"y\", \"z    | {\"a\": [\"x\", \"y\"]}",
+            "{\"a\": [1, 2                | {\"a\": [1]}",
+            "{\"a\": {\"b\": {\"c\": tr    | {\"a\": {\"b\": {}}}",
+            "{\"a\": [{\"b\": \"c\"}, {\"d | {\"a\": [{\"b\": \"c\"}, {}]}",
+            "{\"a\": \"say \\\"hi        | {}",
+            "{                           | {}" })
+    void truncatedObjectIsCutToItsLastCompleteMember(String reply, String expected) {
+        assertThat(JsonRepair.extractObject(reply)).isEqualTo(expected);
+    }
+
+    /**
+     * Wherever a reply is cut off, the repaired text must parse and hold
+     * nothing that was not in the reply.
+     */
+    @Test
+    void everyTruncationOfAnObjectRepairsToValidJson() throws Exception {
+        JsonNode full = MAPPER.readTree(ANSWER);
+        for (int end = 1; end <= ANSWER.length(); end++) {
+            String repaired = JsonRepair.extractObject(ANSWER.substring(0, end));
+
+            JsonNode node = MAPPER.readTree(repaired);
+            assertThat(node.isObject()).as("cut at %d: %s", end, repaired).isTrue();
+            assertContainedIn(node, full, repaired);
+        }
+    }
+
+    @Test
+    void replyWithoutAnObjectIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> JsonRepair.extractObject("Sorry, I can't help."))
+                .withMessage("No JSON object in AI response");
+        assertThatIllegalArgumentException().isThrownBy(() -> JsonRepair.extractObject(null));
+    }
+
+    @Test
+    void unbalancedObjectIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> JsonRepair.extractObject("{\"a\": [1, 2}"))
+                .withMessage("Unbalanced JSON in AI response");
+    }
+
+    // Objects may lose members and arrays trailing items; everything kept
+    // must match the original
+    private static void assertContainedIn(JsonNode part, JsonNode whole, String repaired) {
+        assertThat(part.getNodeType()).as(repaired).isEqualTo(whole.getNodeType());
+        if (part.isObject()) {
+            part.fieldNames().forEachRemaining(name -> {
+                assertThat(whole.has(name)).as(repaired).isTrue();
+                assertContainedIn(part.get(name), whole.get(name), repaired);
+            });
+        } else if (part.isArray()) {
+            assertThat(part.size()).as(repaired).isLessThanOrEqualTo(whole.size());
+            for (int i = 0; i < part.size(); i++) {
+                assertContainedIn(part.get(i), whole.get(i), repaired);
+            }
+        } else {
+            assertThat(part).as(repaired).isEqualTo(whole);
+        }
+    }
+}
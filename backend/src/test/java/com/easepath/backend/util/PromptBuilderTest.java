@@ -0,0 +1,151 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class PromptBuilderTest {
+
+    private static final String FIXED = "alpha beta gamma\n";
+    private static final String LOW_FIRST = "delta epsilon\n";
+    private static final String HIGH = "zeta eta theta\n";
+    private static final String LOW_LAST = "iota kappa\n";
+
+    @Test
+    void estimatesTokensPerWordSymbolAndLineBreak() {
+        assertThat(PromptBuilder.estimateTokens("")).isZero();
+        assertThat(PromptBuilder.estimateTokens("hello   world")).isEqualTo(2);
+        assertThat(PromptBuilder.estimateTokens("a, b.")).isEqualTo(4);
+        assertThat(PromptBuilder.estimateTokens("one\r\n\n\ntwo")).isEqualTo(3);
+        // Long words and digit runs cost more than one token
+        assertThat(PromptBuilder.estimateTokens("internationalization")).isEqualTo(4);
+        assertThat(PromptBuilder.estimateTokens("2024")).isEqualTo(2);
+        assertThat(PromptBuilder.estimateTokens("日本語")).isEqualTo(3);
+    }
+
+    @Test
+    void keepsEverythingWithinBudget() {
+        PromptBuilder prompt = new PromptBuilder(0)
+                .add(FIXED).addOptional(LOW_FIRST, 1).addFitted(HIGH);
+
+        assertThat(prompt.build()).isEqualTo(FIXED + LOW_FIRST + HIGH);
+        assertThat(prompt.droppedParts()).isZero();
+        assertThat(prompt.cutChars()).isZero();
+        assertThat(prompt.estimatedTokens()).isEqualTo(12);
+    }
+
+    @Test
+    void dropsLowestPriorityAndThenLastAddedFirst() {
+        // 4 + 4 + 4 + 3 tokens
+        PromptBuilder prompt = new PromptBuilder(10)
+                .add(FIXED)
+                .addOptional(LOW_FIRST, 1)
+                .addOptional(HIGH, 2)
+                .addOptional(LOW_LAST, 1);
+
+        assertThat(prompt.build()).isEqualTo(FIXED + HIGH);
+        assertThat(prompt.droppedParts()).isEqualTo(2);
+        assertThat(prompt.estimatedTokens()).isEqualTo(8);
+    }
+
+    @Test
+    void keepsPartOrderWhenDropping() {
+        PromptBuilder prompt = new PromptBuilder(11)
+                .addOptional(LOW_FIRST, 1)
+                .add(FIXED)
+                .addOptional(HIGH, 5)
+                .addOptional(LOW_LAST, 3);
+
+        assertThat(prompt.build()).isEqualTo(FIXED + HIGH + LOW_LAST);
+    }
+
+    @Test
+    void fixedPartsAreKeptOverBudget() {
+        PromptBuilder prompt = new PromptBuilder(2).add(FIXED).addOptional(HIGH, 1);
+
+        assertThat(prompt.build()).isEqualTo(FIXED);
+        assertThat(prompt.estimatedTokens()).isEqualTo(4);
+    }
+
+    @Test
+    void fittedPartIsCutAtALineBoundaryToTheRoomLeft() {
+        String resume = "word word word\n".repeat(10);
+        PromptBuilder prompt = new PromptBuilder(20).add(FIXED).addFitted(resume).add("end\n");
+
+        String built = prompt.build();
+
+        assertThat(built).startsWith(FIXED).endsWith("\n...end\n");
+        String kept = built.substring(FIXED.length(), built.length() - "\n...end\n".length());
+        assertThat(resume).startsWith(kept + "\n");
+        assertThat(kept).isNotEmpty();
+        assertThat(prompt.estimatedTokens()).isLessThanOrEqualTo(20).isEqualTo(PromptBuilder.estimateTokens(built));
+        assertThat(prompt.cutChars()).isEqualTo(resume.length() - (kept + "\n...").length());
+    }
+
+    @Test
+    void fittedPartWithoutLineBreaksIsCutAtASpace() {
+        String summary = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod";
+        PromptBuilder prompt = new PromptBuilder(10).addFitted(summary);
+
+        String built = prompt.build();
+
+        assertThat(built).endsWith("\n...");
+        String kept = built.substring(0, built.length() - "\n...".length());
+        assertThat(summary).startsWith(kept + " ");
+        assertThat(prompt.estimatedTokens()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void fittedPartIsDroppedWhenNoRoomIsLeft() {
+        PromptBuilder prompt = new PromptBuilder(5).add(FIXED).addFitted("word word word\n".repeat(3));
+
+        assertThat(prompt.build()).isEqualTo(FIXED);
+    }
+
+    @Test
+    void countersDescribeOnlyTheLastBuild() {
+        PromptBuilder prompt = new PromptBuilder(10)
+                .add(FIXED).addOptional(LOW_FIRST, 1).addOptional(HIGH, 2).addOptional(LOW_LAST, 1)
+                .addFitted("word word word\n".repeat(3));
+
+        String first = prompt.build();
+        int dropped = prompt.droppedParts();
+        int cut = prompt.cutChars();
+
+        assertThat(prompt.build()).isEqualTo(first);
+        assertThat(prompt.droppedParts()).isEqualTo(dropped).isPositive();
+        assertThat(prompt.cutChars()).isEqualTo(cut).isPositive();
+    }
+
+    @Test
+    void onlyOneFittedPart() {
+        PromptBuilder prompt = new PromptBuilder(10).addFitted("a");
+
+        assertThatIllegalStateException().isThrownBy(() -> prompt.addFitted("b"));
+    }
+
+    @Test
+    void compactTidiesExtractedText() {
+        String header = "Jane Doe - Senior Software Engineer - jane@example.com";
+        String text = header + "\n"
+                + "  Java\t  Spring   Boot  \n"
+                + "\n\n\n"
+                + "Page 1 of 2\n"
+                + "Java\n"
+                + "Java\n"
+                + header + "\r\n"
+                + "   \n";
+
+        String compacted = PromptBuilder.compact(text, Pattern.compile("Page \\d+ of \\d+"));
+
+        assertThat(compacted).isEqualTo(header + "\nJava Spring Boot\n\nJava\nJava\n");
+    }
+
+    @Test
+    void compactOfNullIsEmpty() {
+        assertThat(PromptBuilder.compact(null, null)).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class ProviderGuardTest {
+
+    private static CircuitBreaker breaker(String name) {
+        return new CircuitBreaker(name, 4, 2, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofMinutes(1), 1);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutSubscribing() {
+        ProviderGuard guard = new ProviderGuard(ProviderGuardTest::breaker, provider -> true);
+        guard.breaker("a").tripFor(Duration.ofMinutes(1));
+        AtomicBoolean called = new AtomicBoolean();
+
+        Mono<String> call = guard.guard("a", "a", Mono.fromCallable(() -> {
+            called.set(true);
+            return "x";
+        }));
+
+        assertThatThrownBy(call::block).isInstanceOf(ProviderGuard.CircuitOpenException.class);
+        assertThat(called).isFalse();
+    }
+
+    @Test
+    void spentBudgetRejectsAndLeavesBreakerAlone() {
+        ProviderGuard guard = new ProviderGuard(ProviderGuardTest::breaker, provider -> false);
+
+        assertThatThrownBy(() -> guard.guard("a", "a", Mono.just("x")).block())
+                .isInstanceOf(ProviderGuard.BudgetExhaustedException.class);
+        assertThat(guard.breaker("a").snapshot().bufferedCalls()).isZero();
+    }
+
+    @Test
+    void failuresOpenTheBreakerAndEveryCallIsTimed() {
+        ProviderGuard guard = new ProviderGuard(ProviderGuardTest::breaker, provider -> true);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.guard("a", "a:op", Mono.error(new IllegalStateException())).block())
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(guard.breaker("a").snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(guard.latency("a:op").sampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void hedgeDelayFallsBackToDefaultAndIsFlooredAtMin() {
+        ProviderGuard guard = new ProviderGuard(ProviderGuardTest::breaker, provider -> true);
+        assertThat(guard.hedgeDelay("a", 0.9, Duration.ofSeconds(2), Duration.ofMillis(500)))
+                .isEqualTo(Duration.ofSeconds(2));
+
+        for (int i = 0; i < 50; i++) {
+            guard.latency("a").record(Duration.ofMillis(10));
+        }
+        assertThat(guard.hedgeDelay("a", 0.9, Duration.ofSeconds(2), Duration.ofMillis(500)))
+                .isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void hedgedFiresFallbacksAfterDelayAndFirstValueWins() {
+        AtomicInteger hedges = new AtomicInteger();
+
+        String result = ProviderGuard.hedged(Mono.just("primary").delayElement(Duration.ofSeconds(5)),
+                Mono.just("fallback"), Duration.ofMillis(20), hedges::incrementAndGet).block();
+
+        assertThat(result).isEqualTo("fallback");
+        assertThat(hedges).hasValue(1);
+    }
+
+    @Test
+    void hedgedFailsOverImmediatelyWithoutCountingAHedge() {
+        AtomicInteger hedges = new AtomicInteger();
+
+        String result = ProviderGuard.hedged(Mono.<String>empty(), Mono.just("fallback"), Duration.ofSeconds(5),
+                hedges::incrementAndGet).block(Duration.ofSeconds(1));
+
+        assertThat(result).isEqualTo("fallback");
+        assertThat(hedges).hasValue(0);
+    }
+
+    @Test
+    void hedgedIsEmptyWhenEverySideIsEmpty() {
+        assertThat(ProviderGuard.hedged(Mono.<String>empty(), Mono.<String>empty(), Duration.ofMillis(10), () -> {
+        }).block()).isNull();
+    }
+
+    @Test
+    void prioritizeFollowsConfiguredOrderAndDropsUnknownAndDuplicateNames() {
+        List<String> ordered = ProviderGuard.prioritize(List.of("jsearch", "theirstack"), name -> name,
+                List.of(" TheirStack", "nope", "jsearch", "theirstack"), "test.providers");
+
+        assertThat(ordered).containsExactly("theirstack", "jsearch");
+    }
+}
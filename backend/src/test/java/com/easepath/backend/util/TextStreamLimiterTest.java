@@ -0,0 +1,112 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.easepath.backend.controller.ExtensionController;
+
+class TextStreamLimiterTest {
+
+    @Test
+    void holdsBackTheWordInProgress() {
+        TextStreamLimiter limiter = new TextStreamLimiter(0);
+
+        assertThat(limiter.accept("Hello wor")).isEqualTo("Hello");
+        assertThat(limiter.accept("ld, how")).isEqualTo(" world,");
+        assertThat(limiter.accept("  ")).isEqualTo(" how");
+        assertThat(limiter.finish()).isEqualTo("  ");
+        assertThat(limiter.isTruncated()).isFalse();
+        assertThat(limiter.length()).isEqualTo("Hello world, how  ".length());
+    }
+
+    @Test
+    void cutsAtTheLastSpaceBeforeTheLimit() {
+        TextStreamLimiter limiter = new TextStreamLimiter(20);
+
+        String sent = limiter.accept("I have five years of ") + limiter.accept("experience");
+
+        assertThat(sent).isEqualTo("I have five years of...");
+        assertThat(limiter.isTruncated()).isTrue();
+        assertThat(limiter.length()).isEqualTo(sent.length());
+        assertThat(limiter.accept(" more")).isEmpty();
+        assertThat(limiter.finish()).isEmpty();
+    }
+
+    @Test
+    void cutsHardWhenTheLastSpaceIsTooEarly() {
+        TextStreamLimiter limiter = new TextStreamLimiter(10);
+
+        String sent = limiter.accept("I ") + limiter.accept("supercalifragilistic");
+
+        assertThat(sent).isEqualTo("I supercal...");
+    }
+
+    @Test
+    void textWithinTheLimitIsUntouched() {
+        TextStreamLimiter limiter = new TextStreamLimiter(11);
+
+        String sent = limiter.accept("Hello ") + limiter.accept("world") + limiter.finish();
+
+        assertThat(sent).isEqualTo("Hello world");
+        assertThat(limiter.isTruncated()).isFalse();
+    }
+
+    /**
+     * However the answer is chunked, the streamed text must equal what the
+     * non-streaming endpoint sends for the complete answer.
+     */
+    @ParameterizedTest
+    @ValueSource(longs = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 })
+    void matchesTruncatingTheCompleteAnswer(long seed) {
+        Random random = new Random(seed);
+        for (int run = 0; run < 200; run++) {
+            String answer = randomAnswer(random);
+            int maxLength = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(answer.length() + 10);
+
+            TextStreamLimiter limiter = new TextStreamLimiter(maxLength);
+            StringBuilder sent = new StringBuilder();
+            int pos = 0;
+            while (pos < answer.length() && !limiter.isTruncated()) {
+                int end = Math.min(answer.length(), pos + 1 + random.nextInt(12));
+                sent.append(limiter.accept(answer.substring(pos, end)));
+                pos = end;
+            }
+            sent.append(limiter.finish());
+
+            String expected = truncateAnswer(answer, maxLength);
+            assertThat(sent.toString()).as("answer '%s', limit %d", answer, maxLength).isEqualTo(expected);
+            assertThat(limiter.length()).isEqualTo(expected.length());
+            assertThat(limiter.isTruncated()).isEqualTo(!expected.equals(answer));
+        }
+    }
+
+    private static String truncateAnswer(String answer, int maxLength) {
+        return ReflectionTestUtils.invokeMethod(ExtensionController.class, "truncateAnswer", answer, maxLength);
+    }
+
+    // Words separated by one or more spaces, sometimes a very long word; no
+    // leading whitespace, which the non-streaming path would trim
+    private static String randomAnswer(Random random) {
+        StringBuilder answer = new StringBuilder();
+        int words = 1 + random.nextInt(30);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                answer.append(" ".repeat(random.nextInt(8) == 0 ? 2 : 1));
+            }
+            int length = random.nextInt(10) == 0 ? 20 + random.nextInt(40) : 1 + random.nextInt(10);
+            for (int c = 0; c < length; c++) {
+                answer.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        if (random.nextInt(5) == 0) {
+            answer.append(' ');
+        }
+        return answer.toString();
+    }
+}
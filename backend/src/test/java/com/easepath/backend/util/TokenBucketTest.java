@@ -0,0 +1,95 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void startsFullAndAllowsABurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, clock);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        // 2 tokens a second: one every 500ms
+        TokenBucket bucket = new TokenBucket(1, 2, clock);
+        assertThat(bucket.tryAcquire()).isTrue();
+
+        clock.advance(Duration.ofMillis(499));
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void partialRefillsAccumulate() {
+        TokenBucket bucket = new TokenBucket(5, 1, clock);
+        bucket.drain();
+
+        clock.advance(Duration.ofMillis(300));
+        assertThat(bucket.tryAcquire()).isFalse();
+        clock.advance(Duration.ofMillis(300));
+        assertThat(bucket.tryAcquire()).isFalse();
+        clock.advance(Duration.ofMillis(400));
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.availableTokens()).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, clock);
+
+        clock.advance(Duration.ofHours(1));
+
+        assertThat(bucket.availableTokens()).isEqualTo(2);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void drainEmptiesTheBucketUntilItRefills() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock);
+
+        bucket.drain();
+
+        assertThat(bucket.availableTokens()).isZero();
+        assertThat(bucket.tryAcquire()).isFalse();
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotRemoveTokens() {
+        TokenBucket bucket = new TokenBucket(2, 1, clock);
+        bucket.tryAcquire();
+
+        clock.advance(Duration.ofSeconds(-30));
+
+        assertThat(bucket.availableTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(0, 1, clock));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(1, 0, clock));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(-1, 1, clock));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(1, -0.5, clock));
+    }
+}
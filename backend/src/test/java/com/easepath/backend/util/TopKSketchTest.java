@@ -0,0 +1,120 @@
+package com.easepath.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopKSketchTest {
+
+    @Test
+    void countsExactlyWhenThereAreNoCollisions() {
+        TopKSketch<String> sketch = new TopKSketch<>(3, 4096, 4);
+
+        add(sketch, "nurse", 5);
+        add(sketch, "driver", 2);
+        add(sketch, "teacher", 9);
+
+        assertThat(sketch.top()).containsExactly(
+                new TopKSketch.Entry<>("teacher", 9),
+                new TopKSketch.Entry<>("nurse", 5),
+                new TopKSketch.Entry<>("driver", 2));
+    }
+
+    @Test
+    void newHeavyHitterDisplacesTheWeakestCandidate() {
+        TopKSketch<String> sketch = new TopKSketch<>(2, 4096, 4);
+        add(sketch, "nurse", 5);
+        add(sketch, "driver", 2);
+
+        // Ties with the weakest do not displace it
+        add(sketch, "welder", 2);
+        assertThat(items(sketch)).containsExactly("nurse", "driver");
+
+        sketch.add("welder");
+        assertThat(items(sketch)).containsExactly("nurse", "welder");
+    }
+
+    @Test
+    void neverUndercountsInANarrowSketch() {
+        TopKSketch<Integer> sketch = new TopKSketch<>(5, 16, 3);
+        Map<Integer, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            // Skewed: low numbers are far more frequent
+            int item = (int) Math.abs(random.nextGaussian() * 20);
+            truth.merge(item, 1L, Long::sum);
+            assertThat(sketch.add(item)).isGreaterThanOrEqualTo(truth.get(item));
+        }
+
+        for (TopKSketch.Entry<Integer> entry : sketch.top()) {
+            assertThat(entry.count()).isGreaterThanOrEqualTo(truth.get(entry.item()));
+        }
+    }
+
+    @Test
+    void findsTheHeavyHittersOfASkewedStream() {
+        TopKSketch<Integer> sketch = new TopKSketch<>(5, 1024, 4);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            // Zipf-like: item n is seen about 1/n as often as item 1
+            sketch.add((int) Math.floor(Math.pow(1000, random.nextDouble())));
+        }
+
+        assertThat(items(sketch)).hasSize(5).contains(1, 2, 3);
+    }
+
+    @Test
+    void decayHalvesCountsAndDropsItemsThatReachZero() {
+        TopKSketch<String> sketch = new TopKSketch<>(3, 4096, 4);
+        add(sketch, "nurse", 8);
+        add(sketch, "driver", 3);
+        add(sketch, "welder", 1);
+
+        sketch.decay();
+
+        assertThat(sketch.top()).containsExactly(
+                new TopKSketch.Entry<>("nurse", 4),
+                new TopKSketch.Entry<>("driver", 1));
+        assertThat(sketch.add("nurse")).isEqualTo(5);
+    }
+
+    @Test
+    void decayLetsCurrentDemandOvertakeOldPopularity() {
+        TopKSketch<String> sketch = new TopKSketch<>(1, 4096, 4);
+        add(sketch, "old", 100);
+        add(sketch, "new", 30);
+        assertThat(items(sketch)).containsExactly("old");
+
+        sketch.decay();
+        sketch.decay();
+        add(sketch, "new", 20);
+
+        // old: 100 -> 25, new: 30 -> 7 + 20 = 27
+        assertThat(sketch.top()).containsExactly(new TopKSketch.Entry<>("new", 27));
+    }
+
+    @Test
+    void rejectsNonPositiveDimensions() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TopKSketch<String>(0, 16, 3));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TopKSketch<String>(3, 0, 3));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TopKSketch<String>(3, 16, 0));
+    }
+
+    private static void add(TopKSketch<String> sketch, String item, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.add(item);
+        }
+    }
+
+    private static <T> List<T> items(TopKSketch<T> sketch) {
+        return sketch.top().stream().map(TopKSketch.Entry::item).toList();
+    }
+}
@@ -144,7 +144,7 @@ document.addEventListener('DOMContentLoaded', async () => {
 
     // Disconnect button
     disconnectBtn.addEventListener('click', () => {
-        chrome.storage.local.remove(['userEmail', 'userProfile', 'autoApplyEnabled'], () => {
+        chrome.storage.local.remove(['userEmail', 'userProfile', 'profileETag', 'autoApplyEnabled'], () => {
             chrome.runtime.sendMessage({ action: "set_user_email", email: null });
             userProfile = null;
             showNotConnectedState();
@@ -339,15 +339,24 @@ document.addEventListener('DOMContentLoaded', async () => {
             }
 
             const headers = { 'Authorization': `Bearer ${authToken}` };
+
+            // Revalidate the stored profile instead of downloading it again
+            const cached = await chrome.storage.local.get(['userProfile', 'profileETag']);
+            if (cached.userProfile && cached.profileETag) {
+                headers['If-None-Match'] = cached.profileETag;
+            }
+
             const response = await fetch(`${API_BASE_URL}/profile`, { headers });
 
-            if (response.ok) {
-                userProfile = await response.json();
+            if (response.ok || response.status === 304) {
+                // 304: the stored profile is still current
+                userProfile = response.status === 304 ? cached.userProfile : await response.json();
 
                 // Store for future use (including auth token)
                 chrome.storage.local.set({
                     userEmail: email || userProfile.email,
                     userProfile: userProfile,
+                    profileETag: response.headers.get('ETag') || cached.profileETag || null,
                     authToken: authToken
                 });
 
@@ -268,27 +268,25 @@ chrome.runtime.onMessage.addListener((request, sender, sendResponse) => {
         return true; // Keep channel open for async
     }
 
-    // Handle AI essay generation request
-    if (request.action === "generate_essay_response") {
+    // Handle batch AI essay generation (all questions of a form, one AI call)
+    if (request.action === "generate_essay_responses") {
         if (!userEmail || !authToken) {
             sendResponse({ error: "Not logged in" });
             return true;
         }
 
-        console.log("Background: Generating AI response for essay:", request.question.substring(0, 50));
+        console.log("Background: Generating AI responses for", request.questions.length, "essays");
 
-        fetch(`${API_BASE_URL}/generate-essay`, {
+        fetch(`${API_BASE_URL}/generate-essays`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
                 'Authorization': `Bearer ${authToken}`
             },
             body: JSON.stringify({
-                userEmail: userEmail,
-                question: request.question,
                 jobTitle: request.jobTitle,
                 companyName: request.companyName,
-                maxLength: request.maxLength || 500
+                questions: request.questions
             })
         })
             .then(res => {
@@ -296,18 +294,92 @@ chrome.runtime.onMessage.addListener((request, sender, sendResponse) => {
                 return res.json();
             })
             .then(data => {
-                console.log("Background: AI response generated successfully");
-                sendResponse({ success: true, response: data.response });
+                console.log("Background: AI responses generated successfully");
+                sendResponse({ success: true, answers: data.answers || {} });
             })
             .catch(err => {
-                console.error("Background: Failed to generate essay:", err);
-                sendResponse({ error: "Could not generate AI response" });
+                console.error("Background: Failed to generate essays:", err);
+                sendResponse({ error: "Could not generate AI responses" });
             });
 
         return true;
     }
 });
 
+// Streamed AI essay generation: the content script opens one port per
+// question and gets the answer chunk by chunk as it is written.
+// Disconnecting the port aborts the request, which stops the generation.
+chrome.runtime.onConnect.addListener((port) => {
+    if (port.name !== "essay_stream") return;
+
+    const controller = new AbortController();
+    port.onDisconnect.addListener(() => controller.abort());
+
+    port.onMessage.addListener(async (request) => {
+        if (!userEmail || !authToken) {
+            port.postMessage({ type: "error", error: "Not logged in" });
+            return;
+        }
+
+        console.log("Background: Streaming AI response for essay:", request.question.substring(0, 50));
+
+        try {
+            const res = await fetch(`${API_BASE_URL}/generate-essay/stream`, {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                    'Accept': 'text/event-stream',
+                    'Authorization': `Bearer ${authToken}`
+                },
+                body: JSON.stringify({
+                    question: request.question,
+                    jobTitle: request.jobTitle,
+                    companyName: request.companyName,
+                    maxLength: request.maxLength || 500
+                }),
+                signal: controller.signal
+            });
+            if (!res.ok) throw new Error(`HTTP ${res.status}`);
+
+            const reader = res.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (true) {
+                const { done, value } = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+
+                // Events end with a blank line
+                let end;
+                while ((end = buffer.indexOf('\n\n')) !== -1) {
+                    const event = parseServerSentEvent(buffer.slice(0, end));
+                    buffer = buffer.slice(end + 2);
+                    if (event) port.postMessage(event);
+                }
+            }
+        } catch (err) {
+            if (err.name === 'AbortError') return; // Content script went away
+            console.error("Background: Failed to stream essay:", err);
+            port.postMessage({ type: "error", error: "Could not generate AI response" });
+        }
+    });
+});
+
+// Parse one server-sent event ("event:" line + JSON "data:" lines)
+function parseServerSentEvent(raw) {
+    let type = 'message';
+    const data = [];
+    for (const line of raw.split('\n')) {
+        if (line.startsWith('event:')) {
+            type = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+            data.push(line.slice(5));
+        }
+    }
+    if (data.length === 0) return null;
+    return { type, ...JSON.parse(data.join('\n')) };
+}
+
 // Extract platform name from URL
 function extractPlatform(url) {
     try {
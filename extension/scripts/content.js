@@ -205,22 +205,31 @@ async function performSmartAutofill(autoSubmit, sendResponse) {
                 updateOverlay(`✨ Generating AI responses for ${essayCount} essay(s)...`);
                 const jobInfo = extractJobInfoFromPage();
 
-                for (const essay of essays) {
-                    if (!essay.element.value || essay.element.value.trim() === '') {
-                        updateOverlay(`✨ Writing: ${essay.label.substring(0, 30)}...`);
+                const emptyEssays = essays.filter(essay => !essay.element.value || essay.element.value.trim() === '');
+
+                // One AI call for all questions on the page; only questions
+                // missing from its answers get one request each
+                const answers = await generateEssaysWithAI(emptyEssays, jobInfo.title, jobInfo.company);
+
+                for (let i = 0; i < emptyEssays.length; i++) {
+                    const essay = emptyEssays[i];
+                    let aiResponse = answers[`q${i}`];
 
-                        const aiResponse = await generateEssayWithAI(
+                    if (!aiResponse) {
+                        updateOverlay(`✨ Writing: ${essay.label.substring(0, 30)}...`);
+                        aiResponse = await streamEssayWithAI(
+                            essay.element,
                             essay.label,
                             jobInfo.title,
                             jobInfo.company,
                             parseInt(essay.element.getAttribute('maxlength') || '500')
                         );
+                    }
 
-                        if (aiResponse) {
-                            fillTextInput(essay.element, aiResponse);
-                            totalFilled++;
-                            console.log("EasePath: ✓ AI filled essay:", essay.label.substring(0, 30));
-                        }
+                    if (aiResponse) {
+                        fillTextInput(essay.element, aiResponse);
+                        totalFilled++;
+                        console.log("EasePath: ✓ AI filled essay:", essay.label.substring(0, 30));
                     }
                 }
                 essayCount = 0; // Mark as handled
@@ -822,38 +831,121 @@ document.addEventListener('submit', () => {
 }, true);
 
 /**
- * Generate an AI response for an essay question
+ * Stream an AI response for an essay question into its field as it is
+ * written. Resolves to the full answer, or null if generation failed.
+ * Closing the field (removing it from the page) cancels the generation.
  */
-async function generateEssayWithAI(question, jobTitle, companyName, maxLength) {
-    return new Promise((resolve, reject) => {
+function streamEssayWithAI(element, question, jobTitle, companyName, maxLength) {
+    return new Promise((resolve) => {
+        const port = chrome.runtime.connect({ name: "essay_stream" });
+        let text = '';
+        let finished = false;
+
+        const finish = (result) => {
+            if (finished) return;
+            finished = true;
+            clearTimeout(timeoutId);
+            clearInterval(watchId);
+            // Disconnecting aborts the request and the generation
+            port.disconnect();
+            if (result === null && element.isConnected) {
+                element.value = ''; // Don't leave half an answer behind
+            }
+            resolve(result);
+        };
+
         const timeoutId = setTimeout(() => {
             console.error("EasePath: AI essay generation timed out after 30 seconds");
-            resolve(null);
+            finish(null);
         }, 30000);
 
-        chrome.runtime.sendMessage({
-            action: "generate_essay_response",
+        const watchId = setInterval(() => {
+            if (!element.isConnected) {
+                console.log("EasePath: Essay field closed, cancelling AI generation");
+                finish(null);
+            }
+        }, 250);
+
+        port.onMessage.addListener((message) => {
+            if (message.type === "token") {
+                text += message.text;
+                element.value = text;
+            } else if (message.type === "done") {
+                finish(text || null);
+            } else if (message.type === "error") {
+                console.error("EasePath: AI essay generation failed:", message.error);
+                finish(null);
+            }
+        });
+
+        port.onDisconnect.addListener(() => {
+            if (chrome.runtime.lastError) {
+                console.error("EasePath: Chrome runtime error during AI essay generation:", chrome.runtime.lastError);
+            }
+            finish(null);
+        });
+
+        port.postMessage({
             question: question,
             jobTitle: jobTitle,
             companyName: companyName,
             maxLength: maxLength
-        }, (response) => {
-            clearTimeout(timeoutId);
+        });
+    });
+}
 
-            if (chrome.runtime.lastError) {
-                console.error("EasePath: Chrome runtime error during AI essay generation:", chrome.runtime.lastError);
-                resolve(null);
-                return;
-            }
+// Backend limit on questions per batch request
+const ESSAY_BATCH_SIZE = 10;
 
-            if (response && response.success && response.response) {
-                resolve(response.response);
-            } else {
-                console.error("EasePath: AI essay generation failed:", response?.error);
+/**
+ * Generate AI responses for several essay questions with one request per
+ * ESSAY_BATCH_SIZE questions. Resolves to the answers received, keyed
+ * "q<index>"; a request that fails only loses its own questions, and callers
+ * write whichever ids are missing one at a time.
+ */
+async function generateEssaysWithAI(essays, jobTitle, companyName) {
+    const answers = {};
+    for (let start = 0; start < essays.length; start += ESSAY_BATCH_SIZE) {
+        const questions = essays.slice(start, start + ESSAY_BATCH_SIZE).map((essay, i) => ({
+            id: `q${start + i}`,
+            question: essay.label,
+            maxLength: parseInt(essay.element.getAttribute('maxlength') || '500')
+        }));
+
+        const batch = await new Promise((resolve) => {
+            const timeoutId = setTimeout(() => {
+                console.error("EasePath: AI essay batch generation timed out after 45 seconds");
                 resolve(null);
-            }
+            }, 45000);
+
+            chrome.runtime.sendMessage({
+                action: "generate_essay_responses",
+                questions: questions,
+                jobTitle: jobTitle,
+                companyName: companyName
+            }, (response) => {
+                clearTimeout(timeoutId);
+
+                if (chrome.runtime.lastError) {
+                    console.error("EasePath: Chrome runtime error during AI essay generation:", chrome.runtime.lastError);
+                    resolve(null);
+                    return;
+                }
+
+                if (response && response.success && response.answers) {
+                    resolve(response.answers);
+                } else {
+                    console.error("EasePath: AI essay batch generation failed:", response?.error);
+                    resolve(null);
+                }
+            });
         });
-    });
+
+        if (batch) {
+            Object.assign(answers, batch);
+        }
+    }
+    return answers;
 }
 
 console.log("EasePath: Content script ready");
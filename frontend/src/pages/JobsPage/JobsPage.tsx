@@ -48,6 +48,9 @@ const SALARY_OPTIONS = [
   { value: '200000', label: '$200k+' },
 ];
 
+// Most search pages kept for paging back without refetching
+const PAGE_CACHE_LIMIT = 50;
+
 const JobsPage: React.FC = () => {
   const { user, logout } = useAuth();
   const { theme } = useTheme();
@@ -60,7 +63,8 @@ const JobsPage: React.FC = () => {
   const [activeNav, setActiveNav] = useState('jobs');
   const [sidebarCollapsed, setSidebarCollapsed] = useState(false);
   const [showFilters, setShowFilters] = useState(true);
-  const [page, setPage] = useState(1);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [totalJobs, setTotalJobs] = useState(0);
   const [hasSearched, setHasSearched] = useState(false);
 
@@ -109,9 +113,26 @@ const JobsPage: React.FC = () => {
 
   const [savedJobs, setSavedJobs] = useState<Set<string>>(new Set());
 
-  // Fetch jobs from JSearch API (RapidAPI)
-  const fetchJobs = useCallback(async (searchFilters: Filters, pageNum: number = 1) => {
-    setLoading(true);
+  // Pages already fetched, keyed by request params, so paging back over a
+  // search never refetches. Least recently used first (Map insertion order),
+  // capped at PAGE_CACHE_LIMIT. Filters of the current search for "load more".
+  const pageCacheRef = useRef<Map<string, any>>(new Map());
+  const activeFiltersRef = useRef<Filters | null>(null);
+
+  // Fetch jobs from JSearch API (RapidAPI). Without a cursor this starts a new
+  // search; with one it appends the next page of the current search.
+  const fetchJobs = useCallback(async (searchFilters: Filters, cursor?: string) => {
+    const isFirstPage = !cursor;
+    // A response is only applied while its search is still the active one
+    const isCurrent = () => activeFiltersRef.current === searchFilters;
+    if (isFirstPage) {
+      setLoading(true);
+      // A load-more of the previous search will never clear its own flag
+      setLoadingMore(false);
+      activeFiltersRef.current = searchFilters;
+    } else {
+      setLoadingMore(true);
+    }
     setError(null);
     setHasSearched(true);
 
@@ -124,10 +145,13 @@ const JobsPage: React.FC = () => {
 
       const params = new URLSearchParams({
         query: searchQuery,
-        page: pageNum.toString(),
-        num_pages: '1',
+        page_size: '10',
       });
 
+      if (cursor) {
+        params.set('cursor', cursor);
+      }
+
       // Add location to query if selected (parsed by backend)
       if (searchFilters.location && searchFilters.location !== 'Remote') {
         params.set('query', `${searchFilters.query || 'software engineer'} in ${searchFilters.location}`);
@@ -151,18 +175,45 @@ const JobsPage: React.FC = () => {
 
       console.log('Fetching jobs with params:', params.toString());
 
-      // Using apiRequest for automatic 401 handling
-      const response = await apiRequest(`/api/jobs/search?${params.toString()}`);
+      const cacheKey = params.toString();
+      const pageCache = pageCacheRef.current;
+      let data = pageCache.get(cacheKey);
+      if (data) {
+        // Move to the most recently used end
+        pageCache.delete(cacheKey);
+        pageCache.set(cacheKey, data);
+      } else {
+        // Using apiRequest for automatic 401 handling
+        const response = await apiRequest(`/api/jobs/search?${cacheKey}`);
 
-      if (!response.ok) {
-        const errorData = await response.json().catch(() => ({}));
-        console.error('API Error:', response.status, errorData);
-        throw new Error(`Failed to fetch jobs: ${response.status}`);
-      }
+        if (!response.ok) {
+          const errorData = await response.json().catch(() => ({}));
+          console.error('API Error:', response.status, errorData);
+          throw new Error(`Failed to fetch jobs: ${response.status}`);
+        }
 
-      const data = await response.json();
+        data = await response.json();
+        // The backend reports upstream failures as HTTP 200 with status
+        // "ERROR"; only cache real results so searching again retries
+        if (data.status === 'OK') {
+          pageCache.set(cacheKey, data);
+          if (pageCache.size > PAGE_CACHE_LIMIT) {
+            const oldest = pageCache.keys().next().value;
+            if (oldest !== undefined) {
+              pageCache.delete(oldest);
+            }
+          }
+        }
+      }
       console.log('Jobs API response:', data);
 
+      // Ignore a response that arrives after the user started a different
+      // search - a slow first page must not overwrite a newer one
+      if (!isCurrent()) {
+        return;
+      }
+      setNextCursor(data.next_cursor ?? null);
+
       if (data.data && data.data.length > 0) {
         // Client-side filtering for salary (TheirStack doesn't have salary filter)
         let filteredJobs = data.data;
@@ -184,8 +235,18 @@ const JobsPage: React.FC = () => {
         // Note: Employment type filtering is now done by the backend API
         console.log('Jobs after filtering:', filteredJobs.length);
 
-        setJobs(pageNum === 1 ? filteredJobs : [...jobs, ...filteredJobs]);
-        setTotalJobs(filteredJobs.length > 0 ? (filteredJobs.length * 10) : 0); // Estimated total
+        if (isFirstPage) {
+          setJobs(filteredJobs);
+          setTotalJobs(filteredJobs.length);
+        } else {
+          // A first page answered from the local index can overlap the
+          // upstream pages after it
+          setJobs(prev => {
+            const seen = new Set(prev.map(job => job.job_id));
+            return [...prev, ...filteredJobs.filter((job: Job) => !seen.has(job.job_id))];
+          });
+          setTotalJobs(prev => prev + filteredJobs.length);
+        }
         if (filteredJobs.length > 0 && !selectedJob) {
           setSelectedJob(filteredJobs[0]);
         }
@@ -194,13 +255,29 @@ const JobsPage: React.FC = () => {
       }
     } catch (err) {
       console.error('Error fetching jobs:', err);
+      if (!isCurrent()) {
+        return;
+      }
       setError('Unable to fetch jobs. Please check your API key or try again later.');
       // Load demo data for preview
-      loadDemoData();
+      if (isFirstPage) {
+        setNextCursor(null);
+        loadDemoData();
+      }
     } finally {
-      setLoading(false);
+      // The newer search owns the flags now
+      if (isCurrent()) {
+        setLoading(false);
+        setLoadingMore(false);
+      }
     }
-  }, [jobs, selectedJob]);
+  }, [selectedJob]);
+
+  const loadMoreJobs = () => {
+    if (nextCursor && activeFiltersRef.current && !loadingMore) {
+      fetchJobs(activeFiltersRef.current, nextCursor);
+    }
+  };
 
   const loadDemoData = () => {
     const demoJobs: Job[] = [
@@ -258,8 +335,7 @@ const JobsPage: React.FC = () => {
       setError('Please enter at least 3 characters to search');
       return;
     }
-    setPage(1);
-    fetchJobs(filters, 1);
+    fetchJobs(filters);
   };
 
   // Debounce timer ref for search
@@ -281,8 +357,7 @@ const JobsPage: React.FC = () => {
       if (query.length === 0 || query.length >= 3) {
         // Debounce: wait 500ms before searching
         searchDebounceRef.current = setTimeout(() => {
-          setPage(1);
-          fetchJobs(newFilters, 1);
+          fetchJobs(newFilters);
         }, 500);
       }
     }
@@ -299,8 +374,7 @@ const JobsPage: React.FC = () => {
       salaryMin: '',
     };
     setFilters(emptyFilters);
-    setPage(1);
-    fetchJobs(emptyFilters, 1);
+    fetchJobs(emptyFilters);
   };
 
   const toggleSaveJob = (jobId: string) => {
@@ -454,7 +528,7 @@ const JobsPage: React.FC = () => {
   // Load jobs on page load
   useEffect(() => {
     // Fetch real jobs from API on initial load
-    fetchJobs({ ...filters, query: 'software engineer' }, 1);
+    fetchJobs({ ...filters, query: 'software engineer' });
   }, []);
 
   return (
@@ -523,6 +597,15 @@ const JobsPage: React.FC = () => {
                   ))}
                 </AnimatePresence>
               )}
+              {!loading && nextCursor && jobs.length > 0 && (
+                <button
+                  className="load-more-button"
+                  onClick={loadMoreJobs}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? 'Loading...' : 'Load more jobs'}
+                </button>
+              )}
             </div>
 
             {/* Job Details Panel */}